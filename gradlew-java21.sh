@@ -0,0 +1,4 @@
+#!/bin/bash
+# Wrapper script to run Gradle with Java 21
+export JAVA_HOME=/opt/homebrew/opt/openjdk@21/libexec/openjdk.jdk/Contents/Home
+exec ./gradlew "$@"
@@ -0,0 +1,79 @@
+package com.orchestrator.benchmark;
+
+import com.orchestrator.config.EndpointConfigLoader;
+import com.orchestrator.context.RequestContext;
+import org.apache.camel.CamelContext;
+import org.apache.camel.Exchange;
+import org.apache.camel.support.DefaultExchange;
+import org.springframework.core.io.ClassPathResource;
+
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+/**
+ * Wiring shared by the benchmarks: components are created directly, without a
+ * Spring context, and @Value fields are set by reflection
+ */
+final class BenchmarkSupport {
+
+    private BenchmarkSupport() {
+    }
+
+    static void setField(Object target, String name, Object value) {
+        try {
+            Field field = target.getClass().getDeclaredField(name);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot set " + name + " on " + target.getClass().getSimpleName(), e);
+        }
+    }
+
+    /**
+     * Endpoint configurations and plans from the real endpoints.yml
+     */
+    static EndpointConfigLoader endpointConfigLoader() {
+        EndpointConfigLoader loader = new EndpointConfigLoader();
+        setField(loader, "endpointsResource", new ClassPathResource("endpoints.yml"));
+        loader.loadConfigurations();
+        return loader;
+    }
+
+    /**
+     * Exchange carrying a caller payload, as after RequestContext.capture in the routes
+     */
+    static Exchange requestExchange(CamelContext camelContext, byte[] payload) {
+        Exchange exchange = new DefaultExchange(camelContext);
+        exchange.getIn().setBody(payload);
+        RequestContext.capture(exchange);
+        return exchange;
+    }
+
+    /**
+     * JSON document of roughly the given size, shaped like an OpenText node list
+     */
+    static byte[] jsonPayload(int size) {
+        StringBuilder json = new StringBuilder(size + 512).append("{\"results\":[");
+        int id = 0;
+        while (json.length() < size) {
+            if (id > 0) {
+                json.append(',');
+            }
+            json.append("{\"data\":{\"properties\":{\"id\":").append(100000 + id)
+                    .append(",\"name\":\"Document ").append(id)
+                    .append("\",\"type\":144,\"size\":").append(id * 37L)
+                    .append(",\"modify_date\":\"2024-01-15T10:30:00Z\",\"description\":\"Quarterly report\"}},")
+                    .append("\"links\":{\"self\":{\"href\":\"/api/v2/nodes/").append(100000 + id).append("\"}}}");
+            id++;
+        }
+        return json.append("],\"collection\":{\"paging\":{\"page\":1,\"limit\":").append(id).append("}}}")
+                .toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    static byte[] binaryPayload(int size) {
+        byte[] content = new byte[size];
+        new Random(42).nextBytes(content);
+        return content;
+    }
+}
@@ -0,0 +1,64 @@
+package com.orchestrator.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.orchestrator.processor.BinaryToBase64Processor;
+import org.apache.camel.CamelContext;
+import org.apache.camel.Exchange;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.apache.camel.support.DefaultExchange;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * /api/orchestrate/download envelope encoding, buffered and streaming
+ */
+@State(Scope.Benchmark)
+public class BinaryToBase64ProcessorBenchmark {
+
+    @Param({"1024", "1048576", "104857600"})
+    public int size;
+
+    @Param({"true", "false"})
+    public boolean streaming;
+
+    private CamelContext camelContext;
+    private BinaryToBase64Processor processor;
+    private byte[] content;
+
+    @Setup
+    public void setUp() {
+        camelContext = new DefaultCamelContext();
+        processor = new BinaryToBase64Processor(new ObjectMapper());
+        BenchmarkSupport.setField(processor, "streaming", streaming);
+        content = BenchmarkSupport.binaryPayload(size);
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        camelContext.close();
+    }
+
+    @Benchmark
+    public long encode() throws Exception {
+        Exchange exchange = new DefaultExchange(camelContext);
+        exchange.setProperty("nodeId", "284913");
+        exchange.getIn().setHeader("Content-Type", "application/pdf");
+        exchange.getIn().setHeader("Content-Disposition", "attachment; filename=\"report.pdf\"");
+        exchange.getIn().setHeader("Content-Length", (long) content.length);
+        exchange.getIn().setBody(new ByteArrayInputStream(content));
+
+        processor.process(exchange);
+
+        try (InputStream body = exchange.getIn().getBody(InputStream.class)) {
+            return body.transferTo(OutputStream.nullOutputStream());
+        }
+    }
+}
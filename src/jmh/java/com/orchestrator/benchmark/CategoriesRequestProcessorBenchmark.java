@@ -0,0 +1,47 @@
+package com.orchestrator.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.orchestrator.processor.CategoriesRequestProcessor;
+import org.apache.camel.CamelContext;
+import org.apache.camel.Exchange;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Request preparation of /api/orchestrate/execute
+ */
+@State(Scope.Benchmark)
+public class CategoriesRequestProcessorBenchmark {
+
+    private CamelContext camelContext;
+    private CategoriesRequestProcessor processor;
+    private byte[] payload;
+
+    @Setup
+    public void setUp() {
+        camelContext = new DefaultCamelContext();
+        processor = new CategoriesRequestProcessor(new ObjectMapper());
+        BenchmarkSupport.setField(processor, "targetEndpoint", "https://otcs.example.com/otcs/cs.exe/api");
+        payload = "{\"id\":\"284913\",\"metadata\":\"true\",\"supper_response_codes\":\"200,201\"}"
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        camelContext.close();
+    }
+
+    @Benchmark
+    public Object prepare() throws Exception {
+        Exchange exchange = BenchmarkSupport.requestExchange(camelContext, payload);
+        exchange.setProperty("authToken", "ticket-0123456789abcdef");
+        processor.process(exchange);
+        return exchange.getProperty("targetUrl");
+    }
+}
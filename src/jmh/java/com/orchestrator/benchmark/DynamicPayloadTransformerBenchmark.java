@@ -0,0 +1,62 @@
+package com.orchestrator.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.orchestrator.config.EndpointConfigLoader;
+import com.orchestrator.config.plan.EndpointPlan;
+import com.orchestrator.processor.dynamic.DynamicPayloadTransformer;
+import org.apache.camel.CamelContext;
+import org.apache.camel.Exchange;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Payload transformation (JSONPath inputs, URL, query and header templates)
+ * for representative endpoints.yml mappings
+ */
+@State(Scope.Benchmark)
+public class DynamicPayloadTransformerBenchmark {
+
+    @Param({"get-node", "get-categories", "get-folder-contents", "search-nodes", "update-categories"})
+    public String endpointName;
+
+    private CamelContext camelContext;
+    private DynamicPayloadTransformer transformer;
+    private EndpointPlan plan;
+    private byte[] payload;
+
+    @Setup
+    public void setUp() {
+        camelContext = new DefaultCamelContext();
+        transformer = new DynamicPayloadTransformer(new ObjectMapper());
+        BenchmarkSupport.setField(transformer, "targetEndpoint", "https://otcs.example.com/otcs/cs.exe/api");
+
+        EndpointConfigLoader loader = BenchmarkSupport.endpointConfigLoader();
+        plan = loader.getPlan(endpointName);
+        payload = ("{\"id\":\"284913\",\"expand\":\"properties{original_id}\",\"metadata\":\"true\","
+                + "\"supper_response_codes\":\"200,201\",\"limit\":100,\"page\":2,\"where_type\":144,"
+                + "\"query\":\"quarterly report 2024\",\"where\":\"name\",\"category_id\":\"6228\","
+                + "\"categories\":{\"6228_2\":\"Finance\",\"6228_3\":\"2024-Q1\"}}")
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        camelContext.close();
+    }
+
+    @Benchmark
+    public Object transform() throws Exception {
+        Exchange exchange = BenchmarkSupport.requestExchange(camelContext, payload);
+        exchange.setProperty("endpointPlan", plan);
+        exchange.setProperty("authToken", "ticket-0123456789abcdef");
+        transformer.process(exchange);
+        return exchange.getProperty("targetUrl");
+    }
+}
@@ -0,0 +1,125 @@
+package com.orchestrator.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.orchestrator.config.model.EndpointConfig;
+import com.orchestrator.config.model.ResponseConfig;
+import com.orchestrator.config.plan.EndpointPlan;
+import com.orchestrator.processor.dynamic.DynamicResponseTransformer;
+import org.apache.camel.CamelContext;
+import org.apache.camel.Exchange;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.apache.camel.support.DefaultExchange;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Response transformation for JSON and binary bodies from 1 KB to 100 MB
+ * Streamed bodies are drained, so the encoding work is included.
+ */
+@State(Scope.Benchmark)
+public class DynamicResponseTransformerBenchmark {
+
+    @Param({"1024", "65536", "1048576", "16777216", "104857600"})
+    public int size;
+
+    /**
+     * JSON envelope spliced around the upstream bytes, or built from a parsed tree
+     */
+    @Param({"true", "false"})
+    public boolean splice;
+
+    private CamelContext camelContext;
+    private DynamicResponseTransformer transformer;
+    private EndpointConfig jsonEndpoint;
+    private EndpointPlan projectedPlan;
+    private EndpointConfig binaryEndpoint;
+    private EndpointConfig binaryStreamingEndpoint;
+    private byte[] json;
+    private byte[] binary;
+
+    @Setup
+    public void setUp() {
+        camelContext = new DefaultCamelContext();
+        transformer = new DynamicResponseTransformer(new ObjectMapper());
+        BenchmarkSupport.setField(transformer, "splice", splice);
+
+        var loader = BenchmarkSupport.endpointConfigLoader();
+        jsonEndpoint = loader.getEndpoint("get-folder-contents");
+        projectedPlan = loader.getPlan("search-nodes-summary");
+        binaryEndpoint = withStreaming(loader.getEndpoint("download-file"), false);
+        binaryStreamingEndpoint = withStreaming(loader.getEndpoint("download-file"), true);
+
+        json = BenchmarkSupport.jsonPayload(size);
+        binary = BenchmarkSupport.binaryPayload(size);
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        camelContext.close();
+    }
+
+    @Benchmark
+    public Object json() throws Exception {
+        Exchange exchange = responseExchange(jsonEndpoint, json);
+        transformer.process(exchange);
+        return exchange.getIn().getBody();
+    }
+
+    @Benchmark
+    public Object jsonProjected() throws Exception {
+        Exchange exchange = responseExchange(projectedPlan.getConfig(), json);
+        exchange.setProperty("endpointPlan", projectedPlan);
+        transformer.process(exchange);
+        return exchange.getIn().getBody();
+    }
+
+    @Benchmark
+    public Object binaryBuffered() throws Exception {
+        Exchange exchange = responseExchange(binaryEndpoint, binary);
+        transformer.process(exchange);
+        return exchange.getIn().getBody();
+    }
+
+    @Benchmark
+    public long binaryStreaming() throws Exception {
+        Exchange exchange = responseExchange(binaryStreamingEndpoint, null);
+        exchange.getIn().setBody(new ByteArrayInputStream(binary));
+        exchange.getIn().setHeader("Content-Length", (long) binary.length);
+        transformer.process(exchange);
+        try (InputStream body = exchange.getIn().getBody(InputStream.class)) {
+            return body.transferTo(OutputStream.nullOutputStream());
+        }
+    }
+
+    private Exchange responseExchange(EndpointConfig config, byte[] body) {
+        Exchange exchange = new DefaultExchange(camelContext);
+        exchange.setProperty("endpointConfig", config);
+        exchange.setProperty("nodeId", "284913");
+        exchange.getIn().setHeader(Exchange.HTTP_RESPONSE_CODE, 200);
+        exchange.getIn().setHeader("Content-Type", "application/pdf");
+        exchange.getIn().setHeader("Content-Disposition", "attachment; filename=\"report.pdf\"");
+        exchange.getIn().setBody(body);
+        return exchange;
+    }
+
+    private static EndpointConfig withStreaming(EndpointConfig config, boolean streaming) {
+        EndpointConfig copy = new EndpointConfig();
+        copy.setName(config.getName());
+        copy.setOpentext(config.getOpentext());
+        copy.setMapping(config.getMapping());
+        ResponseConfig response = new ResponseConfig();
+        response.setType(config.getResponse().getType());
+        response.setIncludeMetadata(config.getResponse().isIncludeMetadata());
+        response.setStreaming(streaming);
+        copy.setResponse(response);
+        return copy;
+    }
+}
@@ -0,0 +1,55 @@
+package com.orchestrator.benchmark;
+
+import com.orchestrator.exception.GlobalExceptionHandler;
+import org.apache.camel.CamelContext;
+import org.apache.camel.Exchange;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.apache.camel.support.DefaultExchange;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Error response and error logging cost per failed exchange
+ * Log events go to a NOP appender (src/jmh/resources/logback.xml): event creation
+ * and formatting are measured, console I/O is not.
+ */
+@State(Scope.Benchmark)
+public class GlobalExceptionHandlerBenchmark {
+
+    /**
+     * 0 logs every error (default profile), 10000 rate-limits as in the prod profile
+     */
+    @Param({"0", "10000"})
+    public long errorWindowMillis;
+
+    private CamelContext camelContext;
+    private GlobalExceptionHandler handler;
+    private Exception failure;
+
+    @Setup
+    public void setUp() {
+        camelContext = new DefaultCamelContext();
+        handler = new GlobalExceptionHandler();
+        BenchmarkSupport.setField(handler, "errorWindowMillis", errorWindowMillis);
+        BenchmarkSupport.setField(handler, "errorsPerWindow", 5);
+        handler.init();
+        failure = new IllegalStateException("Upstream returned 503 for GET /v2/nodes/284913");
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        camelContext.close();
+    }
+
+    @Benchmark
+    public Object handle() throws Exception {
+        Exchange exchange = new DefaultExchange(camelContext);
+        exchange.setProperty(Exchange.EXCEPTION_CAUGHT, failure);
+        handler.process(exchange);
+        return exchange.getIn().getBody();
+    }
+}
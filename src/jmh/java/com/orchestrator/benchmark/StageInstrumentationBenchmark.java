@@ -0,0 +1,125 @@
+package com.orchestrator.benchmark;
+
+import com.orchestrator.metrics.OrchestrationMetrics;
+import com.orchestrator.metrics.OrchestrationTracing;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.trace.propagation.W3CTraceContextPropagator;
+import io.opentelemetry.context.propagation.ContextPropagators;
+import io.opentelemetry.sdk.OpenTelemetrySdk;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.BatchSpanProcessor;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import org.apache.camel.AsyncProcessor;
+import org.apache.camel.CamelContext;
+import org.apache.camel.Exchange;
+import org.apache.camel.Processor;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.apache.camel.support.DefaultExchange;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.Collection;
+
+/**
+ * Per-request instrumentation overhead: metrics and tracing around five stages
+ *
+ * none          plain processors, the pre-instrumentation baseline
+ * noop          metrics with tracing disabled (otel.sdk.disabled)
+ * sdk           metrics and tracing, every trace sampled, batch export
+ * sdk-unsampled metrics and tracing, ratio 0 (spans created but not recorded)
+ */
+@State(Scope.Benchmark)
+public class StageInstrumentationBenchmark {
+
+    private static final String[] STAGES = {OrchestrationMetrics.RESOLVE, OrchestrationMetrics.AUTH,
+            OrchestrationMetrics.PAYLOAD_TRANSFORM, OrchestrationMetrics.UPSTREAM,
+            OrchestrationMetrics.RESPONSE_TRANSFORM};
+
+    @Param({"none", "noop", "sdk", "sdk-unsampled"})
+    public String tracing;
+
+    private CamelContext camelContext;
+    private OpenTelemetrySdk sdk;
+    private OrchestrationMetrics metrics;
+    private Processor[] stages;
+
+    @Setup
+    public void setUp() {
+        camelContext = new DefaultCamelContext();
+
+        OpenTelemetry openTelemetry = switch (tracing) {
+            case "sdk" -> sdk = sdk(Sampler.alwaysOn());
+            case "sdk-unsampled" -> sdk = sdk(Sampler.parentBased(Sampler.traceIdRatioBased(0.0)));
+            default -> OpenTelemetry.noop();
+        };
+        metrics = new OrchestrationMetrics(new SimpleMeterRegistry(), new OrchestrationTracing(openTelemetry));
+
+        Processor work = exchange -> exchange.getIn().setHeader("stage", exchange.getExchangeId());
+        stages = new Processor[STAGES.length];
+        for (int i = 0; i < STAGES.length; i++) {
+            AsyncProcessor timed = metrics.stage(STAGES[i], work);
+            stages[i] = "none".equals(tracing) ? work : timed;
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        if (sdk != null) {
+            sdk.close();
+        }
+        camelContext.close();
+    }
+
+    @Benchmark
+    public Object exchange() throws Exception {
+        Exchange exchange = new DefaultExchange(camelContext);
+        exchange.setProperty("endpointName", "get-node");
+        exchange.getIn().setHeader(Exchange.HTTP_METHOD, "GET");
+        if (!"none".equals(tracing)) {
+            metrics.begin(exchange);
+        }
+        for (Processor stage : stages) {
+            stage.process(exchange);
+        }
+        exchange.getExchangeExtension().handoverCompletions().forEach(sync -> sync.onComplete(exchange));
+        return exchange;
+    }
+
+    private static OpenTelemetrySdk sdk(Sampler sampler) {
+        return OpenTelemetrySdk.builder()
+                .setTracerProvider(SdkTracerProvider.builder()
+                        .setSampler(sampler)
+                        .addSpanProcessor(BatchSpanProcessor.builder(new DiscardingExporter()).build())
+                        .build())
+                .setPropagators(ContextPropagators.create(W3CTraceContextPropagator.getInstance()))
+                .build();
+    }
+
+    /**
+     * Export cost is off the request path; only the queueing is measured
+     */
+    private static final class DiscardingExporter implements SpanExporter {
+        @Override
+        public CompletableResultCode export(Collection<SpanData> spans) {
+            return CompletableResultCode.ofSuccess();
+        }
+
+        @Override
+        public CompletableResultCode flush() {
+            return CompletableResultCode.ofSuccess();
+        }
+
+        @Override
+        public CompletableResultCode shutdown() {
+            return CompletableResultCode.ofSuccess();
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package com.orchestrator.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Local stand-in for the OpenText Content Server REST API
+ *
+ * Serves POST /v1/auth, GET /v2/nodes/{id}, /v2/nodes/{id}/nodes,
+ * /v2/nodes/{id}/categories, /v2/nodes/{id}/content (and version content) and
+ * /v2/search on the loopback interface. Every response is delayed according to
+ * the latency model and a share of requests fails with 503, so the orchestrator
+ * sees a slow and occasionally failing backend rather than an ideal one.
+ * Content honours single byte ranges (206, or 416 past the end) and If-Range
+ * against its ETag, as the parallel download of ranged endpoints expects.
+ * Handlers run on virtual threads, so sleeping does not limit the stub's own
+ * concurrency.
+ */
+@Slf4j
+class ContentServerStub implements AutoCloseable {
+
+    private static final Pattern NODE = Pattern.compile("/v2/nodes/\\d+");
+    private static final Pattern CHILDREN = Pattern.compile("/v2/nodes/\\d+/nodes");
+    private static final Pattern CATEGORIES = Pattern.compile("/v2/nodes/\\d+/categories");
+    private static final Pattern CONTENT = Pattern.compile("/v2/nodes/\\d+(/versions/\\d+)?/content");
+    private static final Pattern RANGE = Pattern.compile("bytes=(\\d*)-(\\d*)");
+    private static final String ETAG = "\"stub-content-1\"";
+
+    private final LatencyModel latency;
+    private final double errorRate;
+    private final byte[] node;
+    private final byte[] list;
+    private final byte[] categories;
+    private final byte[] content;
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicLong rangeRequests = new AtomicLong();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private HttpServer server;
+
+    /**
+     * @param latency      service time of every call
+     * @param errorRate    share of calls answered with 503 (auth excluded)
+     * @param listItems    items per page of folder contents and search results
+     * @param contentBytes size of document content
+     */
+    ContentServerStub(LatencyModel latency, double errorRate, int listItems, int contentBytes) {
+        this.latency = latency;
+        this.errorRate = errorRate;
+        this.node = utf8("{\"links\":{\"data\":{\"self\":{\"href\":\"/api/v2/nodes/2000\"}}},\"results\":{\"data\":"
+                + "{\"properties\":" + properties(2000) + "}}}");
+        this.list = list(listItems);
+        this.categories = utf8("{\"links\":{},\"results\":[{\"data\":{\"categories\":{\"9001_2\":\"Contract\","
+                + "\"9001_3\":\"2024-06-30T00:00:00\",\"9001_4\":[\"Legal\",\"Finance\"]}},"
+                + "\"metadata\":{\"categories\":{\"9001_2\":{\"name\":\"Type\",\"type_name\":\"String\"}}}}]}");
+        this.content = new byte[contentBytes];
+        new Random(42).nextBytes(content);
+    }
+
+    void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 1024);
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+        log.info("Content Server stub on {} ({}, error rate {}, content {} bytes)",
+                baseUrl(), latency, errorRate, content.length);
+    }
+
+    String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    long requests() {
+        return requests.get();
+    }
+
+    long errors() {
+        return errors.get();
+    }
+
+    long rangeRequests() {
+        return rangeRequests.get();
+    }
+
+    @Override
+    public void close() {
+        if (server != null) {
+            server.stop(0);
+        }
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            requests.incrementAndGet();
+            exchange.getRequestBody().transferTo(OutputStream.nullOutputStream());
+            String method = exchange.getRequestMethod();
+            String path = exchange.getRequestURI().getPath();
+
+            if ("POST".equals(method) && path.equals("/v1/auth")) {
+                delay();
+                send(exchange, 200, "application/json",
+                        utf8("{\"ticket\":\"stub-" + Long.toHexString(System.nanoTime()) + "\"}"));
+                return;
+            }
+            if (!"GET".equals(method)) {
+                send(exchange, 405, "application/json", utf8("{\"error\":\"Method not supported by stub\"}"));
+                return;
+            }
+
+            delay();
+            if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+                errors.incrementAndGet();
+                send(exchange, 503, "application/json", utf8("{\"error\":\"Service temporarily unavailable\"}"));
+            } else if (CONTENT.matcher(path).matches()) {
+                sendContent(exchange);
+            } else if (CATEGORIES.matcher(path).matches()) {
+                send(exchange, 200, "application/json", categories);
+            } else if (CHILDREN.matcher(path).matches() || path.equals("/v2/search")) {
+                send(exchange, 200, "application/json", list);
+            } else if (NODE.matcher(path).matches()) {
+                send(exchange, 200, "application/json", node);
+            } else {
+                send(exchange, 404, "application/json", utf8("{\"error\":\"Not found\"}"));
+            }
+        }
+    }
+
+    private void delay() {
+        long millis = latency.sampleMillis();
+        if (millis > 0) {
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void sendContent(HttpExchange exchange) throws IOException {
+        exchange.getResponseHeaders().set("Content-Disposition", "attachment; filename=\"document.pdf\"");
+        exchange.getResponseHeaders().set("Accept-Ranges", "bytes");
+        exchange.getResponseHeaders().set("ETag", ETAG);
+        String range = exchange.getRequestHeaders().getFirst("Range");
+        String ifRange = exchange.getRequestHeaders().getFirst("If-Range");
+        Matcher bytes = range != null ? RANGE.matcher(range.trim()) : null;
+        if (bytes == null || !bytes.matches() || (ifRange != null && !ifRange.equals(ETAG))
+                || (bytes.group(1).isEmpty() && bytes.group(2).isEmpty())) {
+            send(exchange, 200, "application/pdf", content);
+            return;
+        }
+
+        rangeRequests.incrementAndGet();
+        long length = content.length;
+        long from;
+        long to;
+        if (bytes.group(1).isEmpty()) {
+            // Suffix range: the last n bytes
+            from = Math.max(0, length - Long.parseLong(bytes.group(2)));
+            to = length - 1;
+        } else {
+            from = Long.parseLong(bytes.group(1));
+            to = bytes.group(2).isEmpty() ? length - 1 : Math.min(Long.parseLong(bytes.group(2)), length - 1);
+        }
+        if (from >= length || from > to) {
+            exchange.getResponseHeaders().set("Content-Range", "bytes */" + length);
+            send(exchange, 416, "application/json", utf8("{\"error\":\"Range not satisfiable\"}"));
+            return;
+        }
+        exchange.getResponseHeaders().set("Content-Range", "bytes " + from + "-" + to + "/" + length);
+        send(exchange, 206, "application/pdf", Arrays.copyOfRange(content, (int) from, (int) to + 1));
+    }
+
+    private static void send(HttpExchange exchange, int status, String contentType, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static byte[] list(int items) {
+        StringBuilder json = new StringBuilder("{\"collection\":{\"paging\":{\"limit\":").append(items)
+                .append(",\"page\":1,\"page_total\":1,\"range_max\":").append(items)
+                .append(",\"range_min\":1,\"total_count\":").append(items).append("}},\"results\":[");
+        for (int i = 0; i < items; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"data\":{\"properties\":").append(properties(3000 + i)).append("}}");
+        }
+        return utf8(json.append("]}").toString());
+    }
+
+    private static String properties(int id) {
+        return "{\"id\":" + id + ",\"parent_id\":2000,\"name\":\"Document " + id + ".pdf\",\"type\":144,"
+                + "\"type_name\":\"Document\",\"description\":\"Quarterly report\",\"create_date\":"
+                + "\"2024-03-01T09:30:00\",\"modify_date\":\"2024-06-30T17:45:00\",\"owner_user_id\":1000,"
+                + "\"mime_type\":\"application/pdf\",\"size\":1048576,\"size_formatted\":\"1 MB\","
+                + "\"container\":false,\"reserved\":false,\"versions_control_advanced\":false}";
+    }
+
+    private static byte[] utf8(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
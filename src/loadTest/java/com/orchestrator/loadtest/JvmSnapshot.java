@@ -0,0 +1,45 @@
+package com.orchestrator.loadtest;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+
+/**
+ * Heap and GC counters of this JVM at one point in time
+ * The orchestrator, the stub and the load generator share the JVM, so the
+ * figures include the harness; its share is small next to the orchestrator's,
+ * and it is the same for every configuration being compared.
+ */
+record JvmSnapshot(long gcCount, long gcMillis, long heapUsed, long heapCommitted) {
+
+    static JvmSnapshot take() {
+        long count = 0;
+        long millis = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, gc.getCollectionCount());
+            millis += Math.max(0, gc.getCollectionTime());
+        }
+        var heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        return new JvmSnapshot(count, millis, heap.getUsed(), heap.getCommitted());
+    }
+
+    /**
+     * Largest heap occupancy since the last reset, summed over the heap pools
+     */
+    static long peakHeapUsed() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.getPeakUsage() != null) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        return peak;
+    }
+
+    static void resetPeaks() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            pool.resetPeakUsage();
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.orchestrator.loadtest;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Log-normal service time, described by its median and p99 in milliseconds
+ * Content Server latencies are right-skewed: most calls are close to the median,
+ * a few threads are much slower. "20,200" means median 20 ms, p99 200 ms;
+ * "0" disables the delay.
+ */
+record LatencyModel(double medianMillis, double p99Millis) {
+
+    private static final double Z_99 = 2.3263;
+
+    static LatencyModel parse(String spec) {
+        String[] parts = spec.split(",");
+        double median = Double.parseDouble(parts[0].trim());
+        double p99 = parts.length > 1 ? Double.parseDouble(parts[1].trim()) : median;
+        if (median < 0 || p99 < median) {
+            throw new IllegalArgumentException("Latency must be 'median[,p99]' with p99 >= median: " + spec);
+        }
+        return new LatencyModel(median, p99);
+    }
+
+    long sampleMillis() {
+        if (medianMillis == 0) {
+            return 0;
+        }
+        double sigma = Math.log(p99Millis / medianMillis) / Z_99;
+        return Math.round(medianMillis * Math.exp(sigma * ThreadLocalRandom.current().nextGaussian()));
+    }
+
+    @Override
+    public String toString() {
+        return "median " + medianMillis + " ms, p99 " + p99Millis + " ms";
+    }
+}
@@ -0,0 +1,139 @@
+package com.orchestrator.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load generator: requests start at a fixed arrival rate
+ *
+ * Arrivals do not wait for earlier responses, so a slow orchestrator builds a
+ * queue instead of silently lowering the offered load. Latency is measured from
+ * the scheduled start of each request, not from when it was actually sent,
+ * which keeps the percentiles free of coordinated omission. Response bodies are
+ * drained, so streamed downloads are timed to their last byte.
+ */
+class LoadGenerator {
+
+    private static final long MAX_LATENCY_NANOS = TimeUnit.MINUTES.toNanos(5);
+
+    private final HttpClient client;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final String baseUrl;
+    private final int nodeIds;
+    private final int maxInFlight;
+    private final Semaphore inFlight;
+    private final Duration timeout;
+
+    /**
+     * @param maxInFlight bound on outstanding requests; arrivals beyond it are counted as dropped
+     */
+    LoadGenerator(String baseUrl, int nodeIds, int maxInFlight, Duration timeout) {
+        this.baseUrl = baseUrl;
+        this.nodeIds = nodeIds;
+        this.maxInFlight = maxInFlight;
+        this.inFlight = new Semaphore(maxInFlight);
+        this.timeout = timeout;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(executor)
+                .build();
+    }
+
+    /**
+     * Offer 'ratePerSecond' requests per second for 'duration' and wait for all of them
+     */
+    Result run(Scenario scenario, double ratePerSecond, Duration duration) throws InterruptedException {
+        Histogram latency = new ConcurrentHistogram(MAX_LATENCY_NANOS, 3);
+        AtomicLong ok = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        AtomicLong dropped = new AtomicLong();
+        AtomicLong bytes = new AtomicLong();
+
+        long interval = Math.round(TimeUnit.SECONDS.toNanos(1) / ratePerSecond);
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        long sent = 0;
+
+        for (long scheduled = start; scheduled < end; scheduled = start + ++sent * interval) {
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            if (!inFlight.tryAcquire()) {
+                dropped.incrementAndGet();
+                continue;
+            }
+
+            long intended = scheduled;
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + scenario.path()))
+                    .timeout(timeout)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(scenario.body(nodeIds)))
+                    .build();
+
+            CompletableFuture<HttpResponse<InputStream>> response =
+                    client.sendAsync(request, HttpResponse.BodyHandlers.ofInputStream());
+            response.thenAcceptAsync(r -> {
+                try (InputStream body = r.body()) {
+                    bytes.addAndGet(body.transferTo(OutputStream.nullOutputStream()));
+                    (r.statusCode() < 400 ? ok : failed).incrementAndGet();
+                } catch (Exception e) {
+                    failed.incrementAndGet();
+                }
+            }, executor).exceptionally(e -> {
+                failed.incrementAndGet();
+                return null;
+            }).whenComplete((v, e) -> {
+                latency.recordValue(Math.min(System.nanoTime() - intended, MAX_LATENCY_NANOS));
+                inFlight.release();
+            });
+        }
+
+        // Drain: wait for every outstanding request to finish
+        inFlight.acquire(maxInFlight);
+        inFlight.release(maxInFlight);
+        long elapsed = System.nanoTime() - start;
+
+        return new Result(scenario.name(), ratePerSecond, sent, ok.get(), failed.get(), dropped.get(),
+                bytes.get(), elapsed, latency);
+    }
+
+    void close() {
+        client.close();
+        executor.shutdownNow();
+    }
+
+    /**
+     * Outcome of one scenario run
+     *
+     * @param offered requests scheduled by the arrival rate
+     * @param dropped arrivals not sent because maxInFlight requests were outstanding
+     */
+    record Result(String scenario, double rate, long offered, long ok, long failed, long dropped,
+                  long bytes, long elapsedNanos, Histogram latency) {
+
+        double throughput() {
+            return ok * 1e9 / elapsedNanos;
+        }
+
+        double percentileMillis(double percentile) {
+            return latency.getValueAtPercentile(percentile) / 1e6;
+        }
+    }
+}
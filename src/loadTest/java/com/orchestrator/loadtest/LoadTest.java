@@ -0,0 +1,162 @@
+package com.orchestrator.loadtest;
+
+import com.orchestrator.OTOrchestratorApplication;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * End-to-end load test of the orchestrator against a local Content Server stub
+ *
+ * Starts the stub and the full application in this JVM, then runs each scenario
+ * in turn at a fixed arrival rate: a warmup run, a forced GC, and a measured run.
+ * Prints latency percentiles, throughput and heap/GC figures per scenario and
+ * writes them as CSV. Runs entirely on the loopback interface.
+ *
+ * Settings are system properties (./gradlew loadTest -Dloadtest.rate=200 ...):
+ *   loadtest.scenarios      execute,download,dynamic/get-node,...
+ *   loadtest.rate           requests per second offered per scenario
+ *   loadtest.duration       measured seconds per scenario
+ *   loadtest.warmup         warmup seconds per scenario
+ *   loadtest.max-in-flight  outstanding requests before arrivals are dropped
+ *   loadtest.node-ids       distinct node IDs requested (cache hit ratio)
+ *   loadtest.stub.latency   stub service time, "median,p99" in ms
+ *   loadtest.stub.error-rate   share of stub calls failing with 503
+ *   loadtest.stub.list-items   results per folder/search page
+ *   loadtest.stub.content-bytes  document size; over the 8 MiB range size of
+ *                           dynamic/download-file it downloads as parallel ranges
+ *   loadtest.report         CSV report file
+ * Any other -D (e.g. -DUPSTREAM_ASYNC=false) reaches the application as usual.
+ */
+@Slf4j
+public final class LoadTest {
+
+    private static final String DEFAULT_SCENARIOS = "execute,download,dynamic/get-node,dynamic/get-categories,"
+            + "dynamic/get-folder-contents,dynamic/search-nodes,dynamic/download-file";
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<Scenario> scenarios = Arrays.stream(setting("loadtest.scenarios", DEFAULT_SCENARIOS).split(","))
+                .map(String::trim)
+                .map(Scenario::parse)
+                .toList();
+        double rate = Double.parseDouble(setting("loadtest.rate", "100"));
+        Duration duration = Duration.ofSeconds(Long.parseLong(setting("loadtest.duration", "60")));
+        Duration warmup = Duration.ofSeconds(Long.parseLong(setting("loadtest.warmup", "15")));
+        int maxInFlight = Integer.parseInt(setting("loadtest.max-in-flight", "2000"));
+        int nodeIds = Integer.parseInt(setting("loadtest.node-ids", "1000"));
+        Path report = Path.of(setting("loadtest.report", "build/results/loadtest/report.csv"));
+
+        try (ContentServerStub stub = new ContentServerStub(
+                LatencyModel.parse(setting("loadtest.stub.latency", "20,200")),
+                Double.parseDouble(setting("loadtest.stub.error-rate", "0.0")),
+                Integer.parseInt(setting("loadtest.stub.list-items", "100")),
+                Integer.parseInt(setting("loadtest.stub.content-bytes", "1048576")))) {
+            stub.start();
+
+            try (ConfigurableApplicationContext app = start(stub.baseUrl())) {
+                int port = ((WebServerApplicationContext) app).getWebServer().getPort();
+                LoadGenerator generator = new LoadGenerator("http://127.0.0.1:" + port, nodeIds, maxInFlight,
+                        Duration.ofSeconds(60));
+                List<Row> rows = new ArrayList<>();
+                try {
+                    for (Scenario scenario : scenarios) {
+                        log.info("{}: warmup {} s at {}/s", scenario.name(), warmup.toSeconds(), rate);
+                        generator.run(scenario, rate, warmup);
+
+                        System.gc();
+                        JvmSnapshot.resetPeaks();
+                        JvmSnapshot before = JvmSnapshot.take();
+                        long stubCalls = stub.requests();
+
+                        log.info("{}: measuring {} s at {}/s", scenario.name(), duration.toSeconds(), rate);
+                        LoadGenerator.Result result = generator.run(scenario, rate, duration);
+                        rows.add(new Row(result, before, JvmSnapshot.take(), JvmSnapshot.peakHeapUsed(),
+                                stub.requests() - stubCalls));
+                    }
+                } finally {
+                    generator.close();
+                }
+
+                print(System.out, rows);
+                write(report, rows);
+                log.info("Report written to {}; stub served {} range requests",
+                        report.toAbsolutePath(), stub.rangeRequests());
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext start(String stubUrl) {
+        return new SpringApplicationBuilder(OTOrchestratorApplication.class)
+                .properties(
+                        "server.port=0",
+                        "orchestrator.auth.url=" + stubUrl,
+                        "orchestrator.target.endpoint=" + stubUrl,
+                        "camel.springboot.main-run-controller=false",
+                        "otel.traces.exporter=none",
+                        "logging.level.root=WARN",
+                        "logging.level.com.orchestrator.loadtest=INFO")
+                .run();
+    }
+
+    private static String setting(String name, String defaultValue) {
+        return System.getProperty(name, defaultValue);
+    }
+
+    private static void print(PrintStream out, List<Row> rows) {
+        out.println();
+        out.printf(Locale.ROOT, "%-28s %8s %8s %8s %8s %8s %9s %9s %9s %6s %8s %9s%n",
+                "scenario", "rate/s", "ok/s", "failed", "dropped", "upstream",
+                "p50 ms", "p99 ms", "p999 ms", "gc", "gc ms", "peak MB");
+        for (Row row : rows) {
+            LoadGenerator.Result r = row.result();
+            out.printf(Locale.ROOT, "%-28s %8.0f %8.1f %8d %8d %8d %9.1f %9.1f %9.1f %6d %8d %9.0f%n",
+                    r.scenario(), r.rate(), r.throughput(), r.failed(), r.dropped(), row.upstreamCalls(),
+                    r.percentileMillis(50), r.percentileMillis(99), r.percentileMillis(99.9),
+                    row.gcCount(), row.gcMillis(), row.peakHeap() / 1048576.0);
+        }
+        out.println();
+    }
+
+    private static void write(Path report, List<Row> rows) throws IOException {
+        Path parent = report.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        StringBuilder csv = new StringBuilder("scenario,rate,offered,ok,failed,dropped,upstream_calls,"
+                + "throughput,p50_ms,p99_ms,p999_ms,max_ms,bytes,gc_count,gc_ms,peak_heap_bytes\n");
+        for (Row row : rows) {
+            LoadGenerator.Result r = row.result();
+            csv.append(String.format(Locale.ROOT, "%s,%.1f,%d,%d,%d,%d,%d,%.2f,%.3f,%.3f,%.3f,%.3f,%d,%d,%d,%d%n",
+                    r.scenario(), r.rate(), r.offered(), r.ok(), r.failed(), r.dropped(), row.upstreamCalls(),
+                    r.throughput(), r.percentileMillis(50), r.percentileMillis(99), r.percentileMillis(99.9),
+                    r.latency().getMaxValue() / 1e6, r.bytes(), row.gcCount(), row.gcMillis(), row.peakHeap()));
+        }
+        Files.writeString(report, csv);
+    }
+
+    private record Row(LoadGenerator.Result result, JvmSnapshot before, JvmSnapshot after, long peakHeap,
+                       long upstreamCalls) {
+
+        long gcCount() {
+            return after.gcCount() - before.gcCount();
+        }
+
+        long gcMillis() {
+            return after.gcMillis() - before.gcMillis();
+        }
+    }
+}
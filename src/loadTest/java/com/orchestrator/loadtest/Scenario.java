@@ -0,0 +1,41 @@
+package com.orchestrator.loadtest;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * One orchestrator route under load: a POST path and a request body per call
+ * Node IDs are drawn from a fixed range, so cached endpoints see a realistic
+ * mix of hits and misses instead of one hot key.
+ */
+record Scenario(String name, String path, String bodyTemplate) {
+
+    static final Scenario EXECUTE = new Scenario("execute",
+            "/api/orchestrate/execute", "{\"id\":\"%d\",\"metadata\":\"true\"}");
+    static final Scenario DOWNLOAD = new Scenario("download",
+            "/api/orchestrate/download", "{\"id\":\"%d\"}");
+
+    static Scenario dynamic(String endpointName) {
+        String body = "search-nodes".equals(endpointName)
+                ? "{\"query\":\"report-%d\",\"limit\":\"50\",\"page\":\"1\"}"
+                : "{\"id\":\"%d\",\"versionNumber\":\"1\"}";
+        return new Scenario("dynamic/" + endpointName, "/api/dynamic/" + endpointName, body);
+    }
+
+    static Scenario parse(String name) {
+        return switch (name) {
+            case "execute" -> EXECUTE;
+            case "download" -> DOWNLOAD;
+            default -> {
+                if (!name.startsWith("dynamic/")) {
+                    throw new IllegalArgumentException("Unknown scenario: " + name
+                            + " (execute, download or dynamic/<endpointName>)");
+                }
+                yield dynamic(name.substring("dynamic/".length()));
+            }
+        };
+    }
+
+    String body(int nodeIds) {
+        return bodyTemplate.formatted(2000 + ThreadLocalRandom.current().nextInt(nodeIds));
+    }
+}
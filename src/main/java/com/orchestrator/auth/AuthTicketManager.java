@@ -0,0 +1,200 @@
+package com.orchestrator.auth;
+
+import com.orchestrator.upstream.UpstreamGroup;
+import com.orchestrator.upstream.UpstreamGuard;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.camel.CamelExecutionException;
+import org.apache.camel.ProducerTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Process-wide cache for the OTCS authentication ticket
+ *
+ * The ticket is fetched through the auth route (AuthRequestProcessor + POST /v1/auth
+ * + TokenExtractorProcessor) and reused by every exchange until it expires.
+ * Once a ticket enters its refresh window a single background refresh is started
+ * while callers keep using the current ticket. Concurrent refreshes collapse into
+ * one upstream call: all callers wait on the same in-flight future. The call
+ * goes through the auth group's circuit breaker and bulkhead.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AuthTicketManager {
+
+    public static final String FETCH_ROUTE = "direct:fetchAuthTicket";
+
+    private final ProducerTemplate producerTemplate;
+    private final UpstreamGuard upstreamGuard;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${orchestrator.auth.ticket.ttl-seconds:1500}")
+    private long ttlSeconds;
+
+    @Value("${orchestrator.auth.ticket.refresh-ahead-seconds:300}")
+    private long refreshAheadSeconds;
+
+    private final AtomicReference<Ticket> current = new AtomicReference<>();
+    private final AtomicReference<CompletableFuture<Ticket>> inFlight = new AtomicReference<>();
+
+    private ExecutorService refreshExecutor;
+    private Counter hits;
+    private Counter misses;
+    private Counter refreshes;
+    private Counter failures;
+    private Counter invalidations;
+
+    @PostConstruct
+    public void init() {
+        hits = counter("hit");
+        misses = counter("miss");
+        refreshes = counter("refresh");
+        failures = counter("failure");
+        invalidations = counter("invalidation");
+
+        refreshExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "auth-ticket-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    /**
+     * Get a valid ticket, fetching one if none is cached or the cached one expired
+     */
+    public String getTicket() {
+        long now = System.currentTimeMillis();
+        Ticket ticket = current.get();
+
+        if (ticket != null && !ticket.isExpired(now)) {
+            hits.increment();
+            if (ticket.isDueForRefresh(now)) {
+                refresh(false);
+            }
+            return ticket.value();
+        }
+
+        misses.increment();
+        return await(refresh(true)).value();
+    }
+
+    /**
+     * Drop the cached ticket if it is still the given one (e.g. after a 401 from Content Server)
+     */
+    public void invalidate(String ticket) {
+        if (ticket == null) {
+            return;
+        }
+        Ticket previous = current.getAndUpdate(t -> t != null && t.value().equals(ticket) ? null : t);
+        if (previous != null && previous.value().equals(ticket)) {
+            invalidations.increment();
+            log.warn("Auth ticket rejected by Content Server, cached ticket invalidated");
+        }
+    }
+
+    /**
+     * Join the in-flight refresh or start a new one. Inline refreshes run on the
+     * calling thread (it has to wait anyway), refresh-ahead runs in the background.
+     */
+    private CompletableFuture<Ticket> refresh(boolean inline) {
+        while (true) {
+            CompletableFuture<Ticket> pending = inFlight.get();
+            if (pending != null) {
+                return pending;
+            }
+
+            CompletableFuture<Ticket> created = new CompletableFuture<>();
+            if (inFlight.compareAndSet(null, created)) {
+                if (inline) {
+                    doRefresh(created);
+                } else {
+                    refreshExecutor.execute(() -> doRefresh(created));
+                }
+                return created;
+            }
+        }
+    }
+
+    private void doRefresh(CompletableFuture<Ticket> future) {
+        try {
+            // Another refresh may have completed between the caller's check and ours
+            Ticket latest = current.get();
+            if (latest != null && !latest.isDueForRefresh(System.currentTimeMillis())) {
+                future.complete(latest);
+                return;
+            }
+
+            refreshes.increment();
+            String value = upstreamGuard.call(UpstreamGroup.AUTH,
+                    () -> producerTemplate.requestBody(FETCH_ROUTE, null, String.class));
+            if (value == null || value.isEmpty()) {
+                throw new IllegalStateException("Auth route returned no ticket");
+            }
+
+            long now = System.currentTimeMillis();
+            long expiresAt = now + ttlSeconds * 1000;
+            long refreshAt = expiresAt - Math.min(refreshAheadSeconds, ttlSeconds) * 1000;
+            Ticket ticket = new Ticket(value, refreshAt, expiresAt);
+
+            current.set(ticket);
+            future.complete(ticket);
+            log.info("Auth ticket refreshed, valid for {}s", ttlSeconds);
+        } catch (Exception e) {
+            failures.increment();
+            log.error("Auth ticket refresh failed: {}", e.getMessage());
+            future.completeExceptionally(e);
+        } finally {
+            inFlight.compareAndSet(future, null);
+        }
+    }
+
+    private Ticket await(CompletableFuture<Ticket> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof CamelExecutionException && cause.getCause() != null) {
+                cause = cause.getCause();
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Authentication request failed: " + cause.getMessage(), cause);
+        }
+    }
+
+    private Counter counter(String result) {
+        return Counter.builder("orchestrator.auth.ticket.cache")
+                .description("OTCS auth ticket cache lookups and refreshes")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private record Ticket(String value, long refreshAt, long expiresAt) {
+
+        boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+
+        boolean isDueForRefresh(long now) {
+            return now >= refreshAt;
+        }
+    }
+}
@@ -0,0 +1,379 @@
+package com.orchestrator.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Content-addressed disk cache of downloaded document content
+ *
+ * Content is stored once per SHA-256 hash under blobs/; the index maps a
+ * download (node, upstream URL - which carries the version - and caller
+ * identity) to the hash plus the response headers needed to serve it again and
+ * to revalidate it (ETag, Last-Modified). The index is bounded by the total
+ * size of the content it references and evicts the least valuable entries; a
+ * blob is deleted when no entry references it any more.
+ *
+ * Content is written while it streams to the caller and becomes visible only
+ * once complete. The index lives in memory, so the directory is cleared on startup.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ContentCache {
+
+    public record Entry(String hash, long size, String contentType, String contentDisposition,
+                        String etag, String lastModified) {
+    }
+
+    private final ResponseCache responseCache;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${orchestrator.content-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${orchestrator.content-cache.dir:${java.io.tmpdir}/ot-orchestrator-content}")
+    private Path directory;
+
+    @Value("${orchestrator.content-cache.max-bytes:10737418240}")
+    private long maxBytes;
+
+    private Path blobs;
+    private Path temp;
+    private Cache<ResponseCache.Key, Entry> index;
+    private final Map<String, Integer> references = new HashMap<>();
+    // Not synchronized: file moves and deletes under it must not pin virtual threads
+    private final ReentrantLock referencesLock = new ReentrantLock();
+    private final AtomicLong storedBytes = new AtomicLong();
+
+    private Counter stored;
+
+    @PostConstruct
+    public void init() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        blobs = directory.resolve("blobs");
+        temp = directory.resolve("tmp");
+        for (Path owned : new Path[]{blobs, temp}) {
+            if (Files.isDirectory(owned)) {
+                try (Stream<Path> files = Files.list(owned)) {
+                    for (Path file : (Iterable<Path>) files::iterator) {
+                        Files.deleteIfExists(file);
+                    }
+                }
+            }
+            Files.createDirectories(owned);
+        }
+
+        index = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((ResponseCache.Key key, Entry entry) -> (int) Math.min(Integer.MAX_VALUE, entry.size()))
+                .removalListener((ResponseCache.Key key, Entry entry, RemovalCause cause) -> release(entry))
+                .build();
+
+        stored = Counter.builder("orchestrator.content.cache.stored")
+                .description("Downloads written to the content cache")
+                .register(meterRegistry);
+        Gauge.builder("orchestrator.content.cache.bytes", storedBytes, AtomicLong::get)
+                .description("Bytes of content stored on disk")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        log.info("Content cache in {}: max {} bytes", directory, maxBytes);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public ResponseCache.Key keyFor(String nodeId, String url, String identity) {
+        return responseCache.keyFor(nodeId, url, identity);
+    }
+
+    /**
+     * Cached entry, or null; entries whose blob has gone are dropped
+     */
+    public Entry get(ResponseCache.Key key) {
+        Entry entry = index.getIfPresent(key);
+        if (entry != null && !Files.isRegularFile(blobs.resolve(entry.hash()))) {
+            index.invalidate(key);
+            return null;
+        }
+        return entry;
+    }
+
+    /**
+     * Drop an entry, e.g. one whose blob has gone
+     */
+    public void invalidate(ResponseCache.Key key) {
+        index.invalidate(key);
+    }
+
+    /**
+     * Open the content of an entry for reading
+     * Throws NoSuchFileException when the blob was evicted since the entry was looked up.
+     */
+    public InputStream open(Entry entry) throws IOException {
+        return new MappedInputStream(FileChannel.open(blobs.resolve(entry.hash()), StandardOpenOption.READ));
+    }
+
+    /**
+     * Pass the upstream body through while writing it to the cache
+     * The entry is added once the body has been read to the end; a body that is
+     * abandoned, fails, or does not match its declared length is discarded.
+     */
+    public InputStream fill(ResponseCache.Key key, InputStream upstream, Entry metadata) {
+        if (metadata.size() > maxBytes) {
+            return upstream;
+        }
+        try {
+            Path file = Files.createTempFile(temp, "fill", ".part");
+            return new FillingInputStream(upstream, key, metadata, file);
+        } catch (IOException e) {
+            log.warn("Content cache not writable, passing download through: {}", e.getMessage());
+            return upstream;
+        }
+    }
+
+    private void commit(ResponseCache.Key key, Entry metadata, Path file, String hash, long size) throws IOException {
+        Path blob = blobs.resolve(hash);
+        referencesLock.lock();
+        try {
+            if (Files.exists(blob)) {
+                Files.deleteIfExists(file); // same content already stored
+            } else {
+                Files.move(file, blob, StandardCopyOption.ATOMIC_MOVE);
+                storedBytes.addAndGet(size);
+            }
+            references.merge(hash, 1, Integer::sum);
+        } finally {
+            referencesLock.unlock();
+        }
+        index.put(key, new Entry(hash, size, metadata.contentType(), metadata.contentDisposition(),
+                metadata.etag(), metadata.lastModified()));
+        stored.increment();
+        log.debug("Stored {} bytes of content as {}", size, hash);
+    }
+
+    private void release(Entry entry) {
+        referencesLock.lock();
+        try {
+            Integer remaining = references.computeIfPresent(entry.hash(), (hash, count) -> count > 1 ? count - 1 : null);
+            if (remaining != null) {
+                return;
+            }
+            try {
+                if (Files.deleteIfExists(blobs.resolve(entry.hash()))) {
+                    storedBytes.addAndGet(-entry.size());
+                }
+            } catch (IOException e) {
+                // Still open or mapped for reading on some platforms; removed on the next startup
+                log.debug("Could not delete cached content {}: {}", entry.hash(), e.getMessage());
+            }
+        } finally {
+            referencesLock.unlock();
+        }
+    }
+
+    /**
+     * Tees the body into a temp file and commits it under its hash at the end
+     */
+    private final class FillingInputStream extends FilterInputStream {
+
+        private final ResponseCache.Key key;
+        private final Entry metadata;
+        private final Path file;
+        private final MessageDigest digest;
+        private FileChannel channel;
+        private long size;
+
+        FillingInputStream(InputStream upstream, ResponseCache.Key key, Entry metadata, Path file) throws IOException {
+            super(upstream);
+            this.key = key;
+            this.metadata = metadata;
+            this.file = file;
+            this.channel = FileChannel.open(file, StandardOpenOption.WRITE);
+            try {
+                this.digest = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 not available", e);
+            }
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            int read = read(single, 0, 1);
+            return read < 0 ? -1 : single[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read;
+            try {
+                read = super.read(buffer, offset, length);
+            } catch (IOException e) {
+                abandon();
+                throw e;
+            }
+            if (read < 0) {
+                finish();
+            } else if (read > 0 && channel != null) {
+                try {
+                    channel.write(ByteBuffer.wrap(buffer, offset, read));
+                    digest.update(buffer, offset, read);
+                    size += read;
+                } catch (IOException e) {
+                    log.warn("Stopped writing download to the content cache: {}", e.getMessage());
+                    abandon();
+                }
+            }
+            return read;
+        }
+
+        @Override
+        public void close() throws IOException {
+            abandon();
+            super.close();
+        }
+
+        private void finish() {
+            if (channel == null) {
+                return;
+            }
+            try {
+                channel.close();
+                channel = null;
+                if (metadata.size() >= 0 && metadata.size() != size) {
+                    throw new IOException("got " + size + " of " + metadata.size() + " bytes");
+                }
+                commit(key, metadata, file, HexFormat.of().formatHex(digest.digest()), size);
+            } catch (IOException e) {
+                log.warn("Download not stored in the content cache: {}", e.getMessage());
+                abandon();
+            }
+        }
+
+        private void abandon() {
+            try {
+                if (channel != null) {
+                    channel.close();
+                    channel = null;
+                }
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.debug("Could not remove partial content {}: {}", file, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Reads a cached blob through read-only memory mappings of up to 64 MB
+     * Reads copy straight from the page cache without a read() call per buffer.
+     * The servlet output stream is not a channel the kernel could sendfile()
+     * into, so transferTo copies the mapping to it in large chunks. A mapping
+     * stays readable after the blob is evicted and deleted.
+     */
+    private static final class MappedInputStream extends InputStream {
+
+        private static final long WINDOW = 64L << 20;
+        private static final int CHUNK = 256 * 1024;
+
+        private final FileChannel channel;
+        private final long size;
+        private long windowStart;
+        private MappedByteBuffer window;
+
+        MappedInputStream(FileChannel channel) throws IOException {
+            this.channel = channel;
+            this.size = channel.size();
+        }
+
+        @Override
+        public int read() throws IOException {
+            ByteBuffer current = window();
+            return current == null ? -1 : current.get() & 0xff;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            ByteBuffer current = window();
+            if (current == null) {
+                return -1;
+            }
+            int read = Math.min(length, current.remaining());
+            current.get(buffer, offset, read);
+            return read;
+        }
+
+        @Override
+        public long transferTo(OutputStream out) throws IOException {
+            byte[] chunk = new byte[CHUNK];
+            long transferred = 0;
+            int read;
+            while ((read = read(chunk, 0, chunk.length)) >= 0) {
+                out.write(chunk, 0, read);
+                transferred += read;
+            }
+            return transferred;
+        }
+
+        @Override
+        public int available() {
+            long position = window == null ? 0 : windowStart + window.position();
+            return (int) Math.min(Integer.MAX_VALUE, size - position);
+        }
+
+        @Override
+        public void close() throws IOException {
+            window = null;
+            channel.close();
+        }
+
+        /**
+         * The mapping holding the next byte, or null at the end of the blob
+         */
+        private ByteBuffer window() throws IOException {
+            if (window == null || !window.hasRemaining()) {
+                long start = window == null ? 0 : windowStart + window.capacity();
+                if (start >= size) {
+                    return null;
+                }
+                windowStart = start;
+                window = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(WINDOW, size - start));
+            }
+            return window;
+        }
+    }
+}
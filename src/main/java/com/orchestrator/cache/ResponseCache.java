@@ -0,0 +1,162 @@
+package com.orchestrator.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.orchestrator.config.EndpointConfigLoader;
+import com.orchestrator.config.model.CacheConfig;
+import com.orchestrator.config.plan.EndpointPlan;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Per-endpoint cache of transformed responses for idempotent GET endpoints
+ *
+ * Entries are keyed by resolved upstream URL plus caller identity and tagged
+ * with the node ID they belong to, so write endpoints can evict every cached
+ * response of the node they modified. Hit/miss/eviction metrics are exported
+ * through Micrometer per endpoint.
+ *
+ * Every eviction advances the generation of the node. A response is only
+ * stored if the generation is still the one seen at lookup, so a read that
+ * started before a write cannot cache what it got after the write evicted.
+ * Generations are striped by node ID: a collision only skips a store.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ResponseCache {
+
+    public record Key(String nodeId, String url, String identity) {
+    }
+
+    public record Entry(byte[] body, String contentType) {
+    }
+
+    private final EndpointConfigLoader configLoader;
+    private final MeterRegistry meterRegistry;
+
+    private static final int GENERATION_STRIPES = 1024;
+
+    private final Map<String, Cache<Key, Entry>> caches = new HashMap<>();
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+    private Counter invalidations;
+
+    @PostConstruct
+    public void init() {
+        for (EndpointPlan plan : configLoader.getPlans().values()) {
+            CacheConfig config = plan.getConfig().getCache();
+            if (config == null || config.isInvalidate()) {
+                continue;
+            }
+            if (!"GET".equalsIgnoreCase(plan.getMethod()) || plan.isStreamResponse()) {
+                log.warn("Ignoring cache configuration of {}: only buffered GET endpoints are cacheable",
+                        plan.getName());
+                continue;
+            }
+
+            Cache<Key, Entry> cache = build(config);
+            CaffeineCacheMetrics.monitor(meterRegistry, cache, "orchestrator.response",
+                    Tags.of("endpointName", plan.getName()));
+            caches.put(plan.getName(), cache);
+            log.info("Response cache enabled for {}: ttl={}s", plan.getName(), config.getTtlSeconds());
+        }
+
+        invalidations = Counter.builder("orchestrator.response.cache.invalidations")
+                .description("Node invalidations triggered by write endpoints")
+                .register(meterRegistry);
+    }
+
+    public boolean isCacheable(String endpointName) {
+        return caches.containsKey(endpointName);
+    }
+
+    public Entry get(String endpointName, Key key) {
+        Cache<Key, Entry> cache = caches.get(endpointName);
+        return cache != null ? cache.getIfPresent(key) : null;
+    }
+
+    /**
+     * Generation of the node's cached responses, to be passed to put
+     */
+    public long generation(String nodeId) {
+        return generations.get(stripe(nodeId));
+    }
+
+    /**
+     * Store a response unless the node was evicted since 'generation' was read
+     */
+    public void put(String endpointName, Key key, long generation, Entry entry) {
+        Cache<Key, Entry> cache = caches.get(endpointName);
+        if (cache == null || generation(key.nodeId()) != generation) {
+            return;
+        }
+        cache.put(key, entry);
+        // An eviction between the check and the put advanced the generation before removing entries
+        if (generation(key.nodeId()) != generation) {
+            cache.invalidate(key);
+        }
+    }
+
+    /**
+     * Evict every cached response belonging to the node, across all endpoints
+     */
+    public void evictNode(String nodeId) {
+        if (nodeId == null || caches.isEmpty()) {
+            return;
+        }
+        generations.incrementAndGet(stripe(nodeId));
+        for (Cache<Key, Entry> cache : caches.values()) {
+            cache.asMap().keySet().removeIf(key -> nodeId.equals(key.nodeId()));
+        }
+        invalidations.increment();
+        log.debug("Evicted cached responses for node {}", nodeId);
+    }
+
+    /**
+     * Build a cache key; the identity is hashed so credentials are not retained as keys
+     */
+    public Key keyFor(String nodeId, String url, String identity) {
+        return new Key(nodeId, url, identity == null ? "anonymous" : sha256(identity));
+    }
+
+    private Cache<Key, Entry> build(CacheConfig config) {
+        Caffeine<Object, Object> builder = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(config.getTtlSeconds()))
+                .recordStats();
+
+        if (config.getMaxBytes() > 0) {
+            return builder.maximumWeight(config.getMaxBytes())
+                    .weigher((Key key, Entry entry) -> entry.body().length + key.url().length())
+                    .build();
+        }
+        return builder.maximumSize(config.getMaxEntries()).build();
+    }
+
+    private static int stripe(String nodeId) {
+        return nodeId == null ? 0 : Math.floorMod(nodeId.hashCode(), GENERATION_STRIPES);
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
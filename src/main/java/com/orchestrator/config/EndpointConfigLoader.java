@@ -1,6 +1,7 @@
 package com.orchestrator.config;
 
 import com.orchestrator.config.model.EndpointConfig;
+import com.orchestrator.config.plan.EndpointPlan;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -17,6 +18,7 @@ import java.util.Map;
 
 /**
  * Loads and manages endpoint configurations from YAML file
+ * Each configuration is compiled into an immutable EndpointPlan at startup
  */
 @Slf4j
 @Configuration
@@ -28,6 +30,9 @@ public class EndpointConfigLoader {
     @Getter
     private Map<String, EndpointConfig> endpoints = new HashMap<>();
 
+    @Getter
+    private Map<String, EndpointPlan> plans = new HashMap<>();
+
     @PostConstruct
     public void loadConfigurations() {
         try (InputStream inputStream = endpointsResource.getInputStream()) {
@@ -37,6 +42,7 @@ public class EndpointConfigLoader {
             if (wrapper != null && wrapper.getEndpoints() != null) {
                 for (EndpointConfig config : wrapper.getEndpoints()) {
                     endpoints.put(config.getName(), config);
+                    plans.put(config.getName(), EndpointPlan.compile(config));
                     log.info("Loaded endpoint configuration: {}", config.getName());
                 }
                 log.info("Successfully loaded {} endpoint configurations", endpoints.size());
@@ -60,6 +66,17 @@ public class EndpointConfigLoader {
         return config;
     }
 
+    /**
+     * Get compiled execution plan by endpoint name
+     */
+    public EndpointPlan getPlan(String name) {
+        EndpointPlan plan = plans.get(name);
+        if (plan == null) {
+            throw new IllegalArgumentException("Unknown endpoint: " + name);
+        }
+        return plan;
+    }
+
     /**
      * Check if endpoint exists
      */
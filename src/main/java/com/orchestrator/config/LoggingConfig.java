@@ -0,0 +1,32 @@
+package com.orchestrator.config;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.Exchange;
+import org.apache.camel.spring.boot.CamelContextConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Logging configuration for Camel routes
+ */
+@Configuration
+public class LoggingConfig {
+
+    /**
+     * Route .log() steps log under one logger instead of one per route ID,
+     * so a single level (com.orchestrator.route) controls them all
+     */
+    @Bean
+    public CamelContextConfiguration routeLogNameConfiguration() {
+        return new CamelContextConfiguration() {
+            @Override
+            public void beforeApplicationStart(CamelContext camelContext) {
+                camelContext.getGlobalOptions().put(Exchange.LOG_EIP_NAME, "com.orchestrator.route");
+            }
+
+            @Override
+            public void afterApplicationStart(CamelContext camelContext) {
+            }
+        };
+    }
+}
@@ -5,41 +5,99 @@ import io.opentelemetry.api.common.Attributes;
 import io.opentelemetry.api.trace.propagation.W3CTraceContextPropagator;
 import io.opentelemetry.context.propagation.ContextPropagators;
 import io.opentelemetry.exporter.logging.LoggingSpanExporter;
+import io.opentelemetry.exporter.otlp.trace.OtlpGrpcSpanExporter;
 import io.opentelemetry.sdk.OpenTelemetrySdk;
 import io.opentelemetry.sdk.resources.Resource;
 import io.opentelemetry.sdk.trace.SdkTracerProvider;
-import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import io.opentelemetry.sdk.trace.SdkTracerProviderBuilder;
+import io.opentelemetry.sdk.trace.export.BatchSpanProcessor;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
 import io.opentelemetry.semconv.ResourceAttributes;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+
 /**
  * OpenTelemetry Configuration
- * Configures W3C trace context propagation and logging exporter
+ * Configures W3C trace context propagation, parent-based ratio sampling and a
+ * batching span pipeline exporting to OTLP (collector) or the log
+ *
+ * Spans are queued and exported from the BatchSpanProcessor's own thread; when
+ * the bounded queue is full new spans are dropped instead of blocking requests.
  */
+@Slf4j
 @Configuration
 public class OpenTelemetryConfig {
 
     @Value("${spring.application.name}")
     private String serviceName;
 
+    @Value("${otel.sdk.disabled:false}")
+    private boolean disabled;
+
+    @Value("${otel.traces.exporter:logging}")
+    private String exporter;
+
+    @Value("${otel.exporter.otlp.endpoint:http://localhost:4317}")
+    private String otlpEndpoint;
+
+    @Value("${otel.traces.sampler.ratio:1.0}")
+    private double samplerRatio;
+
+    @Value("${otel.bsp.max-queue-size:2048}")
+    private int maxQueueSize;
+
+    @Value("${otel.bsp.max-export-batch-size:512}")
+    private int maxExportBatchSize;
+
+    @Value("${otel.bsp.schedule-delay-ms:5000}")
+    private long scheduleDelayMillis;
+
     @Bean
     public OpenTelemetry openTelemetry() {
+        if (disabled) {
+            log.info("OpenTelemetry SDK disabled");
+            return OpenTelemetry.noop();
+        }
+
         Resource resource = Resource.getDefault()
             .merge(Resource.create(Attributes.of(
                 ResourceAttributes.SERVICE_NAME, serviceName,
                 ResourceAttributes.SERVICE_VERSION, "1.0.0"
             )));
 
-        SdkTracerProvider sdkTracerProvider = SdkTracerProvider.builder()
-            .addSpanProcessor(SimpleSpanProcessor.create(LoggingSpanExporter.create()))
-            .setResource(resource)
-            .build();
+        SdkTracerProviderBuilder tracerProvider = SdkTracerProvider.builder()
+            .setSampler(Sampler.parentBased(Sampler.traceIdRatioBased(samplerRatio)))
+            .setResource(resource);
+
+        SpanExporter spanExporter = spanExporter();
+        if (spanExporter != null) {
+            tracerProvider.addSpanProcessor(BatchSpanProcessor.builder(spanExporter)
+                .setMaxQueueSize(maxQueueSize)
+                .setMaxExportBatchSize(maxExportBatchSize)
+                .setScheduleDelay(Duration.ofMillis(scheduleDelayMillis))
+                .build());
+        }
 
+        log.info("OpenTelemetry traces: exporter={}, sampler ratio={}", exporter, samplerRatio);
+
+        // Closed with the context, flushing queued spans
         return OpenTelemetrySdk.builder()
-            .setTracerProvider(sdkTracerProvider)
+            .setTracerProvider(tracerProvider.build())
             .setPropagators(ContextPropagators.create(W3CTraceContextPropagator.getInstance()))
             .buildAndRegisterGlobal();
     }
+
+    private SpanExporter spanExporter() {
+        return switch (exporter.toLowerCase()) {
+            case "otlp" -> OtlpGrpcSpanExporter.builder().setEndpoint(otlpEndpoint).build();
+            case "logging" -> LoggingSpanExporter.create();
+            case "none" -> null;
+            default -> throw new IllegalArgumentException("Unsupported otel.traces.exporter: " + exporter);
+        };
+    }
 }
@@ -0,0 +1,57 @@
+package com.orchestrator.config;
+
+import io.vertx.ext.web.client.WebClientOptions;
+import org.apache.camel.component.servlet.CamelHttpTransportServlet;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.ServletRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Upstream HTTP transport configuration
+ *
+ * The Camel servlet is registered here (instead of by camel-servlet-starter) so it
+ * can run in async mode: the servlet request is suspended while the route waits
+ * for Content Server and completed from the thread that receives the response.
+ */
+@Configuration
+public class UpstreamHttpConfig {
+
+    @Bean
+    public ServletRegistrationBean<CamelHttpTransportServlet> camelServlet(
+            @Value("${camel.servlet.mapping.context-path:/*}") String contextPath,
+            @Value("${orchestrator.upstream.async:true}") boolean async) {
+        ServletRegistrationBean<CamelHttpTransportServlet> registration =
+                new ServletRegistrationBean<>(new CamelHttpTransportServlet(), contextPath);
+        registration.setName("CamelServlet");
+        registration.setLoadOnStartup(1);
+        registration.setAsyncSupported(async);
+        registration.addInitParameter("async", String.valueOf(async));
+        return registration;
+    }
+
+    /**
+     * Options for the vertx-http web clients used for buffered upstream calls
+     * Pool and timeouts mirror the camel-http settings so both transports behave alike.
+     */
+    @Bean
+    public WebClientOptions upstreamWebClientOptions(
+            @Value("${camel.component.http.connection-timeout:30000}") int connectTimeout,
+            @Value("${camel.component.http.connections-per-route:20}") int connectionsPerRoute,
+            @Value("${orchestrator.upstream.trust-all:false}") boolean trustAll) {
+        WebClientOptions options = new WebClientOptions()
+                .setConnectTimeout(connectTimeout)
+                .setMaxPoolSize(connectionsPerRoute)
+                .setKeepAlive(true)
+                .setFollowRedirects(false)
+                .setUserAgentEnabled(false);
+
+        // Vert.x does not use the JVM default SSLContext, so the development SSL
+        // bypass in OTOrchestratorApplication has to be repeated here; opt-in only
+        // (dev profile or UPSTREAM_TRUST_ALL=true)
+        if (trustAll) {
+            options.setTrustAll(true).setVerifyHost(false);
+        }
+        return options;
+    }
+}
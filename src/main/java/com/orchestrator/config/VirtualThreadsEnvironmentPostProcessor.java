@@ -0,0 +1,27 @@
+package com.orchestrator.config;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.core.env.ConfigurableEnvironment;
+
+/**
+ * Extends spring.threads.virtual.enabled to Camel
+ *
+ * Spring Boot switches Tomcat (and with it the Camel servlet consumer, the routes
+ * and the blocking HTTP producers running on the request thread) to virtual
+ * threads. Camel's own thread pools read the camel.threads.virtual.enabled
+ * system property once, when its thread factory is first loaded, so it has to
+ * be set before the Camel context is created.
+ */
+public class VirtualThreadsEnvironmentPostProcessor implements EnvironmentPostProcessor {
+
+    static final String CAMEL_VIRTUAL_THREADS = "camel.threads.virtual.enabled";
+
+    @Override
+    public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+        boolean enabled = environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false);
+        if (enabled && System.getProperty(CAMEL_VIRTUAL_THREADS) == null) {
+            System.setProperty(CAMEL_VIRTUAL_THREADS, "true");
+        }
+    }
+}
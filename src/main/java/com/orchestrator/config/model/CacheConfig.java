@@ -0,0 +1,14 @@
+package com.orchestrator.config.model;
+
+import lombok.Data;
+
+/**
+ * Response cache configuration
+ */
+@Data
+public class CacheConfig {
+    private long ttlSeconds = 30; // Time to live of a cached response
+    private long maxEntries = 1000; // Entry bound, used when maxBytes is not set
+    private long maxBytes; // Byte bound on cached bodies (0 = bounded by maxEntries)
+    private boolean invalidate; // Write endpoint: evict cached entries of the affected node
+}
@@ -0,0 +1,13 @@
+package com.orchestrator.config.model;
+
+import lombok.Data;
+
+/**
+ * Disk cache of downloaded content (see orchestrator.content-cache)
+ */
+@Data
+public class ContentCacheConfig {
+    // true: content at this URL never changes and hits are served without asking Content Server;
+    // false: hits are revalidated with If-None-Match / If-Modified-Since, a 304 serves the cached copy
+    private boolean immutable;
+}
@@ -0,0 +1,12 @@
+package com.orchestrator.config.model;
+
+import lombok.Data;
+
+/**
+ * Parallel ranged download configuration of a content endpoint
+ */
+@Data
+public class DownloadConfig {
+    private int ranges = 4; // Byte ranges fetched in parallel, and at most buffered ahead of the reader
+    private long rangeSize = 8388608; // Bytes per range; bodies up to this size are fetched as one range
+}
@@ -12,4 +12,11 @@ public class EndpointConfig {
     private OpentextConfig opentext;
     private MappingConfig mapping;
     private ResponseConfig response;
+    private CacheConfig cache;
+    private PaginationConfig pagination;
+    private UploadConfig upload;
+    private DownloadConfig download;
+    private ContentCacheConfig contentCache;
+    private boolean idempotent; // Upstream call can safely be sent twice
+    private HedgeConfig hedge;
 }
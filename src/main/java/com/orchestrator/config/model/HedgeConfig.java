@@ -0,0 +1,13 @@
+package com.orchestrator.config.model;
+
+import lombok.Data;
+
+/**
+ * Hedged upstream calls of an idempotent endpoint (see orchestrator.hedging)
+ */
+@Data
+public class HedgeConfig {
+    private int percentile = 95; // Send the second call once the first has taken longer than this latency percentile
+    private long minDelayMs = 20; // Floor on the hedge delay
+    private long maxDelayMs = 1000; // Ceiling on the hedge delay, also used until enough latencies are known
+}
@@ -0,0 +1,20 @@
+package com.orchestrator.config.model;
+
+import lombok.Data;
+
+/**
+ * Auto-pagination configuration of a list endpoint
+ * Page number and size are mapping input values, rendered through the
+ * endpoint's own queryParams for every page.
+ */
+@Data
+public class PaginationConfig {
+    private String pageParam = "page"; // Input value holding the page number
+    private String limitParam = "limit"; // Input value holding the page size
+    private int firstPage = 1; // Number of the first page
+    private int pageSize = 100; // Page size when the caller does not send one
+    private String items = "$.results"; // Array of items in each page (JSONPath or JSON Pointer)
+    private String pageTotal; // Number of pages, e.g. $.collection.paging.page_total; without it a short page is the last
+    private int maxPages = 100; // Upper bound on pages fetched per request
+    private boolean prefetch = true; // Fetch the next page while the current one is written
+}
@@ -8,8 +8,12 @@ import java.util.Map;
  */
 @Data
 public class ResponseConfig {
-    private String type; // json, binary, text
+    private String type; // json, binary, stream, text
     private String encoding; // base64 (for binary)
     private boolean includeMetadata; // Include response metadata
-    private Map<String, String> transform; // Response field transformations
+    private boolean streaming; // Stream binary content through the encoder instead of buffering it
+    // Response fields: JSONPath ("$...") or JSON Pointer ("/...") projections of the upstream
+    // body, or literal strings. With any projection only the projected fields are returned;
+    // with literals only, they are added next to the full "data".
+    private Map<String, String> transform;
 }
@@ -0,0 +1,15 @@
+package com.orchestrator.config.model;
+
+import lombok.Data;
+
+import java.util.Map;
+
+/**
+ * Streaming upload configuration of a write endpoint
+ * The caller's file part is forwarded as it arrives, behind these form fields.
+ */
+@Data
+public class UploadConfig {
+    private String filePart = "file"; // Name of the file part in the upstream request
+    private Map<String, String> fields; // Upstream form fields, templates over the mapping input values
+}
@@ -0,0 +1,188 @@
+package com.orchestrator.config.plan;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.jayway.jsonpath.Configuration;
+import com.jayway.jsonpath.JsonPath;
+import com.jayway.jsonpath.Option;
+import com.jayway.jsonpath.spi.json.JacksonJsonNodeJsonProvider;
+import com.jayway.jsonpath.spi.mapper.JacksonMappingProvider;
+import com.orchestrator.config.model.EndpointConfig;
+import com.orchestrator.config.model.MappingConfig;
+import com.orchestrator.config.model.ResponseConfig;
+import lombok.Getter;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable execution plan compiled once from an EndpointConfig
+ *
+ * Holds precompiled JSONPath expressions (evaluated directly against the parsed
+ * caller JsonNode) and tokenized path/query/header templates, so per-request work
+ * is one evaluation per input and one rendering pass per template.
+ */
+@Getter
+public final class EndpointPlan {
+
+    /**
+     * Evaluate against Jackson trees; missing leaves yield null instead of exceptions
+     */
+    private static final Configuration JSON_PATH_CONFIGURATION = Configuration.builder()
+            .jsonProvider(new JacksonJsonNodeJsonProvider())
+            .mappingProvider(new JacksonMappingProvider())
+            .options(Option.DEFAULT_PATH_LEAF_TO_NULL, Option.SUPPRESS_EXCEPTIONS)
+            .build();
+
+    public record Input(String key, JsonPath path) {
+    }
+
+    public record Param(String name, Template value) {
+    }
+
+    private final EndpointConfig config;
+    private final String name;
+    private final String method;
+    private final boolean requiresAuth;
+    private final boolean streamResponse;
+    private final Template path;
+    private final List<Input> inputs;
+    private final List<Param> queryParams;
+    private final List<Param> headers;
+    private final ResponseProjection responseProjection;
+    private final PaginationPlan pagination;
+    private final UploadPlan upload;
+
+    private EndpointPlan(EndpointConfig config, Template path, List<Input> inputs,
+                         List<Param> queryParams, List<Param> headers) {
+        this.config = config;
+        this.name = config.getName();
+        this.method = config.getOpentext().getMethod();
+        this.requiresAuth = config.getOpentext().isRequiresAuth();
+        this.streamResponse = isStreamingResponse(config.getResponse());
+        this.path = path;
+        this.inputs = inputs;
+        this.queryParams = queryParams;
+        this.headers = headers;
+        this.responseProjection = ResponseProjection.compile(
+                config.getResponse() != null ? config.getResponse().getTransform() : null);
+        this.pagination = config.getPagination() != null
+                ? PaginationPlan.compile(name, config.getPagination()) : null;
+        this.upload = config.getUpload() != null ? UploadPlan.compile(name, config.getUpload()) : null;
+    }
+
+    /**
+     * Compile an endpoint configuration; invalid JSONPath expressions (inputs and
+     * response transforms) fail here, at startup
+     */
+    public static EndpointPlan compile(EndpointConfig config) {
+        if (config.getOpentext() == null || config.getOpentext().getPath() == null) {
+            throw new IllegalArgumentException("Endpoint '" + config.getName() + "' has no opentext.path");
+        }
+
+        boolean bufferedGet = "GET".equalsIgnoreCase(config.getOpentext().getMethod())
+                && !isStreamingResponse(config.getResponse());
+        if (config.getPagination() != null && !bufferedGet) {
+            throw new IllegalArgumentException("Endpoint '" + config.getName()
+                    + "': pagination is only supported on buffered GET endpoints");
+        }
+
+        String method = config.getOpentext().getMethod();
+        if (config.getDownload() != null && (!"GET".equalsIgnoreCase(method) || !isStreamingResponse(config.getResponse())
+                || config.getDownload().getRanges() <= 0 || config.getDownload().getRangeSize() <= 0)) {
+            throw new IllegalArgumentException("Endpoint '" + config.getName()
+                    + "': ranged downloads need a streaming GET endpoint and positive ranges and rangeSize");
+        }
+        if (config.getContentCache() != null
+                && (!"GET".equalsIgnoreCase(method) || !isStreamingResponse(config.getResponse()))) {
+            throw new IllegalArgumentException("Endpoint '" + config.getName()
+                    + "': the content cache is only supported on streaming GET endpoints");
+        }
+        if (config.getHedge() != null && (!config.isIdempotent() || !bufferedGet
+                || config.getHedge().getPercentile() <= 0 || config.getHedge().getPercentile() >= 100
+                || config.getHedge().getMinDelayMs() > config.getHedge().getMaxDelayMs())) {
+            throw new IllegalArgumentException("Endpoint '" + config.getName()
+                    + "': hedging needs an idempotent buffered GET endpoint, a percentile between 0 and 100"
+                    + " and minDelayMs <= maxDelayMs");
+        }
+        if (config.getUpload() != null && !"POST".equalsIgnoreCase(method) && !"PUT".equalsIgnoreCase(method)) {
+            throw new IllegalArgumentException("Endpoint '" + config.getName()
+                    + "': uploads are only supported on POST and PUT endpoints");
+        }
+
+        MappingConfig mapping = config.getMapping() != null ? config.getMapping() : new MappingConfig();
+
+        List<Input> inputs = new ArrayList<>();
+        if (mapping.getInput() != null) {
+            mapping.getInput().forEach((key, expression) -> inputs.add(new Input(key, JsonPath.compile(expression))));
+        }
+
+        List<Param> queryParams = new ArrayList<>();
+        if (mapping.getQueryParams() != null) {
+            mapping.getQueryParams().forEach((param, template) -> queryParams.add(
+                    new Param(URLEncoder.encode(param, StandardCharsets.UTF_8), Template.compile(template))));
+        }
+
+        List<Param> headers = new ArrayList<>();
+        if (mapping.getHeaders() != null) {
+            mapping.getHeaders().forEach((header, template) -> headers.add(new Param(header, Template.compile(template))));
+        }
+
+        return new EndpointPlan(config, Template.compile(config.getOpentext().getPath()),
+                Collections.unmodifiableList(inputs),
+                Collections.unmodifiableList(queryParams),
+                Collections.unmodifiableList(headers));
+    }
+
+    /**
+     * Extract input values from the parsed caller payload
+     * Missing fields map to null
+     */
+    public Map<String, Object> extractValues(JsonNode payload) {
+        Map<String, Object> values = new HashMap<>(inputs.size() + 2);
+        for (Input input : inputs) {
+            Object value = input.path().read(payload, JSON_PATH_CONFIGURATION);
+            values.put(input.key(), value instanceof JsonNode node && node.isNull() ? null : value);
+        }
+        return values;
+    }
+
+    /**
+     * Render base URL + path + query string in one pass
+     * Query parameters whose values are missing are left out.
+     */
+    public String buildUrl(String baseUrl, Map<String, Object> values) {
+        StringBuilder url = new StringBuilder(baseUrl.length() + 64).append(baseUrl);
+
+        if (!path.renderTo(url, values, Template.Encoding.PATH_SEGMENT)) {
+            throw new IllegalArgumentException("Missing value for path parameter '"
+                    + path.findMissing(values) + "' of endpoint " + name);
+        }
+
+        char separator = '?';
+        for (Param param : queryParams) {
+            int mark = url.length();
+            url.append(separator).append(param.name()).append('=');
+            int valueStart = url.length();
+            if (!param.value().renderTo(url, values, Template.Encoding.QUERY) || url.length() == valueStart) {
+                url.setLength(mark);
+                continue;
+            }
+            separator = '&';
+        }
+
+        return url.toString();
+    }
+
+    private static boolean isStreamingResponse(ResponseConfig response) {
+        if (response == null) {
+            return false;
+        }
+        return "stream".equalsIgnoreCase(response.getType())
+                || (response.isStreaming() && "binary".equalsIgnoreCase(response.getType()));
+    }
+}
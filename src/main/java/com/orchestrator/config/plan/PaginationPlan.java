@@ -0,0 +1,49 @@
+package com.orchestrator.config.plan;
+
+import com.fasterxml.jackson.core.JsonPointer;
+import com.orchestrator.config.model.PaginationConfig;
+
+import java.util.List;
+
+/**
+ * Pagination settings compiled once: item and page total locations as JSON Pointers
+ * JSON Pointers let pages be read with Jackson's filtering parser, which skips
+ * everything outside the items array without building nodes for it.
+ */
+public record PaginationPlan(String pageParam, String limitParam, int firstPage, int pageSize,
+                             JsonPointer items, JsonPointer pageTotal, int maxPages, boolean prefetch) {
+
+    /**
+     * Compile a pagination block; only definite paths are accepted
+     */
+    public static PaginationPlan compile(String endpointName, PaginationConfig config) {
+        if (config.getPageSize() <= 0 || config.getMaxPages() <= 0) {
+            throw new IllegalArgumentException("Pagination of endpoint '" + endpointName
+                    + "' needs a positive pageSize and maxPages");
+        }
+        return new PaginationPlan(config.getPageParam(), config.getLimitParam(), config.getFirstPage(),
+                config.getPageSize(), pointer(endpointName, config.getItems()),
+                config.getPageTotal() != null ? pointer(endpointName, config.getPageTotal()) : null,
+                config.getMaxPages(), config.isPrefetch());
+    }
+
+    private static JsonPointer pointer(String endpointName, String expression) {
+        if (expression == null || expression.isBlank()) {
+            throw new IllegalArgumentException("Pagination of endpoint '" + endpointName + "' has an empty path");
+        }
+        if (expression.startsWith("/")) {
+            return JsonPointer.compile(expression);
+        }
+
+        List<ResponseProjection.Step> steps = ResponseProjection.parseJsonPath(expression);
+        JsonPointer pointer = JsonPointer.empty();
+        for (ResponseProjection.Step step : steps) {
+            if (step.wildcard()) {
+                throw new IllegalArgumentException("Pagination path '" + expression + "' of endpoint '"
+                        + endpointName + "' must be definite, without wildcards");
+            }
+            pointer = step.name() != null ? pointer.appendProperty(step.name()) : pointer.appendIndex(step.index());
+        }
+        return pointer;
+    }
+}
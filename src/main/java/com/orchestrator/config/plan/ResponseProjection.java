@@ -0,0 +1,335 @@
+package com.orchestrator.config.plan;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Response "transform" entries compiled into streaming projections
+ *
+ * Values starting with "$" are JSONPath, values starting with "/" are JSON
+ * Pointer; anything else is a literal string written as is. Paths are evaluated
+ * in one pass over the upstream token stream: subtrees that no path leads into
+ * are skipped without being materialized, only matched values are buffered, and
+ * reading stops as soon as every definite path has its value.
+ *
+ * Supported JSONPath: $, .name, ['name'], [index], .* and [*]. Definite paths
+ * yield one value (null when missing), wildcard paths an array of all matches.
+ * Filters, slices, unions and recursive descent cannot be streamed this way and
+ * are rejected at startup.
+ */
+public final class ResponseProjection {
+
+    /**
+     * One path step; a JSON Pointer token may match a field name or an array index
+     */
+    record Step(String name, int index, boolean wildcard) {
+
+        static final Step ANY = new Step(null, -1, true);
+
+        boolean matches(Object key) {
+            if (wildcard) {
+                return true;
+            }
+            return key instanceof String field ? field.equals(name) : index == (Integer) key;
+        }
+    }
+
+    record Entry(String field, String literal, List<Step> path, boolean definite) {
+
+        boolean isLiteral() {
+            return path == null;
+        }
+    }
+
+    private static final ResponseProjection NONE = new ResponseProjection(List.of(), false);
+
+    private final List<Entry> entries;
+    private final boolean projecting;
+
+    private ResponseProjection(List<Entry> entries, boolean projecting) {
+        this.entries = entries;
+        this.projecting = projecting;
+    }
+
+    /**
+     * Compile the transform map; unsupported expressions fail here, at startup
+     */
+    public static ResponseProjection compile(Map<String, String> transform) {
+        if (transform == null || transform.isEmpty()) {
+            return NONE;
+        }
+
+        List<Entry> entries = new ArrayList<>(transform.size());
+        boolean projecting = false;
+        for (Map.Entry<String, String> entry : transform.entrySet()) {
+            String expression = entry.getValue() != null ? entry.getValue().trim() : "";
+            List<Step> path = null;
+            if (expression.startsWith("$")) {
+                path = parseJsonPath(expression);
+            } else if (expression.startsWith("/")) {
+                path = parseJsonPointer(expression);
+            }
+            boolean definite = path == null || path.stream().noneMatch(Step::wildcard);
+            entries.add(new Entry(entry.getKey(), path == null ? entry.getValue() : null, path, definite));
+            projecting |= path != null;
+        }
+        return new ResponseProjection(Collections.unmodifiableList(entries), projecting);
+    }
+
+    /**
+     * Whether any entry reads from the upstream body
+     * Without one, the entries are only literal fields added to the full response.
+     */
+    public boolean isProjecting() {
+        return projecting;
+    }
+
+    /**
+     * Add the literal entries to envelope fields, in configuration order
+     */
+    public void addLiterals(ObjectNode fields) {
+        for (Entry entry : entries) {
+            if (entry.isLiteral()) {
+                fields.put(entry.field(), entry.literal());
+            }
+        }
+    }
+
+    /**
+     * Read the upstream body and write {...projected fields, "timestamp":"..."}
+     *
+     * @param upstream parser over the upstream body, not yet advanced
+     */
+    public byte[] project(JsonFactory jsonFactory, JsonParser upstream) throws IOException {
+        Evaluation evaluation = new Evaluation(entries);
+        try (upstream) {
+            if (upstream.nextToken() != null) {
+                evaluation.value(upstream, new ArrayList<>(), evaluation.collectors);
+            }
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+        try (JsonGenerator generator = jsonFactory.createGenerator(out)) {
+            generator.writeStartObject();
+            for (Collector collector : evaluation.collectors) {
+                generator.writeFieldName(collector.entry.field());
+                collector.writeTo(generator);
+            }
+            generator.writeStringField("timestamp", Instant.now().toString());
+            generator.writeEndObject();
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Matched values of one entry
+     */
+    private static final class Collector {
+        final Entry entry;
+        final List<TokenBuffer> values = new ArrayList<>(1);
+
+        Collector(Entry entry) {
+            this.entry = entry;
+        }
+
+        boolean isFilled() {
+            return entry.definite() && !values.isEmpty();
+        }
+
+        /**
+         * 0 no match, 1 the current value lies on the path, 2 the current value is the target
+         */
+        int match(List<Object> location) {
+            List<Step> path = entry.path();
+            if (path == null || isFilled() || location.size() > path.size()) {
+                return 0;
+            }
+            for (int i = 0; i < location.size(); i++) {
+                if (!path.get(i).matches(location.get(i))) {
+                    return 0;
+                }
+            }
+            return location.size() == path.size() ? 2 : 1;
+        }
+
+        void writeTo(JsonGenerator generator) throws IOException {
+            if (entry.isLiteral()) {
+                generator.writeString(entry.literal());
+            } else if (entry.definite()) {
+                if (values.isEmpty()) {
+                    generator.writeNull();
+                } else {
+                    values.get(0).serialize(generator);
+                }
+            } else {
+                generator.writeStartArray();
+                for (TokenBuffer value : values) {
+                    value.serialize(generator);
+                }
+                generator.writeEndArray();
+            }
+        }
+    }
+
+    private static final class Evaluation {
+        final List<Collector> collectors;
+        int pending;
+        final boolean exhaustive;
+
+        Evaluation(List<Entry> entries) {
+            this.collectors = entries.stream().map(Collector::new).toList();
+            this.pending = (int) entries.stream().filter(entry -> !entry.isLiteral() && entry.definite()).count();
+            this.exhaustive = entries.stream().anyMatch(entry -> !entry.isLiteral() && !entry.definite());
+        }
+
+        boolean done() {
+            return pending == 0 && !exhaustive;
+        }
+
+        /**
+         * Visit the value the parser is positioned on
+         *
+         * @param location field names and array indexes leading to the value
+         * @param active   collectors whose path may still match at or below this value
+         */
+        void value(JsonParser parser, List<Object> location, List<Collector> active) throws IOException {
+            List<Collector> targets = null;
+            List<Collector> below = null;
+            for (Collector collector : active) {
+                int match = collector.match(location);
+                if (match == 2) {
+                    targets = add(targets, collector);
+                } else if (match == 1) {
+                    below = add(below, collector);
+                }
+            }
+
+            if (targets != null) {
+                TokenBuffer buffer = new TokenBuffer(parser);
+                buffer.copyCurrentStructure(parser);
+                for (Collector target : targets) {
+                    target.values.add(buffer);
+                    if (target.entry.definite()) {
+                        pending--;
+                    }
+                }
+                if (below != null) {
+                    // Deeper paths inside a matched value: walk the buffered copy
+                    try (JsonParser copy = buffer.asParser()) {
+                        copy.nextToken();
+                        value(copy, location, below);
+                    }
+                }
+                return;
+            }
+
+            if (below == null) {
+                parser.skipChildren();
+                return;
+            }
+
+            JsonToken token = parser.currentToken();
+            if (token == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    location.add(parser.currentName());
+                    parser.nextToken();
+                    value(parser, location, below);
+                    location.remove(location.size() - 1);
+                    if (done()) {
+                        return;
+                    }
+                }
+            } else if (token == JsonToken.START_ARRAY) {
+                int index = 0;
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    location.add(index++);
+                    value(parser, location, below);
+                    location.remove(location.size() - 1);
+                    if (done()) {
+                        return;
+                    }
+                }
+            }
+        }
+
+        private static List<Collector> add(List<Collector> list, Collector collector) {
+            List<Collector> result = list != null ? list : new ArrayList<>(2);
+            result.add(collector);
+            return result;
+        }
+    }
+
+    static List<Step> parseJsonPath(String expression) {
+        List<Step> steps = new ArrayList<>();
+        int position = 1;
+        while (position < expression.length()) {
+            char c = expression.charAt(position);
+            if (c == '.') {
+                if (position + 1 < expression.length() && expression.charAt(position + 1) == '.') {
+                    throw unsupported(expression, "recursive descent '..'");
+                }
+                int end = position + 1;
+                while (end < expression.length() && expression.charAt(end) != '.' && expression.charAt(end) != '[') {
+                    end++;
+                }
+                String name = expression.substring(position + 1, end);
+                if (name.isEmpty()) {
+                    throw unsupported(expression, "empty field name");
+                }
+                if (name.contains("(")) {
+                    throw unsupported(expression, "functions");
+                }
+                steps.add("*".equals(name) ? Step.ANY : new Step(name, -1, false));
+                position = end;
+            } else if (c == '[') {
+                int end = expression.indexOf(']', position);
+                if (end < 0) {
+                    throw unsupported(expression, "unclosed '['");
+                }
+                String selector = expression.substring(position + 1, end).trim();
+                if (selector.equals("*")) {
+                    steps.add(Step.ANY);
+                } else if (selector.length() >= 2 && (selector.charAt(0) == '\'' || selector.charAt(0) == '"')
+                        && selector.charAt(selector.length() - 1) == selector.charAt(0)
+                        && selector.indexOf(',') < 0) {
+                    steps.add(new Step(selector.substring(1, selector.length() - 1), -1, false));
+                } else if (selector.matches("\\d+")) {
+                    steps.add(new Step(null, Integer.parseInt(selector), false));
+                } else {
+                    throw unsupported(expression, "selector [" + selector + "]");
+                }
+                position = end + 1;
+            } else {
+                throw unsupported(expression, "unexpected '" + c + "'");
+            }
+        }
+        return List.copyOf(steps);
+    }
+
+    static List<Step> parseJsonPointer(String expression) {
+        List<Step> steps = new ArrayList<>();
+        for (String token : expression.substring(1).split("/", -1)) {
+            String name = token.replace("~1", "/").replace("~0", "~");
+            int index = name.matches("0|[1-9]\\d*") ? Integer.parseInt(name) : -1;
+            steps.add(new Step(name, index, false));
+        }
+        return List.copyOf(steps);
+    }
+
+    private static IllegalArgumentException unsupported(String expression, String reason) {
+        return new IllegalArgumentException("Unsupported response transform path '" + expression + "': " + reason
+                + " (streaming projections support $, .name, ['name'], [index], .* and [*])");
+    }
+}
@@ -0,0 +1,116 @@
+package com.orchestrator.config.plan;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+/**
+ * A "{name}" placeholder template tokenized into literal and variable segments
+ * Rendering is a single pass over the segments, no scanning or String.replace.
+ */
+public final class Template {
+
+    /**
+     * How variable values are written into the output
+     */
+    public enum Encoding {
+        NONE(value -> value),
+        PATH_SEGMENT(value -> URLEncoder.encode(value, StandardCharsets.UTF_8).replace("+", "%20")),
+        QUERY(value -> URLEncoder.encode(value, StandardCharsets.UTF_8));
+
+        private final UnaryOperator<String> encoder;
+
+        Encoding(UnaryOperator<String> encoder) {
+            this.encoder = encoder;
+        }
+
+        String encode(String value) {
+            return encoder.apply(value);
+        }
+    }
+
+    private record Segment(String text, boolean variable) {
+    }
+
+    private final String source;
+    private final Segment[] segments;
+
+    private Template(String source, Segment[] segments) {
+        this.source = source;
+        this.segments = segments;
+    }
+
+    /**
+     * Tokenize a template; an unclosed "{" is kept as literal text
+     */
+    public static Template compile(String source) {
+        List<Segment> segments = new ArrayList<>();
+        int position = 0;
+
+        while (position < source.length()) {
+            int open = source.indexOf('{', position);
+            int close = open < 0 ? -1 : source.indexOf('}', open + 1);
+            if (open < 0 || close < 0) {
+                segments.add(new Segment(source.substring(position), false));
+                break;
+            }
+            if (open > position) {
+                segments.add(new Segment(source.substring(position, open), false));
+            }
+            segments.add(new Segment(source.substring(open + 1, close), true));
+            position = close + 1;
+        }
+
+        return new Template(source, segments.toArray(new Segment[0]));
+    }
+
+    /**
+     * Append the rendered template to the builder
+     *
+     * @return false (leaving the builder untouched) if a referenced value is missing
+     */
+    public boolean renderTo(StringBuilder target, Map<String, Object> values, Encoding encoding) {
+        int start = target.length();
+        for (Segment segment : segments) {
+            if (!segment.variable()) {
+                target.append(segment.text());
+                continue;
+            }
+            Object value = values.get(segment.text());
+            if (value == null) {
+                target.setLength(start);
+                return false;
+            }
+            target.append(encoding.encode(value.toString()));
+        }
+        return true;
+    }
+
+    /**
+     * Render the template, or null if a referenced value is missing
+     */
+    public String render(Map<String, Object> values, Encoding encoding) {
+        StringBuilder result = new StringBuilder(source.length() + 16);
+        return renderTo(result, values, encoding) ? result.toString() : null;
+    }
+
+    /**
+     * First referenced variable that has no value, or null if all are present
+     */
+    public String findMissing(Map<String, Object> values) {
+        for (Segment segment : segments) {
+            if (segment.variable() && values.get(segment.text()) == null) {
+                return segment.text();
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return source;
+    }
+}
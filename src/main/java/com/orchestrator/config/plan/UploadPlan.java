@@ -0,0 +1,26 @@
+package com.orchestrator.config.plan;
+
+import com.orchestrator.config.model.UploadConfig;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Upload settings compiled once: the upstream form fields as tokenized templates
+ */
+public record UploadPlan(String filePart, List<EndpointPlan.Param> fields) {
+
+    public static UploadPlan compile(String endpointName, UploadConfig config) {
+        if (config.getFilePart() == null || config.getFilePart().isBlank()) {
+            throw new IllegalArgumentException("Upload of endpoint '" + endpointName + "' has no filePart");
+        }
+
+        List<EndpointPlan.Param> fields = new ArrayList<>();
+        if (config.getFields() != null) {
+            config.getFields().forEach((field, template) ->
+                    fields.add(new EndpointPlan.Param(field, Template.compile(template))));
+        }
+        return new UploadPlan(config.getFilePart(), Collections.unmodifiableList(fields));
+    }
+}
@@ -0,0 +1,84 @@
+package com.orchestrator.context;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.camel.Exchange;
+
+import java.io.IOException;
+
+/**
+ * Caller payload attached to the exchange
+ *
+ * Keeps the body as the bytes received from the caller and parses it into a
+ * JsonNode at most once, on first use. Every processor reads the payload from
+ * here instead of re-reading and re-parsing the original body.
+ */
+public final class RequestContext {
+
+    public static final String PROPERTY = "requestContext";
+
+    /**
+     * Legacy property holding the raw request, still honoured when no context was captured
+     */
+    private static final String ORIGINAL_REQUEST = "originalRequest";
+
+    private final byte[] body;
+    private JsonNode json;
+
+    private RequestContext(byte[] body) {
+        this.body = body;
+    }
+
+    /**
+     * Capture the current message body as the caller payload
+     * Usable directly as a route step: .process(RequestContext::capture)
+     */
+    public static void capture(Exchange exchange) {
+        byte[] body = exchange.getIn().getBody(byte[].class);
+        exchange.getIn().setBody(body);
+        exchange.setProperty(PROPERTY, new RequestContext(body));
+    }
+
+    /**
+     * Attach a payload that does not come from the message body, leaving the body untouched
+     * Used by uploads, whose body is the caller's multipart stream.
+     */
+    public static void attach(Exchange exchange, byte[] body) {
+        exchange.setProperty(PROPERTY, new RequestContext(body));
+    }
+
+    /**
+     * Get the context of the exchange, creating it from the legacy property if needed
+     */
+    public static RequestContext of(Exchange exchange) {
+        RequestContext context = exchange.getProperty(PROPERTY, RequestContext.class);
+        if (context == null) {
+            Object original = exchange.getProperty(ORIGINAL_REQUEST);
+            byte[] body = original == null ? null
+                    : exchange.getContext().getTypeConverter().convertTo(byte[].class, exchange, original);
+            context = new RequestContext(body);
+            exchange.setProperty(PROPERTY, context);
+        }
+        return context;
+    }
+
+    /**
+     * Raw payload bytes, as received
+     */
+    public byte[] getBody() {
+        return body;
+    }
+
+    /**
+     * Parsed payload; parsed on first call and reused afterwards
+     */
+    public JsonNode json(ObjectMapper objectMapper) throws IOException {
+        if (json == null) {
+            if (body == null || body.length == 0) {
+                throw new IllegalArgumentException("Request body is required");
+            }
+            json = objectMapper.readTree(body);
+        }
+        return json;
+    }
+}
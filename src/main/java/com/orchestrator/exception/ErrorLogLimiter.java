@@ -0,0 +1,87 @@
+package com.orchestrator.exception;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rate limiter and stack trace deduplication for error logging
+ *
+ * Per error type, at most 'maxPerWindow' errors are logged per window; the rest
+ * are counted and reported with the first error logged in the next window.
+ * A stack trace is printed the first time its signature (exception types and
+ * top frames) is seen; repeats only reference the signature.
+ */
+final class ErrorLogLimiter {
+
+    private static final int SIGNATURE_FRAMES = 5;
+    private static final int MAX_SIGNATURES = 1024;
+
+    /**
+     * @param log            whether this error should be logged at all
+     * @param suppressed     errors of this type suppressed since the last logged one
+     * @param fullStackTrace whether the stack trace is new and should be printed
+     * @param signature      short stack signature, to correlate repeats
+     */
+    record Decision(boolean log, long suppressed, boolean fullStackTrace, String signature) {
+    }
+
+    private static final class Window {
+        final AtomicLong start = new AtomicLong();
+        final AtomicLong count = new AtomicLong();
+        final AtomicLong suppressed = new AtomicLong();
+    }
+
+    private final long windowMillis;
+    private final int maxPerWindow;
+    private final Map<String, Window> windows = new ConcurrentHashMap<>();
+    private final Set<String> seenSignatures = ConcurrentHashMap.newKeySet();
+
+    ErrorLogLimiter(long windowMillis, int maxPerWindow) {
+        this.windowMillis = windowMillis;
+        this.maxPerWindow = maxPerWindow;
+    }
+
+    Decision acquire(String errorType, Throwable cause) {
+        String signature = signature(cause);
+
+        if (windowMillis > 0) {
+            Window window = windows.computeIfAbsent(errorType, type -> new Window());
+            long now = System.currentTimeMillis();
+            long start = window.start.get();
+            if (now - start >= windowMillis && window.start.compareAndSet(start, now)) {
+                window.count.set(0);
+            }
+            if (window.count.incrementAndGet() > maxPerWindow) {
+                window.suppressed.incrementAndGet();
+                return new Decision(false, 0, false, signature);
+            }
+            return new Decision(true, window.suppressed.getAndSet(0), isNew(signature), signature);
+        }
+
+        return new Decision(true, 0, isNew(signature), signature);
+    }
+
+    private boolean isNew(String signature) {
+        if (seenSignatures.size() >= MAX_SIGNATURES) {
+            seenSignatures.clear();
+        }
+        return seenSignatures.add(signature);
+    }
+
+    static String signature(Throwable cause) {
+        int hash = 1;
+        for (Throwable current = cause; current != null; current = current.getCause()) {
+            hash = 31 * hash + current.getClass().getName().hashCode();
+            StackTraceElement[] frames = current.getStackTrace();
+            for (int i = 0; i < Math.min(SIGNATURE_FRAMES, frames.length); i++) {
+                hash = 31 * hash + frames[i].hashCode();
+            }
+            if (current.getCause() == current) {
+                break;
+            }
+        }
+        return String.format("%08x", hash);
+    }
+}
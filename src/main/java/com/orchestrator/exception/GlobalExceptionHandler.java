@@ -1,23 +1,42 @@
 package com.orchestrator.exception;
 
+import com.orchestrator.upstream.UpstreamUnavailableException;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.camel.Exchange;
 import org.apache.camel.Processor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.net.ssl.SSLException;
 import java.security.cert.CertificateException;
 import java.time.Instant;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Global exception handler for all orchestration routes
- * Logs exceptions gracefully with full stack traces and returns formatted error
- * responses
+ * Logs each error as one line and returns formatted error responses
+ *
+ * Error logging is rate limited per error type and a stack trace is printed
+ * only the first time it is seen; repeats reference its signature instead.
  */
 @Slf4j
 @Component
 public class GlobalExceptionHandler implements Processor {
 
+    @Value("${orchestrator.logging.error-window-ms:0}")
+    private long errorWindowMillis;
+
+    @Value("${orchestrator.logging.errors-per-window:5}")
+    private int errorsPerWindow;
+
+    private ErrorLogLimiter limiter = new ErrorLogLimiter(0, 0);
+
+    @PostConstruct
+    public void init() {
+        limiter = new ErrorLogLimiter(errorWindowMillis, errorsPerWindow);
+    }
+
     @Override
     public void process(Exchange exchange) throws Exception {
         Exception cause = exchange.getProperty(Exchange.EXCEPTION_CAUGHT, Exception.class);
@@ -29,39 +48,26 @@ public class GlobalExceptionHandler implements Processor {
         if (cause != null) {
             errorMessage = cause.getMessage();
 
-            // Identify error type and location
+            // Identify error type
             if (isSSLError(cause)) {
                 errorType = "SSL_CERTIFICATE_ERROR";
                 statusCode = 502;
-                log.error("═══════════════════════════════════════════════════════════");
-                log.error("SSL CERTIFICATE ERROR DETECTED!");
-                log.error("This is likely a Zscaler SSL inspection issue.");
-                log.error("Error occurred in: {}", identifyErrorLocation(exchange));
-                log.error("═══════════════════════════════════════════════════════════");
+            } else if (cause instanceof UpstreamUnavailableException unavailable) {
+                errorType = unavailable.getErrorType();
+                statusCode = 503;
+                exchange.getIn().setHeader("Retry-After", unavailable.getRetryAfterSeconds());
+            } else if (cause instanceof RejectedExecutionException) {
+                errorType = "OVERLOADED";
+                statusCode = 503;
             } else if (cause instanceof IllegalArgumentException) {
                 errorType = "INVALID_REQUEST";
                 statusCode = 400;
-                log.error("Invalid request parameter: {}", errorMessage);
             } else if (cause instanceof IllegalStateException) {
                 errorType = "SERVICE_ERROR";
                 statusCode = 502;
-                log.error("Upstream service error: {}", errorMessage);
             }
 
-            // Log full error details
-            log.error("┌─────────────────────────────────────────────────────────┐");
-            log.error("│ ORCHESTRATION ERROR                                     │");
-            log.error("├─────────────────────────────────────────────────────────┤");
-            log.error("│ Error Type    : {}", errorType);
-            log.error("│ Status Code   : {}", statusCode);
-            log.error("│ Error Message : {}", errorMessage);
-            log.error("│ Location      : {}", identifyErrorLocation(exchange));
-            log.error("│ Exchange ID   : {}", exchange.getExchangeId());
-            log.error("└─────────────────────────────────────────────────────────┘");
-
-            // Print full stack trace
-            log.error("Full stack trace:", cause);
-
+            logError(exchange, cause, errorType, statusCode, errorMessage);
         } else {
             log.error("Orchestration error with no exception details");
         }
@@ -77,6 +83,27 @@ public class GlobalExceptionHandler implements Processor {
         exchange.getIn().setHeader(Exchange.CONTENT_TYPE, "application/json");
     }
 
+    private void logError(Exchange exchange, Exception cause, String errorType, int statusCode, String errorMessage) {
+        ErrorLogLimiter.Decision decision = limiter.acquire(errorType, cause);
+        if (!decision.log()) {
+            return;
+        }
+
+        String hint = "SSL_CERTIFICATE_ERROR".equals(errorType) ? " hint=\"likely Zscaler SSL inspection\"" : "";
+        String suppressed = decision.suppressed() > 0 ? " suppressed=" + decision.suppressed() : "";
+
+        if (decision.fullStackTrace()) {
+            log.error("Orchestration error: type={} status={} location={} exchangeId={} stack={}{}{} message={}",
+                    errorType, statusCode, identifyErrorLocation(exchange), exchange.getExchangeId(),
+                    decision.signature(), suppressed, hint, errorMessage, cause);
+        } else {
+            log.error("Orchestration error: type={} status={} location={} exchangeId={} stack={} (seen before){}{}"
+                            + " message={}",
+                    errorType, statusCode, identifyErrorLocation(exchange), exchange.getExchangeId(),
+                    decision.signature(), suppressed, hint, errorMessage);
+        }
+    }
+
     private boolean isSSLError(Exception e) {
         Throwable current = e;
         while (current != null) {
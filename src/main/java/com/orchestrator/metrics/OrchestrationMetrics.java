@@ -0,0 +1,328 @@
+package com.orchestrator.metrics;
+
+import com.orchestrator.context.RequestContext;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.apache.camel.AsyncCallback;
+import org.apache.camel.AsyncProcessor;
+import org.apache.camel.Exchange;
+import org.apache.camel.Processor;
+import org.apache.camel.Route;
+import org.apache.camel.support.AsyncProcessorConverterHelper;
+import org.apache.camel.support.AsyncProcessorSupport;
+import org.apache.camel.support.SynchronizationAdapter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-endpoint orchestration metrics
+ *
+ * orchestrator.request          end-to-end time per exchange
+ * orchestrator.request.overhead time spent in the orchestrator itself (request minus auth and upstream)
+ * orchestrator.stage            time per stage: resolve, auth, payload_transform, upstream, response_transform
+ * orchestrator.request.bytes    caller request/response body sizes (direction=in|out); streamed
+ *                               responses are counted as they are read and recorded at EOF or close
+ *
+ * All meters are tagged with endpointName, method and outcome, where method is the
+ * caller's HTTP method, the same on every stage of a request (the upstream method
+ * follows from the endpoint). Meters are cached
+ * per tag combination so recording is a map lookup plus the meter update.
+ * Exchanges and stages are traced through OrchestrationTracing at the same points.
+ *
+ * Each completed exchange also writes one access-log line (logger com.orchestrator.access),
+ * and a sampled share of exchanges logs its stage timings (logger com.orchestrator.stage, DEBUG).
+ */
+@Component
+@RequiredArgsConstructor
+public class OrchestrationMetrics {
+
+    public static final String RESOLVE = "resolve";
+    public static final String AUTH = "auth";
+    public static final String PAYLOAD_TRANSFORM = "payload_transform";
+    public static final String UPSTREAM = "upstream";
+    public static final String RESPONSE_TRANSFORM = "response_transform";
+
+    private static final String EXTERNAL_NANOS = "metricsExternalNanos";
+    private static final String CALLER_METHOD = "metricsCallerMethod";
+    private static final String STAGE_LOG_SAMPLED = "stageLogSampled";
+    private static final String COUNTING_BODY = "metricsCountingBody";
+
+    private static final Logger ACCESS_LOG = LoggerFactory.getLogger("com.orchestrator.access");
+    private static final Logger STAGE_LOG = LoggerFactory.getLogger("com.orchestrator.stage");
+
+    private record TimerKey(String name, String endpointName, String method, String stage, String outcome) {
+    }
+
+    private record SummaryKey(String endpointName, String direction) {
+    }
+
+    private final MeterRegistry meterRegistry;
+    private final OrchestrationTracing tracing;
+
+    private final Map<TimerKey, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<SummaryKey, DistributionSummary> summaries = new ConcurrentHashMap<>();
+
+    @Value("${orchestrator.logging.stage-sample-rate:1.0}")
+    private double stageSampleRate;
+
+    /**
+     * Start measuring the exchange; records request time, overhead and sizes when it completes
+     * Usable directly as a route step: .process(metrics::begin)
+     */
+    public void begin(Exchange exchange) {
+        long start = System.nanoTime();
+        // Upstream calls later replace the HTTP_METHOD header with the upstream method
+        exchange.setProperty(CALLER_METHOD, method(exchange));
+        tracing.begin(exchange);
+        if (STAGE_LOG.isDebugEnabled() && ThreadLocalRandom.current().nextDouble() < stageSampleRate) {
+            exchange.setProperty(STAGE_LOG_SAMPLED, true);
+        }
+        exchange.getExchangeExtension().addOnCompletion(new SynchronizationAdapter() {
+            @Override
+            public void onAfterRoute(Route route, Exchange routed) {
+                // Leaving the consumer's route, before the servlet writes the response
+                if (route.getRouteId().equals(routed.getFromRouteId())
+                        && routed.getMessage().getBody() instanceof InputStream body
+                        && !(body instanceof CountingBody)) {
+                    CountingBody counting = new CountingBody(body, summary(endpointName(routed), "out"));
+                    routed.getMessage().setBody(counting);
+                    routed.setProperty(COUNTING_BODY, counting);
+                }
+            }
+
+            @Override
+            public void onDone(Exchange completed) {
+                long total = System.nanoTime() - start;
+                long external = completed.getProperty(EXTERNAL_NANOS, 0L, Long.class);
+                String endpointName = endpointName(completed);
+                String method = method(completed);
+                String outcome = outcome(completed);
+
+                timer("orchestrator.request", endpointName, method, "", outcome).record(total, TimeUnit.NANOSECONDS);
+                timer("orchestrator.request.overhead", endpointName, method, "", outcome)
+                        .record(Math.max(0, total - external), TimeUnit.NANOSECONDS);
+
+                byte[] in = RequestContext.of(completed).getBody();
+                if (in != null) {
+                    summary(endpointName, "in").record(in.length);
+                }
+                CountingBody counting = completed.getProperty(COUNTING_BODY, CountingBody.class);
+                long out;
+                if (counting != null && completed.getMessage().getBody() == counting) {
+                    out = counting.count(); // recorded by the stream itself
+                } else {
+                    out = responseBytes(completed);
+                    if (out >= 0) {
+                        summary(endpointName, "out").record(out);
+                    }
+                }
+
+                if (ACCESS_LOG.isInfoEnabled()) {
+                    ACCESS_LOG.info("endpoint={} method={} status={} outcome={} durationMs={} externalMs={}"
+                                    + " bytesIn={} bytesOut={} exchangeId={} traceId={}",
+                            endpointName, method,
+                            completed.getMessage().getHeader(Exchange.HTTP_RESPONSE_CODE, 200, Integer.class),
+                            outcome, TimeUnit.NANOSECONDS.toMillis(total), TimeUnit.NANOSECONDS.toMillis(external),
+                            in != null ? in.length : 0, out, completed.getExchangeId(), tracing.traceId(completed));
+                }
+            }
+        });
+    }
+
+    /**
+     * Wrap a processor so its execution is recorded as a stage
+     * Asynchronous processors are timed until their callback fires.
+     */
+    public AsyncProcessor stage(String stage, Processor processor) {
+        AsyncProcessor delegate = tracing.stage(stage, AsyncProcessorConverterHelper.convert(processor));
+        boolean external = AUTH.equals(stage) || UPSTREAM.equals(stage);
+
+        return new AsyncProcessorSupport() {
+            @Override
+            public boolean process(Exchange exchange, AsyncCallback callback) {
+                long start = System.nanoTime();
+                String method = method(exchange);
+                return delegate.process(exchange, doneSync -> {
+                    long elapsed = System.nanoTime() - start;
+                    if (external) {
+                        long previous = exchange.getProperty(EXTERNAL_NANOS, 0L, Long.class);
+                        exchange.setProperty(EXTERNAL_NANOS, previous + elapsed);
+                    }
+                    String outcome = outcome(exchange);
+                    timer("orchestrator.stage", endpointName(exchange), method, stage, outcome)
+                            .record(elapsed, TimeUnit.NANOSECONDS);
+                    if (exchange.getProperty(STAGE_LOG_SAMPLED, false, Boolean.class)) {
+                        STAGE_LOG.debug("stage={} endpoint={} outcome={} durationUs={} exchangeId={}",
+                                stage, endpointName(exchange), outcome, TimeUnit.NANOSECONDS.toMicros(elapsed),
+                                exchange.getExchangeId());
+                    }
+                    callback.done(doneSync);
+                });
+            }
+
+            @Override
+            public String toString() {
+                return "Timed[" + stage + "]";
+            }
+        };
+    }
+
+    private Timer timer(String name, String endpointName, String method, String stage, String outcome) {
+        return timers.computeIfAbsent(new TimerKey(name, endpointName, method, stage, outcome), key -> {
+            Timer.Builder builder = Timer.builder(key.name())
+                    .tag("endpointName", key.endpointName())
+                    .tag("method", key.method())
+                    .tag("outcome", key.outcome());
+            if (!key.stage().isEmpty()) {
+                builder.tag("stage", key.stage());
+            }
+            return builder.register(meterRegistry);
+        });
+    }
+
+    private DistributionSummary summary(String endpointName, String direction) {
+        return summaries.computeIfAbsent(new SummaryKey(endpointName, direction), key ->
+                DistributionSummary.builder("orchestrator.request.bytes")
+                        .baseUnit("bytes")
+                        .tag("endpointName", key.endpointName())
+                        .tag("direction", key.direction())
+                        .register(meterRegistry));
+    }
+
+    private static String endpointName(Exchange exchange) {
+        return exchange.getProperty("endpointName", "unknown", String.class);
+    }
+
+    /**
+     * The caller's HTTP method, as captured by begin
+     */
+    private static String method(Exchange exchange) {
+        String method = exchange.getProperty(CALLER_METHOD, String.class);
+        if (method != null) {
+            return method;
+        }
+        return exchange.getMessage().getHeader(Exchange.HTTP_METHOD, "POST", String.class).toUpperCase(Locale.ROOT);
+    }
+
+    private static String outcome(Exchange exchange) {
+        if (exchange.getException() != null || exchange.getProperty(Exchange.EXCEPTION_CAUGHT) != null) {
+            return "error";
+        }
+        Integer status = exchange.getMessage().getHeader(Exchange.HTTP_RESPONSE_CODE, Integer.class);
+        return status != null && status >= 400 ? "error" : "success";
+    }
+
+    /**
+     * Size of a buffered response body, -1 when streamed and not known up front
+     */
+    private static long responseBytes(Exchange exchange) {
+        Object body = exchange.getMessage().getBody();
+        if (body instanceof byte[] bytes) {
+            return bytes.length;
+        }
+        if (body instanceof String text) {
+            return utf8Length(text);
+        }
+        Long contentLength = exchange.getMessage().getHeader("Content-Length", Long.class);
+        return contentLength != null ? contentLength : -1;
+    }
+
+    /**
+     * Bytes of the UTF-8 encoding, without encoding it
+     */
+    static long utf8Length(CharSequence text) {
+        long bytes = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                bytes++;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < text.length()
+                    && Character.isLowSurrogate(text.charAt(i + 1))) {
+                bytes += 4;
+                i++;
+            } else {
+                bytes += 3;
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Streamed response body counting the bytes read from it; records them once, at EOF or close
+     */
+    static final class CountingBody extends FilterInputStream {
+
+        private final DistributionSummary summary;
+        private long count;
+        private boolean recorded;
+
+        CountingBody(InputStream in, DistributionSummary summary) {
+            super(in);
+            this.summary = summary;
+        }
+
+        long count() {
+            return count;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b < 0) {
+                record();
+            } else {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n < 0) {
+                record();
+            } else {
+                count += n;
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                record();
+            }
+        }
+
+        private void record() {
+            if (!recorded) {
+                recorded = true;
+                summary.record(count);
+            }
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.orchestrator.metrics;
+
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.propagation.TextMapGetter;
+import io.opentelemetry.context.propagation.TextMapSetter;
+import org.apache.camel.AsyncCallback;
+import org.apache.camel.AsyncProcessor;
+import org.apache.camel.Exchange;
+import org.apache.camel.support.AsyncProcessorSupport;
+import org.apache.camel.support.SynchronizationAdapter;
+import org.springframework.stereotype.Component;
+
+/**
+ * OpenTelemetry spans for orchestration exchanges
+ *
+ * One SERVER span per exchange, continuing the caller's traceparent, with a
+ * child span per stage. Spans are parented explicitly through the exchange
+ * rather than the thread-local context, since stages may complete on another
+ * thread. The upstream stage writes its own traceparent onto the outgoing call.
+ */
+@Component
+public class OrchestrationTracing {
+
+    private static final String SPAN = "otelSpan";
+
+    private static final TextMapGetter<Exchange> HEADER_GETTER = new TextMapGetter<>() {
+        @Override
+        public Iterable<String> keys(Exchange exchange) {
+            return exchange.getIn().getHeaders().keySet();
+        }
+
+        @Override
+        public String get(Exchange exchange, String key) {
+            return exchange == null ? null : exchange.getIn().getHeader(key, String.class);
+        }
+    };
+
+    private static final TextMapSetter<Exchange> HEADER_SETTER =
+            (exchange, key, value) -> exchange.getIn().setHeader(key, value);
+
+    private final OpenTelemetry openTelemetry;
+    private final Tracer tracer;
+
+    public OrchestrationTracing(OpenTelemetry openTelemetry) {
+        this.openTelemetry = openTelemetry;
+        this.tracer = openTelemetry.getTracer("com.orchestrator");
+    }
+
+    /**
+     * Start the exchange span; ended when the exchange completes
+     */
+    public void begin(Exchange exchange) {
+        Context parent = openTelemetry.getPropagators().getTextMapPropagator()
+                .extract(Context.root(), exchange, HEADER_GETTER);
+        Span span = tracer.spanBuilder("orchestrate")
+                .setParent(parent)
+                .setSpanKind(SpanKind.SERVER)
+                .startSpan();
+        if (!span.getSpanContext().isValid()) {
+            return;
+        }
+        exchange.setProperty(SPAN, span);
+
+        exchange.getExchangeExtension().addOnCompletion(new SynchronizationAdapter() {
+            @Override
+            public void onDone(Exchange completed) {
+                String endpointName = completed.getProperty("endpointName", "unknown", String.class);
+                span.updateName("orchestrate " + endpointName);
+                span.setAttribute("orchestrator.endpoint", endpointName);
+                Integer status = completed.getMessage().getHeader(Exchange.HTTP_RESPONSE_CODE, Integer.class);
+                if (status != null) {
+                    span.setAttribute("http.response.status_code", status);
+                }
+                Object failure = completed.getException() != null
+                        ? completed.getException() : completed.getProperty(Exchange.EXCEPTION_CAUGHT);
+                if (failure instanceof Throwable throwable) {
+                    span.recordException(throwable);
+                    span.setStatus(StatusCode.ERROR);
+                } else if (status != null && status >= 500) {
+                    span.setStatus(StatusCode.ERROR);
+                }
+                span.end();
+            }
+        });
+    }
+
+    /**
+     * Trace ID of the exchange span, "-" when the exchange is not traced
+     */
+    public String traceId(Exchange exchange) {
+        Span span = exchange.getProperty(SPAN, Span.class);
+        return span != null ? span.getSpanContext().getTraceId() : "-";
+    }
+
+    /**
+     * Wrap a stage in a child span of the exchange span
+     * Stages of exchanges without a span (not sampled, not begun) run untraced.
+     */
+    public AsyncProcessor stage(String stage, AsyncProcessor delegate) {
+        SpanKind kind = OrchestrationMetrics.UPSTREAM.equals(stage) || OrchestrationMetrics.AUTH.equals(stage)
+                ? SpanKind.CLIENT : SpanKind.INTERNAL;
+        boolean propagate = OrchestrationMetrics.UPSTREAM.equals(stage);
+
+        return new AsyncProcessorSupport() {
+            @Override
+            public boolean process(Exchange exchange, AsyncCallback callback) {
+                Span parent = exchange.getProperty(SPAN, Span.class);
+                if (parent == null) {
+                    return delegate.process(exchange, callback);
+                }
+
+                Span span = tracer.spanBuilder(stage)
+                        .setParent(Context.root().with(parent))
+                        .setSpanKind(kind)
+                        .startSpan();
+                if (propagate) {
+                    span.setAttribute("http.request.method",
+                            exchange.getIn().getHeader(Exchange.HTTP_METHOD, "GET", String.class));
+                    openTelemetry.getPropagators().getTextMapPropagator()
+                            .inject(Context.root().with(span), exchange, HEADER_SETTER);
+                }
+
+                return delegate.process(exchange, doneSync -> {
+                    if (propagate) {
+                        // Ours, not the caller's: do not echo them in the response
+                        exchange.getMessage().removeHeader("traceparent");
+                        exchange.getMessage().removeHeader("tracestate");
+                    }
+                    if (exchange.getException() != null) {
+                        span.recordException(exchange.getException());
+                        span.setStatus(StatusCode.ERROR);
+                    }
+                    span.end();
+                    callback.done(doneSync);
+                });
+            }
+
+            @Override
+            public String toString() {
+                return "Traced[" + stage + "]";
+            }
+        };
+    }
+}
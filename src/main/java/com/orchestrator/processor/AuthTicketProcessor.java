@@ -0,0 +1,52 @@
+package com.orchestrator.processor;
+
+import com.orchestrator.auth.AuthTicketManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.camel.Exchange;
+import org.apache.camel.Processor;
+import org.apache.camel.http.base.HttpOperationFailedException;
+import org.apache.camel.support.SynchronizationAdapter;
+import org.springframework.stereotype.Component;
+
+/**
+ * Processor to attach the shared OTCS ticket to the exchange
+ * Invalidates the cached ticket when Content Server rejects it with 401
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AuthTicketProcessor implements Processor {
+
+    private final AuthTicketManager ticketManager;
+
+    @Override
+    public void process(Exchange exchange) throws Exception {
+        String ticket = ticketManager.getTicket();
+        exchange.setProperty("authToken", ticket);
+
+        exchange.getExchangeExtension().addOnCompletion(new SynchronizationAdapter() {
+            @Override
+            public void onDone(Exchange completed) {
+                invalidateIfRejected(completed, ticket);
+            }
+        });
+
+        log.debug("Using cached auth ticket");
+    }
+
+    /**
+     * Invalidate the ticket if the completed exchange failed with 401
+     * For exchanges that did not attach the ticket themselves, e.g. batch items.
+     */
+    public void invalidateIfRejected(Exchange completed, String ticket) {
+        if (isUnauthorized(completed.getException())
+                || isUnauthorized(completed.getProperty(Exchange.EXCEPTION_CAUGHT))) {
+            ticketManager.invalidate(ticket);
+        }
+    }
+
+    private boolean isUnauthorized(Object cause) {
+        return cause instanceof HttpOperationFailedException failure && failure.getStatusCode() == 401;
+    }
+}
@@ -2,18 +2,24 @@ package com.orchestrator.processor;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.orchestrator.stream.Base64Envelope;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.camel.Exchange;
 import org.apache.camel.Processor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.io.InputStream;
 import java.time.Instant;
 import java.util.Base64;
 
 /**
  * Processor to convert binary file content to base64 and add metadata
  * Extracts content-type, filename, and size from response headers
+ *
+ * In streaming mode the upstream InputStream is encoded chunk by chunk while the
+ * servlet writes the response, so heap use does not grow with the file size.
  */
 @Slf4j
 @Component
@@ -22,8 +28,16 @@ public class BinaryToBase64Processor implements Processor {
 
     private final ObjectMapper objectMapper;
 
+    @Value("${orchestrator.download.streaming:true}")
+    private boolean streaming;
+
     @Override
     public void process(Exchange exchange) throws Exception {
+        if (streaming) {
+            processStreaming(exchange);
+            return;
+        }
+
         // Get binary content from response body
         byte[] binaryContent = exchange.getIn().getBody(byte[].class);
 
@@ -31,7 +45,7 @@ public class BinaryToBase64Processor implements Processor {
             throw new IllegalStateException("No binary content received from server");
         }
 
-        log.info("Received binary content, size: {} bytes", binaryContent.length);
+        log.debug("Received binary content, size: {} bytes", binaryContent.length);
 
         // Encode to base64
         String base64Content = Base64.getEncoder().encodeToString(binaryContent);
@@ -57,12 +71,51 @@ public class BinaryToBase64Processor implements Processor {
         response.put("base64Content", base64Content);
         response.put("timestamp", Instant.now().toString());
 
-        log.info("File content converted to base64 successfully");
+        log.debug("File content converted to base64 successfully");
         log.debug("Metadata - fileName: {}, contentType: {}, size: {} bytes",
                 fileName, contentType, binaryContent.length);
 
         // Set response
-        exchange.getIn().setBody(objectMapper.writeValueAsString(response));
+        exchange.getIn().setBody(objectMapper.writeValueAsBytes(response));
+        exchange.getIn().setHeader(Exchange.CONTENT_TYPE, "application/json");
+        exchange.getIn().setHeader(Exchange.HTTP_RESPONSE_CODE, 200);
+    }
+
+    /**
+     * Stream the upstream body through a base64 encoder into the JSON envelope
+     */
+    private void processStreaming(Exchange exchange) throws Exception {
+        InputStream content = exchange.getIn().getBody(InputStream.class);
+        Long contentLength = exchange.getIn().getHeader("Content-Length", Long.class);
+
+        if (content == null || (contentLength != null && contentLength == 0)) {
+            throw new IllegalStateException("No binary content received from server");
+        }
+
+        String contentType = exchange.getIn().getHeader("Content-Type", String.class);
+        String contentDisposition = exchange.getIn().getHeader("Content-Disposition", String.class);
+        String nodeId = exchange.getProperty("nodeId", String.class);
+
+        String fileName = extractFileName(contentDisposition);
+        if (fileName == null || fileName.isEmpty()) {
+            fileName = "node_" + nodeId; // Fallback filename
+        }
+
+        ObjectNode metadata = objectMapper.createObjectNode();
+        metadata.put("status", "success");
+        metadata.put("nodeId", nodeId);
+        metadata.put("fileName", fileName);
+        metadata.put("contentType", contentType != null ? contentType : "application/octet-stream");
+        if (contentLength != null) {
+            metadata.put("sizeBytes", contentLength);
+        }
+
+        log.debug("Streaming binary content as base64, upstream size: {} bytes",
+                contentLength != null ? contentLength : "unknown");
+
+        exchange.getIn().setBody(Base64Envelope.open(objectMapper, metadata, content));
+        // Upstream length no longer applies, the envelope is sent chunked
+        exchange.getIn().removeHeader("Content-Length");
         exchange.getIn().setHeader(Exchange.CONTENT_TYPE, "application/json");
         exchange.getIn().setHeader(Exchange.HTTP_RESPONSE_CODE, 200);
     }
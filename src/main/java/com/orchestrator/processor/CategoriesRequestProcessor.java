@@ -2,6 +2,7 @@ package com.orchestrator.processor;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.orchestrator.context.RequestContext;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.camel.Exchange;
@@ -28,8 +29,7 @@ public class CategoriesRequestProcessor implements Processor {
     @Override
     public void process(Exchange exchange) throws Exception {
         String token = exchange.getProperty("authToken", String.class);
-        String requestBody = exchange.getProperty("originalRequest", String.class);
-        JsonNode requestJson = objectMapper.readTree(requestBody);
+        JsonNode requestJson = RequestContext.of(exchange).json(objectMapper);
 
         // Get required 'id' parameter
         if (!requestJson.has("id")) {
@@ -76,6 +76,6 @@ public class CategoriesRequestProcessor implements Processor {
         // Store URL for dynamic routing
         exchange.setProperty("targetUrl", fullUrl);
 
-        log.info("Prepared GET request to: {}", fullUrl);
+        log.debug("Prepared GET request to: {}", fullUrl);
     }
 }
@@ -1,6 +1,7 @@
 package com.orchestrator.processor;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.orchestrator.context.RequestContext;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.camel.Exchange;
@@ -26,9 +27,8 @@ public class FileDownloadRequestProcessor implements Processor {
             throw new IllegalStateException("Auth token not found in exchange");
         }
 
-        // Get the original request body
-        String requestBody = exchange.getProperty("originalRequest", String.class);
-        var jsonRequest = objectMapper.readTree(requestBody);
+        // Get the parsed caller payload
+        var jsonRequest = RequestContext.of(exchange).json(objectMapper);
 
         // Extract node ID
         String nodeId = jsonRequest.path("id").asText();
@@ -42,19 +42,24 @@ public class FileDownloadRequestProcessor implements Processor {
         // Build the content download URL
         String contentUrl = targetEndpoint + "/v2/nodes/" + nodeId + "/content";
 
-        log.info("Preparing file download request for node: {}", nodeId);
+        log.debug("Preparing file download request for node: {}", nodeId);
         log.debug("Content URL: {}", contentUrl);
 
         // Set the URL as exchange property for the route
         exchange.setProperty("contentUrl", contentUrl);
         exchange.setProperty("nodeId", nodeId);
 
+        // Consumed by UpstreamCallProcessor
+        exchange.setProperty("targetUrl", contentUrl);
+        exchange.setProperty("streamResponse", Boolean.parseBoolean(
+                exchange.getContext().resolvePropertyPlaceholders("{{orchestrator.download.streaming:true}}")));
+
         // Set headers for binary content download
         exchange.getIn().setHeader("OTCSTicket", token);
         exchange.getIn().setHeader(Exchange.HTTP_METHOD, "GET");
         exchange.getIn().setHeader("Accept", "*/*"); // Accept any content type
         exchange.getIn().setBody(null); // GET request has no body
 
-        log.info("File download request prepared successfully");
+        log.debug("File download request prepared successfully");
     }
 }
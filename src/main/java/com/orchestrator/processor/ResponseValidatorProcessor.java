@@ -20,11 +20,14 @@ public class ResponseValidatorProcessor implements Processor {
 
     @Override
     public void process(Exchange exchange) throws Exception {
-        String response = exchange.getIn().getBody(String.class);
+        byte[] response = exchange.getIn().getBody(byte[].class);
         log.debug("Validating response structure");
 
         JsonNode responseJson = objectMapper.readTree(response);
 
+        // Keep the bytes as the body so the stream is not read twice
+        exchange.getIn().setBody(response);
+
         if (!responseJson.has("links")) {
             log.warn("Response missing 'links' field");
         }
@@ -32,6 +35,6 @@ public class ResponseValidatorProcessor implements Processor {
             log.warn("Response missing 'results' field");
         }
 
-        log.info("Response validation completed");
+        log.debug("Response validation completed");
     }
 }
@@ -20,7 +20,7 @@ public class TokenExtractorProcessor implements Processor {
 
     @Override
     public void process(Exchange exchange) throws Exception {
-        String responseBody = exchange.getIn().getBody(String.class);
+        byte[] responseBody = exchange.getIn().getBody(byte[].class);
         log.debug("Auth response received");
 
         JsonNode jsonResponse = objectMapper.readTree(responseBody);
@@ -37,7 +37,7 @@ public class TokenExtractorProcessor implements Processor {
 
         // Store token in exchange property for next step
         exchange.setProperty("authToken", token);
-        log.info("Successfully obtained auth token: {}...",
+        log.debug("Successfully obtained auth token: {}...",
                 token.substring(0, Math.min(10, token.length())));
     }
 }
@@ -0,0 +1,169 @@
+package com.orchestrator.processor;
+
+import com.orchestrator.config.model.HedgeConfig;
+import com.orchestrator.config.plan.EndpointPlan;
+import com.orchestrator.upstream.ConcurrencyLimiter;
+import com.orchestrator.upstream.RequestCoalescer;
+import com.orchestrator.upstream.RequestHedger;
+import com.orchestrator.upstream.UpstreamGroup;
+import com.orchestrator.upstream.UpstreamGuard;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.camel.AsyncCallback;
+import org.apache.camel.CamelContext;
+import org.apache.camel.Endpoint;
+import org.apache.camel.Exchange;
+import org.apache.camel.spi.ProducerCache;
+import org.apache.camel.support.AsyncProcessorSupport;
+import org.apache.camel.support.cache.DefaultProducerCache;
+import org.apache.camel.support.service.ServiceHelper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Processor that performs the outbound HTTP call to Content Server
+ *
+ * Sends the exchange to exchangeProperty.targetUrl. Identical concurrent GETs
+ * (same method, URL and ticket) are coalesced into one upstream call; streamed
+ * responses are never shared since their body can only be read once.
+ *
+ * Buffered calls go through the non-blocking vertx-http producer: the calling
+ * thread is released while the request is in flight and the route resumes on
+ * a Vert.x event loop thread when the response arrives. Streamed responses
+ * stay on camel-http, which hands the body to the servlet as an InputStream;
+ * so do streamed uploads, whose request body is written while it is read.
+ *
+ * Every call that goes out is subject to the circuit breaker and bulkhead of
+ * its upstream group and then to the adaptive concurrency limit of its target
+ * host; coalesced followers do not count, they make no call. Slow calls of
+ * endpoints with a hedge block are hedged with a second identical call.
+ *
+ * There is one static endpoint per target host (and transport); the request
+ * path and query travel in the HTTP_PATH/HTTP_QUERY headers, so the number of
+ * endpoints and producers does not grow with the number of distinct URLs.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UpstreamCallProcessor extends AsyncProcessorSupport {
+
+    private static final String HTTP_OPTIONS = "bridgeEndpoint=true&throwExceptionOnFailure=true";
+    private static final String ASYNC_OPTIONS = "throwExceptionOnFailure=true&webClientOptions=#upstreamWebClientOptions";
+
+    private static final int PRODUCER_CACHE_SIZE = 32;
+
+    private final CamelContext camelContext;
+    private final RequestCoalescer requestCoalescer;
+    private final UpstreamGuard upstreamGuard;
+    private final ConcurrencyLimiter concurrencyLimiter;
+    private final RequestHedger requestHedger;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${orchestrator.upstream.async:true}")
+    private boolean async;
+
+    @Value("${camel.component.http.socket-timeout:30000}")
+    private long timeoutMillis;
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+    private ProducerCache producerCache;
+
+    @PostConstruct
+    public void init() {
+        producerCache = new DefaultProducerCache(this, camelContext, PRODUCER_CACHE_SIZE);
+        ServiceHelper.startService(producerCache);
+
+        Gauge.builder("orchestrator.upstream.endpoints", endpoints, Map::size)
+                .description("Static upstream endpoints (one per target host and transport)")
+                .register(meterRegistry);
+        Gauge.builder("orchestrator.camel.endpoints", camelContext, context -> context.getEndpointRegistry().size())
+                .description("Endpoints live in the Camel endpoint registry")
+                .register(meterRegistry);
+
+        log.info("Upstream transport: {}", async ? "vertx-http (non-blocking)" : "camel-http (blocking)");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ServiceHelper.stopService(producerCache);
+    }
+
+    @Override
+    public boolean process(Exchange exchange, AsyncCallback callback) {
+        String targetUrl = exchange.getProperty("targetUrl", String.class);
+        boolean streaming = exchange.getProperty("streamResponse", false, Boolean.class);
+        boolean streamRequest = exchange.getProperty("streamRequest", false, Boolean.class);
+        String method = exchange.getIn().getHeader(Exchange.HTTP_METHOD, "GET", String.class);
+
+        Endpoint endpoint;
+        try {
+            endpoint = resolve(exchange, URI.create(targetUrl), streaming, streamRequest);
+        } catch (Exception e) {
+            exchange.setException(e);
+            callback.done(true);
+            return true;
+        }
+
+        String host = URI.create(targetUrl).getRawAuthority();
+        if (streaming || !"GET".equalsIgnoreCase(method)) {
+            return send(host, endpoint, exchange, callback);
+        }
+
+        // Range requests for different parts of one URL are different calls
+        String key = method + " " + targetUrl + " " + exchange.getIn().getHeader("OTCSTicket", "", String.class)
+                + " " + exchange.getIn().getHeader("Range", "", String.class);
+        EndpointPlan plan = exchange.getProperty("endpointPlan", EndpointPlan.class);
+        HedgeConfig hedge = plan != null ? plan.getConfig().getHedge() : null;
+        return requestCoalescer.execute(key, exchange, callback, (ex, done) -> hedge == null
+                ? send(host, endpoint, ex, done)
+                : requestHedger.execute(plan.getName(), hedge, ex, done,
+                        (attempt, attemptDone) -> send(host, endpoint, attempt, attemptDone)));
+    }
+
+    private boolean send(String host, Endpoint endpoint, Exchange exchange, AsyncCallback callback) {
+        // Guarded once admitted: a queued call holds no bulkhead permit and its wait is not a slow call
+        return concurrencyLimiter.execute(host, exchange, callback,
+                (limited, done) -> upstreamGuard.execute(UpstreamGroup.of(limited), limited, done,
+                        (guarded, guardedDone) -> producerCache.doInAsyncProducer(endpoint, guarded, guardedDone,
+                                (producer, ex, producerDone) -> producer.process(ex, producerDone))));
+    }
+
+    /**
+     * Route the exchange to the static endpoint of the target host
+     * Path and query go into headers, replacing the ones the servlet consumer set from the caller's request.
+     */
+    private Endpoint resolve(Exchange exchange, URI target, boolean streaming, boolean streamRequest) {
+        if (target.getScheme() == null || target.getRawAuthority() == null) {
+            throw new IllegalArgumentException("Target URL must be absolute: " + target);
+        }
+
+        exchange.getIn().removeHeader(Exchange.HTTP_URI);
+        exchange.getIn().removeHeader(Exchange.HTTP_URL);
+        exchange.getIn().setHeader(Exchange.HTTP_PATH, target.getRawPath());
+        if (target.getRawQuery() != null) {
+            exchange.getIn().setHeader(Exchange.HTTP_QUERY, target.getRawQuery());
+            exchange.getIn().setHeader(Exchange.HTTP_RAW_QUERY, target.getRawQuery());
+        } else {
+            exchange.getIn().removeHeader(Exchange.HTTP_QUERY);
+            exchange.getIn().removeHeader(Exchange.HTTP_RAW_QUERY);
+        }
+
+        String origin = target.getScheme() + "://" + target.getRawAuthority();
+        String endpointUri = !async || streaming || streamRequest
+                ? origin + "?" + HTTP_OPTIONS + (streaming ? "&disableStreamCache=true" : "")
+                : "vertx-http:" + origin + "?" + ASYNC_OPTIONS + "&timeout=" + timeoutMillis;
+
+        return endpoints.computeIfAbsent(endpointUri, uri -> {
+            log.info("Creating upstream endpoint: {}", uri);
+            return camelContext.getEndpoint(uri);
+        });
+    }
+}
@@ -0,0 +1,172 @@
+package com.orchestrator.processor.dynamic;
+
+import com.orchestrator.cache.ContentCache;
+import com.orchestrator.cache.ResponseCache;
+import com.orchestrator.config.model.ContentCacheConfig;
+import com.orchestrator.config.plan.EndpointPlan;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.camel.AsyncCallback;
+import org.apache.camel.Exchange;
+import org.apache.camel.http.base.HttpOperationFailedException;
+import org.apache.camel.support.AsyncProcessorSupport;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.NoSuchFileException;
+
+/**
+ * Upstream call of content endpoints backed by the disk content cache
+ *
+ * Immutable content (version content) is served from disk without calling
+ * Content Server. Other cached content is revalidated: the call carries
+ * If-None-Match / If-Modified-Since and a 304 serves the cached copy, so a hit
+ * costs one round trip instead of the transfer. Full 200 answers are written
+ * to the cache while they stream to the caller. Caller Range requests bypass it.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ContentCacheProcessor extends AsyncProcessorSupport {
+
+    private final ParallelDownloadProcessor parallelDownloadProcessor;
+    private final ContentCache contentCache;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${orchestrator.cache.identity-header:Authorization}")
+    private String identityHeader;
+
+    private Counter hits;
+    private Counter revalidated;
+    private Counter misses;
+
+    @PostConstruct
+    public void init() {
+        hits = counter("hit");
+        revalidated = counter("revalidated");
+        misses = counter("miss");
+    }
+
+    @Override
+    public boolean process(Exchange exchange, AsyncCallback callback) {
+        EndpointPlan plan = exchange.getProperty("endpointPlan", EndpointPlan.class);
+        ContentCacheConfig config = plan != null ? plan.getConfig().getContentCache() : null;
+        if (config == null || !contentCache.isEnabled() || exchange.getIn().getHeader("Range") != null) {
+            return parallelDownloadProcessor.process(exchange, callback);
+        }
+
+        ResponseCache.Key key = contentCache.keyFor(
+                exchange.getProperty("nodeId", String.class),
+                exchange.getProperty("targetUrl", String.class),
+                exchange.getIn().getHeader(identityHeader, String.class));
+        ContentCache.Entry entry = contentCache.get(key);
+        // Opened up front: the blob can be evicted at any time, an open one stays readable
+        InputStream cached = entry != null ? open(key, entry) : null;
+        if (cached == null) {
+            entry = null;
+        }
+
+        if (entry != null && config.isImmutable()) {
+            hits.increment();
+            serve(exchange, entry, cached);
+            callback.done(true);
+            return true;
+        }
+        if (entry != null) {
+            if (entry.etag() != null) {
+                exchange.getIn().setHeader("If-None-Match", entry.etag());
+            }
+            if (entry.lastModified() != null) {
+                exchange.getIn().setHeader("If-Modified-Since", entry.lastModified());
+            }
+        }
+
+        ContentCache.Entry revalidating = entry;
+        return parallelDownloadProcessor.process(exchange, doneSync -> {
+            exchange.getIn().removeHeader("If-None-Match");
+            exchange.getIn().removeHeader("If-Modified-Since");
+
+            if (revalidating != null && exchange.getException() instanceof HttpOperationFailedException failure
+                    && failure.getStatusCode() == 304) {
+                exchange.setException(null);
+                revalidated.increment();
+                serve(exchange, revalidating, cached);
+                callback.done(doneSync);
+                return;
+            }
+            close(cached);
+            if (exchange.getException() == null
+                    && exchange.getIn().getHeader(Exchange.HTTP_RESPONSE_CODE, 200, Integer.class) == 200
+                    && exchange.getIn().getBody() instanceof InputStream upstream) {
+                misses.increment();
+                exchange.getIn().setBody(contentCache.fill(key, upstream, new ContentCache.Entry(null,
+                        exchange.getIn().getHeader("Content-Length", -1L, Long.class),
+                        exchange.getIn().getHeader(Exchange.CONTENT_TYPE, String.class),
+                        exchange.getIn().getHeader("Content-Disposition", String.class),
+                        exchange.getIn().getHeader("ETag", String.class),
+                        exchange.getIn().getHeader("Last-Modified", String.class))));
+            }
+            callback.done(doneSync);
+        });
+    }
+
+    /**
+     * Open the cached content, or null to fetch it from Content Server instead
+     */
+    private InputStream open(ResponseCache.Key key, ContentCache.Entry entry) {
+        try {
+            return contentCache.open(entry);
+        } catch (NoSuchFileException e) {
+            // Evicted between the lookup and now
+            contentCache.invalidate(key);
+            log.debug("Cached content {} was evicted, fetching it again", entry.hash());
+        } catch (IOException e) {
+            log.warn("Cached content {} could not be read, fetching it again: {}", entry.hash(), e.getMessage());
+        }
+        return null;
+    }
+
+    /**
+     * Answer from the cached copy as if Content Server had sent it
+     */
+    private void serve(Exchange exchange, ContentCache.Entry entry, InputStream content) {
+        exchange.getIn().setBody(content);
+        exchange.getIn().setHeader(Exchange.HTTP_RESPONSE_CODE, 200);
+        exchange.getIn().setHeader("Content-Length", entry.size());
+        setOrRemove(exchange, Exchange.CONTENT_TYPE, entry.contentType());
+        setOrRemove(exchange, "Content-Disposition", entry.contentDisposition());
+        setOrRemove(exchange, "ETag", entry.etag());
+        setOrRemove(exchange, "Last-Modified", entry.lastModified());
+        log.debug("Serving {} bytes of cached content {}", entry.size(), entry.hash());
+    }
+
+    private static void close(InputStream content) {
+        if (content != null) {
+            try {
+                content.close();
+            } catch (IOException e) {
+                // read-only file channel, nothing to recover
+            }
+        }
+    }
+
+    private static void setOrRemove(Exchange exchange, String header, String value) {
+        if (value != null) {
+            exchange.getIn().setHeader(header, value);
+        } else {
+            exchange.getIn().removeHeader(header);
+        }
+    }
+
+    private Counter counter(String result) {
+        return Counter.builder("orchestrator.content.cache.requests")
+                .description("Content cache lookups by result")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
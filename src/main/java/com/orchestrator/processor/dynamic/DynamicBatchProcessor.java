@@ -0,0 +1,235 @@
+package com.orchestrator.processor.dynamic;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.orchestrator.auth.AuthTicketManager;
+import com.orchestrator.config.EndpointConfigLoader;
+import com.orchestrator.context.RequestContext;
+import com.orchestrator.processor.AuthTicketProcessor;
+import com.orchestrator.stream.NdjsonInputStream;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.camel.CamelContext;
+import org.apache.camel.Exchange;
+import org.apache.camel.Processor;
+import org.apache.camel.ProducerTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Executes a batch of dynamic endpoint calls: [{endpointName, payload}, ...]
+ *
+ * Authenticates once up front, then runs each item through the
+ * regular dynamic execution route with at most 'parallelism' items in flight.
+ * Results are returned in request order with a status per item, either as one
+ * JSON document or, with Accept: application/x-ndjson, streamed one line per
+ * item as results become available. Each item takes the current ticket, and
+ * a 401 on an item invalidates it, so a ticket rejected mid-batch is replaced.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DynamicBatchProcessor implements Processor {
+
+    public static final String ITEM_ROUTE = "direct:dynamicBatchItem";
+    private static final String NDJSON = "application/x-ndjson";
+
+    private final ObjectMapper objectMapper;
+    private final ProducerTemplate producerTemplate;
+    private final CamelContext camelContext;
+    private final EndpointConfigLoader configLoader;
+    private final AuthTicketProcessor authTicketProcessor;
+    private final AuthTicketManager ticketManager;
+
+    @Value("${orchestrator.batch.max-items:1000}")
+    private int maxItems;
+
+    @Value("${orchestrator.batch.parallelism:8}")
+    private int parallelism;
+
+    @Value("${orchestrator.batch.threads:32}")
+    private int threads;
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    public void init() {
+        executor = camelContext.getExecutorServiceManager().newFixedThreadPool(this, "DynamicBatch", threads);
+    }
+
+    @Override
+    public void process(Exchange exchange) throws Exception {
+        JsonNode items = RequestContext.of(exchange).json(objectMapper);
+
+        if (!items.isArray()) {
+            throw new IllegalArgumentException("Batch request must be a JSON array of {endpointName, payload} items");
+        }
+        if (items.isEmpty()) {
+            throw new IllegalArgumentException("Batch request has no items");
+        }
+        if (items.size() > maxItems) {
+            throw new IllegalArgumentException("Batch request exceeds the maximum of " + maxItems + " items");
+        }
+
+        // Fail the whole batch early when no ticket can be had
+        authTicketProcessor.process(exchange);
+
+        BatchRun run = new BatchRun(items, forwardedHeaders(exchange));
+        log.info("Executing batch of {} items, parallelism {}", items.size(), parallelism);
+
+        String accept = exchange.getIn().getHeader("Accept", String.class);
+        if (accept != null && accept.contains(NDJSON)) {
+            exchange.getIn().setBody(new NdjsonInputStream(objectMapper, run));
+            exchange.getIn().setHeader(Exchange.CONTENT_TYPE, NDJSON);
+        } else {
+            ArrayNode results = objectMapper.createArrayNode();
+            while (run.hasNext()) {
+                results.add(run.next());
+            }
+
+            ObjectNode response = objectMapper.createObjectNode();
+            response.put("status", "success");
+            response.put("count", results.size());
+            response.set("results", results);
+            response.put("timestamp", Instant.now().toString());
+
+            exchange.getIn().setBody(objectMapper.writeValueAsBytes(response));
+            exchange.getIn().setHeader(Exchange.CONTENT_TYPE, "application/json");
+        }
+        exchange.getIn().removeHeader("Content-Length");
+        exchange.getIn().setHeader(Exchange.HTTP_RESPONSE_CODE, 200);
+    }
+
+    /**
+     * Caller headers (e.g. identity used by the response cache) apply to every item
+     */
+    private Map<String, Object> forwardedHeaders(Exchange exchange) {
+        Map<String, Object> headers = new HashMap<>();
+        exchange.getIn().getHeaders().forEach((name, value) -> {
+            if (!name.startsWith("Camel") && !name.equalsIgnoreCase("Content-Length")
+                    && !name.equalsIgnoreCase("Content-Type") && !name.equalsIgnoreCase("Accept")
+                    && !name.equalsIgnoreCase("Transfer-Encoding")) {
+                headers.put(name, value);
+            }
+        });
+        return headers;
+    }
+
+    /**
+     * Execute one item through the dynamic execution route
+     * Never fails: errors become an item result with an error status
+     */
+    private JsonNode execute(int index, JsonNode item, Map<String, Object> headers) {
+        String endpointName = item.path("endpointName").asText("");
+        ObjectNode result = objectMapper.createObjectNode();
+        result.put("index", index);
+        result.put("endpointName", endpointName);
+
+        try {
+            if (configLoader.hasEndpoint(endpointName) && configLoader.getPlan(endpointName).isStreamResponse()) {
+                throw new IllegalArgumentException("Streaming endpoint '" + endpointName + "' is not supported in batches");
+            }
+
+            JsonNode payload = item.path("payload");
+            byte[] body = objectMapper.writeValueAsBytes(payload.isMissingNode() ? objectMapper.createObjectNode() : payload);
+
+            String ticket = ticketManager.getTicket();
+            Exchange response = producerTemplate.send(ITEM_ROUTE, itemExchange -> {
+                itemExchange.getIn().setHeaders(new HashMap<>(headers));
+                itemExchange.getIn().setHeader("endpointName", endpointName);
+                itemExchange.getIn().setBody(body);
+                itemExchange.setProperty("authToken", ticket);
+            });
+            // Items do not go through AuthTicketProcessor, so their 401s are checked here
+            authTicketProcessor.invalidateIfRejected(response, ticket);
+            if (response.getException() != null) {
+                throw response.getException();
+            }
+
+            int status = response.getIn().getHeader(Exchange.HTTP_RESPONSE_CODE, 200, Integer.class);
+            result.put("status", status);
+            result.put("outcome", status < 400 ? "success" : "error");
+            result.set("body", toJson(response.getIn().getBody(byte[].class)));
+        } catch (IllegalArgumentException e) {
+            result.put("status", 400);
+            result.put("outcome", "error");
+            result.put("message", e.getMessage());
+        } catch (Exception e) {
+            log.warn("Batch item {} ({}) failed: {}", index, endpointName, e.getMessage());
+            result.put("status", 500);
+            result.put("outcome", "error");
+            result.put("message", e.getMessage());
+        }
+        return result;
+    }
+
+    private JsonNode toJson(byte[] body) {
+        if (body == null || body.length == 0) {
+            return objectMapper.nullNode();
+        }
+        try {
+            return objectMapper.readTree(body);
+        } catch (Exception e) {
+            return objectMapper.getNodeFactory().textNode(new String(body, StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Ordered iteration over item results with a bounded window of in-flight items
+     */
+    private final class BatchRun implements Iterator<JsonNode>, AutoCloseable {
+
+        private final JsonNode items;
+        private final Map<String, Object> headers;
+        private final Deque<CompletableFuture<JsonNode>> window = new ArrayDeque<>();
+        private int submitted;
+        private int consumed;
+        private volatile boolean cancelled;
+
+        BatchRun(JsonNode items, Map<String, Object> headers) {
+            this.items = items;
+            this.headers = headers;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !cancelled && consumed < items.size();
+        }
+
+        @Override
+        public JsonNode next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            while (submitted < items.size() && window.size() < parallelism) {
+                int index = submitted++;
+                JsonNode item = items.get(index);
+                window.add(CompletableFuture.supplyAsync(() -> execute(index, item, headers), executor));
+            }
+            consumed++;
+            return window.poll().join();
+        }
+
+        /**
+         * Caller went away: stop submitting, let in-flight items finish on their own
+         */
+        @Override
+        public void close() {
+            cancelled = true;
+        }
+    }
+}
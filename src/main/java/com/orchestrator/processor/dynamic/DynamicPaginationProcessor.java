@@ -0,0 +1,356 @@
+package com.orchestrator.processor.dynamic;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.filter.FilteringParserDelegate;
+import com.fasterxml.jackson.core.filter.JsonPointerBasedFilter;
+import com.fasterxml.jackson.core.filter.TokenFilter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.orchestrator.auth.AuthTicketManager;
+import com.orchestrator.config.plan.EndpointPlan;
+import com.orchestrator.config.plan.PaginationPlan;
+import com.orchestrator.context.RequestContext;
+import com.orchestrator.processor.AuthTicketProcessor;
+import com.orchestrator.stream.JsonArrayInputStream;
+import com.orchestrator.stream.NdjsonInputStream;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.camel.CamelContext;
+import org.apache.camel.Exchange;
+import org.apache.camel.Processor;
+import org.apache.camel.ProducerTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Fetches every page of a paginated list endpoint and streams the items
+ *
+ * Requested with "allPages": true in the payload of an endpoint that has a
+ * pagination block. Pages are fetched one after the other through the page
+ * route (payload transform and upstream call, with the page number and size
+ * overridden); with prefetch, page n+1 is requested as soon as page n arrives,
+ * while page n is still being written. Items are read lazily from the buffered
+ * page, so at most two pages are held per request. Each page takes the current
+ * auth ticket, so long runs survive a ticket refresh, and a 401 invalidates it.
+ *
+ * Output is NDJSON, one item per line, with Accept: application/x-ndjson, and
+ * otherwise one chunked JSON document:
+ * {"status":"success","items":[...],"pages":N,"count":M,"truncated":false,"timestamp":"..."}
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DynamicPaginationProcessor implements Processor {
+
+    public static final String PAGE_ROUTE = "direct:dynamicPage";
+    public static final String INPUT_OVERRIDES = "inputOverrides";
+    private static final String NDJSON = "application/x-ndjson";
+
+    private final ObjectMapper objectMapper;
+    private final ProducerTemplate producerTemplate;
+    private final CamelContext camelContext;
+    private final AuthTicketManager ticketManager;
+    private final AuthTicketProcessor authTicketProcessor;
+
+    @Value("${orchestrator.pagination.threads:16}")
+    private int threads;
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    public void init() {
+        executor = camelContext.getExecutorServiceManager().newFixedThreadPool(this, "DynamicPagination", threads);
+    }
+
+    /**
+     * Whether the caller asked for all pages; usable as a route predicate
+     */
+    public boolean isRequested(Exchange exchange) {
+        JsonNode payload;
+        try {
+            payload = RequestContext.of(exchange).json(objectMapper);
+        } catch (IOException e) {
+            return false; // reported by the regular flow
+        }
+        if (!payload.path("allPages").asBoolean(false)) {
+            return false;
+        }
+
+        EndpointPlan plan = exchange.getProperty("endpointPlan", EndpointPlan.class);
+        if (plan.getPagination() == null) {
+            throw new IllegalArgumentException("Endpoint '" + plan.getName() + "' does not support allPages");
+        }
+        return true;
+    }
+
+    @Override
+    public void process(Exchange exchange) throws Exception {
+        EndpointPlan plan = exchange.getProperty("endpointPlan", EndpointPlan.class);
+        PaginationPlan pagination = plan.getPagination();
+        Map<String, Object> values = plan.extractValues(RequestContext.of(exchange).json(objectMapper));
+
+        int firstPage = intValue(values.get(pagination.pageParam()), pagination.firstPage());
+        int pageSize = intValue(values.get(pagination.limitParam()), pagination.pageSize());
+
+        PageRun run = new PageRun(exchange, plan, pagination, firstPage, pageSize);
+        // First page up front: failures here still get a regular error response
+        run.hasNext();
+        log.debug("Paginating {} from page {} with page size {}", plan.getName(), firstPage, pageSize);
+
+        String accept = exchange.getIn().getHeader("Accept", String.class);
+        if (accept != null && accept.contains(NDJSON)) {
+            exchange.getIn().setBody(new NdjsonInputStream(objectMapper, run));
+            exchange.getIn().setHeader(Exchange.CONTENT_TYPE, NDJSON);
+        } else {
+            byte[] prefix = "{\"status\":\"success\",\"items\":".getBytes(StandardCharsets.UTF_8);
+            exchange.getIn().setBody(new JsonArrayInputStream(objectMapper, prefix, run, run::suffix));
+            exchange.getIn().setHeader(Exchange.CONTENT_TYPE, "application/json");
+        }
+        exchange.getIn().removeHeader("Content-Length");
+        exchange.getIn().setHeader(Exchange.HTTP_RESPONSE_CODE, 200);
+    }
+
+    private static int intValue(Object value, int defaultValue) {
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value instanceof JsonNode node ? node.asText() : value.toString());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Page number and size must be integers: " + value);
+        }
+    }
+
+    private record Page(int number, byte[] body, boolean last) {
+    }
+
+    /**
+     * Ordered iteration over the items of consecutive pages
+     */
+    private final class PageRun implements Iterator<JsonNode>, AutoCloseable {
+
+        private final Exchange exchange;
+        private final EndpointPlan plan;
+        private final PaginationPlan pagination;
+        private final int pageSize;
+        private final Map<String, Object> headers = new HashMap<>();
+
+        private CompletableFuture<Page> pending;
+        private int nextPage;
+        private Iterator<JsonNode> items = Collections.emptyIterator();
+        private int pages;
+        private long count;
+        private boolean truncated;
+        private volatile boolean cancelled;
+
+        PageRun(Exchange exchange, EndpointPlan plan, PaginationPlan pagination, int firstPage, int pageSize) {
+            this.exchange = exchange;
+            this.plan = plan;
+            this.pagination = pagination;
+            this.pageSize = pageSize;
+            this.nextPage = firstPage;
+            exchange.getIn().getHeaders().forEach((name, value) -> {
+                if (!name.startsWith("Camel") && !name.equalsIgnoreCase("Content-Length")
+                        && !name.equalsIgnoreCase("Content-Type") && !name.equalsIgnoreCase("Accept")
+                        && !name.equalsIgnoreCase("Transfer-Encoding") && !name.equalsIgnoreCase("OTCSTicket")) {
+                    headers.put(name, value);
+                }
+            });
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!items.hasNext()) {
+                if (cancelled || (pending == null && nextPage < 0)) {
+                    return false;
+                }
+                Page page = join(pending != null ? pending : fetch(nextPage));
+                pages++;
+                pending = null;
+                nextPage = -1;
+
+                if (!page.last()) {
+                    if (pages < pagination.maxPages()) {
+                        nextPage = page.number() + 1;
+                        if (pagination.prefetch()) {
+                            pending = fetch(nextPage);
+                        }
+                    } else {
+                        truncated = true;
+                        log.warn("Stopped paginating {} after {} pages (maxPages)", plan.getName(), pages);
+                    }
+                }
+                items = new PageItems(page.body(), pagination.items());
+            }
+            return true;
+        }
+
+        @Override
+        public JsonNode next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            count++;
+            return items.next();
+        }
+
+        /**
+         * Caller went away: stop fetching, an in-flight prefetch completes on its own
+         */
+        @Override
+        public void close() {
+            cancelled = true;
+        }
+
+        byte[] suffix() {
+            ObjectNode totals = objectMapper.createObjectNode();
+            totals.put("pages", pages);
+            totals.put("count", count);
+            totals.put("truncated", truncated);
+            totals.put("timestamp", Instant.now().toString());
+            try {
+                byte[] json = objectMapper.writeValueAsBytes(totals);
+                // Continue the envelope object: drop the opening brace
+                json[0] = ',';
+                return json;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private CompletableFuture<Page> fetch(int number) {
+            return CompletableFuture.supplyAsync(() -> fetchPage(number), executor);
+        }
+
+        private Page fetchPage(int number) {
+            String ticket = plan.isRequiresAuth() ? ticketManager.getTicket() : null;
+            Exchange response = producerTemplate.send(PAGE_ROUTE, page -> {
+                page.getIn().setHeaders(new HashMap<>(headers));
+                page.getIn().setBody(RequestContext.of(exchange).getBody());
+                page.setProperty("endpointPlan", plan);
+                page.setProperty("endpointConfig", plan.getConfig());
+                page.setProperty("endpointName", plan.getName());
+                page.setProperty("streamResponse", false);
+                page.setProperty("authToken", ticket);
+                page.setProperty(INPUT_OVERRIDES, Map.of(
+                        pagination.pageParam(), number,
+                        pagination.limitParam(), pageSize));
+            });
+            if (ticket != null) {
+                authTicketProcessor.invalidateIfRejected(response, ticket);
+            }
+            if (response.getException() != null) {
+                throw new IllegalStateException("Page " + number + " of " + plan.getName() + " failed: "
+                        + response.getException().getMessage(), response.getException());
+            }
+            int status = response.getIn().getHeader(Exchange.HTTP_RESPONSE_CODE, 200, Integer.class);
+            if (status >= 400) {
+                throw new IllegalStateException("Page " + number + " of " + plan.getName()
+                        + " failed with status " + status);
+            }
+
+            byte[] body = response.getIn().getBody(byte[].class);
+            if (body == null) {
+                body = new byte[0];
+            }
+            return new Page(number, body, isLast(number, body));
+        }
+
+        /**
+         * Last page by the page total when configured, otherwise when the page is short
+         */
+        private boolean isLast(int number, byte[] body) {
+            try {
+                if (pagination.pageTotal() != null) {
+                    try (JsonParser parser = filtered(body, pagination.pageTotal())) {
+                        JsonToken token = parser.nextToken();
+                        if (token != null && token.isScalarValue()) {
+                            // Page numbers count from firstPage, which may be 0 or 1
+                            return number >= pagination.firstPage() + parser.getValueAsInt(Integer.MAX_VALUE) - 1;
+                        }
+                    }
+                }
+                int items = 0;
+                try (JsonParser parser = filtered(body, pagination.items())) {
+                    if (parser.nextToken() == JsonToken.START_ARRAY) {
+                        while (parser.nextToken() != JsonToken.END_ARRAY) {
+                            parser.skipChildren();
+                            items++;
+                        }
+                    }
+                }
+                return items < pageSize;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Page " + number + " of " + plan.getName() + " is not valid JSON", e);
+            }
+        }
+
+        private Page join(CompletableFuture<Page> page) {
+            try {
+                return page.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+    }
+
+    private JsonParser filtered(byte[] body, JsonPointer pointer) throws IOException {
+        return new FilteringParserDelegate(objectMapper.getFactory().createParser(body),
+                new JsonPointerBasedFilter(pointer), TokenFilter.Inclusion.ONLY_INCLUDE_ALL, false);
+    }
+
+    /**
+     * Items of one page, parsed one at a time from the items array
+     */
+    private final class PageItems implements Iterator<JsonNode> {
+
+        private final JsonParser parser;
+        private JsonToken token;
+
+        PageItems(byte[] body, JsonPointer items) {
+            try {
+                parser = filtered(body, items);
+                // A page without the items array has no items
+                token = parser.nextToken() == JsonToken.START_ARRAY ? parser.nextToken() : null;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Page is not valid JSON", e);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return token != null && token != JsonToken.END_ARRAY;
+        }
+
+        @Override
+        public JsonNode next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            try {
+                JsonNode item = objectMapper.readTree(parser);
+                token = parser.nextToken();
+                return item;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Page is not valid JSON", e);
+            }
+        }
+    }
+}
@@ -2,8 +2,10 @@ package com.orchestrator.processor.dynamic;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.jayway.jsonpath.JsonPath;
 import com.orchestrator.config.model.EndpointConfig;
+import com.orchestrator.config.plan.EndpointPlan;
+import com.orchestrator.config.plan.Template;
+import com.orchestrator.context.RequestContext;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.camel.Exchange;
@@ -11,12 +13,12 @@ import org.apache.camel.Processor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.util.HashMap;
 import java.util.Map;
 
 /**
  * Dynamically transforms caller payload to OpenText API format
- * Uses JSONPath to extract fields and builds URL, query params, and headers
+ * Evaluates the endpoint's precompiled plan: JSONPath inputs against the parsed
+ * payload, then URL, query params, and headers from tokenized templates
  */
 @Slf4j
 @Component
@@ -30,160 +32,74 @@ public class DynamicPayloadTransformer implements Processor {
 
     @Override
     public void process(Exchange exchange) throws Exception {
-        EndpointConfig config = exchange.getProperty("endpointConfig", EndpointConfig.class);
-        String requestBody = exchange.getProperty("originalRequest", String.class);
+        EndpointPlan plan = exchange.getProperty("endpointPlan", EndpointPlan.class);
         String authToken = exchange.getProperty("authToken", String.class);
 
-        log.info("Transforming payload for endpoint: {}", config.getName());
+        log.debug("Transforming payload for endpoint: {}", plan.getName());
 
-        // Parse input JSON
-        JsonNode inputJson = objectMapper.readTree(requestBody);
+        // Parsed once per exchange, all inputs are evaluated against the same tree
+        JsonNode inputJson = RequestContext.of(exchange).json(objectMapper);
 
-        // Extract values using JSONPath
-        Map<String, Object> extractedValues = extractValues(inputJson, config.getMapping().getInput());
+        // Extract values using precompiled JSONPath
+        Map<String, Object> extractedValues = plan.extractValues(inputJson);
+
+        // Pagination fetches each page with its own page number and size
+        Map<?, ?> overrides = exchange.getProperty(DynamicPaginationProcessor.INPUT_OVERRIDES, Map.class);
+        if (overrides != null) {
+            overrides.forEach((key, value) -> extractedValues.put(key.toString(), value));
+        }
 
         // Add auth token if available
         if (authToken != null) {
             extractedValues.put("authToken", authToken);
         }
 
-        // Build URL with path parameters
-        String url = buildUrl(config.getOpentext().getPath(), extractedValues);
-
-        // Build query string
-        String queryString = buildQueryString(config.getMapping().getQueryParams(), extractedValues);
+        // Node ID is reported back in binary response metadata
+        if (extractedValues.get("nodeId") != null) {
+            exchange.setProperty("nodeId", extractedValues.get("nodeId").toString());
+        }
 
         // Set headers
-        setHeaders(exchange, config.getMapping().getHeaders(), extractedValues);
+        setHeaders(exchange, plan, extractedValues);
+
+        // Range requests only make sense when the bytes are passed through untouched
+        if (!isStreamResponse(plan.getConfig())) {
+            exchange.getIn().removeHeader("Range");
+            exchange.getIn().removeHeader("If-Range");
+        }
 
         // Set HTTP method
-        exchange.getIn().setHeader(Exchange.HTTP_METHOD, config.getOpentext().getMethod());
+        exchange.getIn().setHeader(Exchange.HTTP_METHOD, plan.getMethod());
 
-        // Build full URL
-        String fullUrl = targetEndpoint + url + (queryString.isEmpty() ? "" : "?" + queryString);
+        // Build full URL (path params + query string) in one pass
+        String fullUrl = plan.buildUrl(targetEndpoint, extractedValues);
         exchange.setProperty("targetUrl", fullUrl);
 
         // Clear body for GET requests
-        if ("GET".equalsIgnoreCase(config.getOpentext().getMethod())) {
+        if ("GET".equalsIgnoreCase(plan.getMethod())) {
             exchange.getIn().setBody(null);
         }
 
-        log.info("Transformed URL: {}", fullUrl);
+        log.debug("Transformed URL: {}", fullUrl);
         log.debug("Extracted values: {}", extractedValues);
     }
 
-    /**
-     * Extract values from input JSON using JSONPath expressions
-     */
-    private Map<String, Object> extractValues(JsonNode inputJson, Map<String, String> mappings) {
-        Map<String, Object> extracted = new HashMap<>();
-
-        if (mappings == null) {
-            return extracted;
-        }
-
-        String jsonString = inputJson.toString();
-
-        for (Map.Entry<String, String> entry : mappings.entrySet()) {
-            String key = entry.getKey();
-            String jsonPath = entry.getValue();
-
-            try {
-                Object value = JsonPath.read(jsonString, jsonPath);
-                extracted.put(key, value);
-                log.debug("Extracted {}: {} from path: {}", key, value, jsonPath);
-            } catch (Exception e) {
-                log.warn("Failed to extract value for key '{}' using path '{}': {}", key, jsonPath, e.getMessage());
-                extracted.put(key, null);
-            }
-        }
-
-        return extracted;
-    }
-
-    /**
-     * Build URL by replacing path parameters
-     */
-    private String buildUrl(String pathTemplate, Map<String, Object> values) {
-        String url = pathTemplate;
-
-        // Replace {paramName} with actual values
-        for (Map.Entry<String, Object> entry : values.entrySet()) {
-            String placeholder = "{" + entry.getKey() + "}";
-            if (url.contains(placeholder) && entry.getValue() != null) {
-                url = url.replace(placeholder, entry.getValue().toString());
-            }
-        }
-
-        return url;
-    }
-
-    /**
-     * Build query string from query parameter mappings
-     */
-    private String buildQueryString(Map<String, String> queryParams, Map<String, Object> values) {
-        if (queryParams == null || queryParams.isEmpty()) {
-            return "";
-        }
-
-        StringBuilder queryString = new StringBuilder();
-
-        for (Map.Entry<String, String> entry : queryParams.entrySet()) {
-            String paramName = entry.getKey();
-            String valueTemplate = entry.getValue();
-
-            // Replace {valueName} with actual value
-            String paramValue = replaceTemplate(valueTemplate, values);
-
-            if (paramValue != null && !paramValue.isEmpty()) {
-                if (queryString.length() > 0) {
-                    queryString.append("&");
-                }
-                queryString.append(paramName).append("=").append(paramValue);
-            }
-        }
-
-        return queryString.toString();
+    private boolean isStreamResponse(EndpointConfig config) {
+        return config.getResponse() != null && "stream".equalsIgnoreCase(config.getResponse().getType());
     }
 
     /**
-     * Set headers from header mappings
+     * Set headers from precompiled header templates
+     * Headers whose values are missing are not sent
      */
-    private void setHeaders(Exchange exchange, Map<String, String> headers, Map<String, Object> values) {
-        if (headers == null) {
-            return;
-        }
-
-        for (Map.Entry<String, String> entry : headers.entrySet()) {
-            String headerName = entry.getKey();
-            String valueTemplate = entry.getValue();
-
-            String headerValue = replaceTemplate(valueTemplate, values);
+    private void setHeaders(Exchange exchange, EndpointPlan plan, Map<String, Object> values) {
+        for (EndpointPlan.Param header : plan.getHeaders()) {
+            String headerValue = header.value().render(values, Template.Encoding.NONE);
 
             if (headerValue != null && !headerValue.isEmpty()) {
-                exchange.getIn().setHeader(headerName, headerValue);
-                log.debug("Set header {}: {}", headerName, headerValue);
-            }
-        }
-    }
-
-    /**
-     * Replace {valueName} placeholders with actual values
-     */
-    private String replaceTemplate(String template, Map<String, Object> values) {
-        if (template == null) {
-            return null;
-        }
-
-        String result = template;
-
-        for (Map.Entry<String, Object> entry : values.entrySet()) {
-            String placeholder = "{" + entry.getKey() + "}";
-            if (result.contains(placeholder) && entry.getValue() != null) {
-                result = result.replace(placeholder, entry.getValue().toString());
+                exchange.getIn().setHeader(header.name(), headerValue);
+                log.debug("Set header {}: {}", header.name(), headerValue);
             }
         }
-
-        return result;
     }
 }
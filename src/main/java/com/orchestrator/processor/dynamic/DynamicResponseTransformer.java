@@ -1,16 +1,24 @@
 package com.orchestrator.processor.dynamic;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.orchestrator.config.model.EndpointConfig;
 import com.orchestrator.config.model.ResponseConfig;
+import com.orchestrator.config.plan.EndpointPlan;
+import com.orchestrator.config.plan.ResponseProjection;
+import com.orchestrator.stream.Base64Envelope;
+import com.orchestrator.stream.JsonEnvelope;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.camel.Exchange;
 import org.apache.camel.Processor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.io.InputStream;
 import java.time.Instant;
 import java.util.Base64;
 
@@ -25,24 +33,43 @@ public class DynamicResponseTransformer implements Processor {
 
     private final ObjectMapper objectMapper;
 
+    @Value("${orchestrator.response.splice:true}")
+    private boolean splice;
+
     @Override
     public void process(Exchange exchange) throws Exception {
         EndpointConfig config = exchange.getProperty("endpointConfig", EndpointConfig.class);
         ResponseConfig responseConfig = config.getResponse();
 
-        log.info("Transforming response for endpoint: {}", config.getName());
+        log.debug("Transforming response for endpoint: {}", config.getName());
 
         if (responseConfig == null) {
             // No transformation needed, return as-is
+            exchange.getIn().setHeader(Exchange.CONTENT_TYPE, "application/json");
             return;
         }
 
         String responseType = responseConfig.getType();
 
-        if ("binary".equalsIgnoreCase(responseType)) {
+        if ("stream".equalsIgnoreCase(responseType)) {
+            // Raw passthrough keeps the upstream content type
+            prepareStreamResponse(exchange);
+            return;
+        }
+
+        if ("binary".equalsIgnoreCase(responseType) && responseConfig.isStreaming()) {
+            transformBinaryResponseStreaming(exchange, responseConfig);
+        } else if ("binary".equalsIgnoreCase(responseType)) {
             transformBinaryResponse(exchange, responseConfig);
         } else if ("json".equalsIgnoreCase(responseType)) {
-            transformJsonResponse(exchange, responseConfig);
+            ResponseProjection projection = projection(exchange, responseConfig);
+            if (projection.isProjecting()) {
+                projectJsonResponse(exchange, projection);
+            } else if (splice) {
+                spliceJsonResponse(exchange, projection);
+            } else {
+                transformJsonResponse(exchange, responseConfig);
+            }
         } else {
             // Default: pass through
             log.debug("No transformation for response type: {}", responseType);
@@ -61,7 +88,7 @@ public class DynamicResponseTransformer implements Processor {
             throw new IllegalStateException("No binary content received");
         }
 
-        log.info("Transforming binary response, size: {} bytes", binaryContent.length);
+        log.debug("Transforming binary response, size: {} bytes", binaryContent.length);
 
         // Encode to base64
         String base64Content = Base64.getEncoder().encodeToString(binaryContent);
@@ -90,15 +117,124 @@ public class DynamicResponseTransformer implements Processor {
         response.put("base64Content", base64Content);
         response.put("timestamp", Instant.now().toString());
 
-        exchange.getIn().setBody(objectMapper.writeValueAsString(response));
-        log.info("Binary response transformed successfully");
+        exchange.getIn().setBody(objectMapper.writeValueAsBytes(response));
+        log.debug("Binary response transformed successfully");
+    }
+
+    /**
+     * Pass the upstream body through untouched
+     * The body stays the upstream InputStream; Content-Type, Content-Length,
+     * Content-Range etc. are already on the message from the upstream response.
+     */
+    private void prepareStreamResponse(Exchange exchange) {
+        if (exchange.getIn().getHeader("Content-Type") == null) {
+            exchange.getIn().setHeader(Exchange.CONTENT_TYPE, "application/octet-stream");
+        }
+
+        if (exchange.getIn().getHeader("Content-Disposition") == null) {
+            String nodeId = exchange.getProperty("nodeId", String.class);
+            exchange.getIn().setHeader("Content-Disposition", "attachment; filename=\"node_" + nodeId + "\"");
+        }
+
+        // Request-side headers must not be echoed back to the caller
+        exchange.getIn().removeHeader("OTCSTicket");
+        exchange.getIn().removeHeader("Range");
+        exchange.getIn().removeHeader("If-Range");
+
+        log.debug("Passing through upstream stream, status: {}, size: {} bytes",
+                exchange.getIn().getHeader(Exchange.HTTP_RESPONSE_CODE),
+                exchange.getIn().getHeader("Content-Length"));
+    }
+
+    /**
+     * Transform binary response to base64 with metadata without buffering it
+     * The envelope is encoded while the servlet writes the response
+     */
+    private void transformBinaryResponseStreaming(Exchange exchange, ResponseConfig config) throws Exception {
+        InputStream content = exchange.getIn().getBody(InputStream.class);
+        Long contentLength = exchange.getIn().getHeader("Content-Length", Long.class);
+
+        if (content == null || (contentLength != null && contentLength == 0)) {
+            throw new IllegalStateException("No binary content received");
+        }
+
+        log.debug("Streaming binary response, upstream size: {} bytes",
+                contentLength != null ? contentLength : "unknown");
+
+        ObjectNode metadata = objectMapper.createObjectNode();
+        metadata.put("status", "success");
+
+        if (config.isIncludeMetadata()) {
+            String contentType = exchange.getIn().getHeader("Content-Type", String.class);
+            String contentDisposition = exchange.getIn().getHeader("Content-Disposition", String.class);
+            String nodeId = exchange.getProperty("nodeId", String.class);
+
+            String fileName = extractFileName(contentDisposition);
+            if (fileName == null || fileName.isEmpty()) {
+                fileName = "node_" + nodeId;
+            }
+
+            metadata.put("nodeId", nodeId);
+            metadata.put("fileName", fileName);
+            metadata.put("contentType", contentType != null ? contentType : "application/octet-stream");
+            if (contentLength != null) {
+                metadata.put("sizeBytes", contentLength);
+            }
+        }
+
+        exchange.getIn().setBody(Base64Envelope.open(objectMapper, metadata, content));
+        // Upstream length no longer applies, the envelope is sent chunked
+        exchange.getIn().removeHeader("Content-Length");
+    }
+
+    /**
+     * Return only the configured projections of the upstream JSON
+     * The body is read as a token stream; skipped subtrees are never materialized.
+     */
+    private void projectJsonResponse(Exchange exchange, ResponseProjection projection) throws Exception {
+        JsonFactory jsonFactory = objectMapper.getFactory();
+        Object body = exchange.getIn().getBody();
+        JsonParser upstream;
+        if (body instanceof InputStream stream) {
+            upstream = jsonFactory.createParser(stream);
+        } else {
+            byte[] responseBody = exchange.getIn().getBody(byte[].class);
+            upstream = jsonFactory.createParser(responseBody != null ? responseBody : new byte[0]);
+        }
+
+        byte[] projected = projection.project(jsonFactory, upstream);
+        exchange.getIn().setBody(projected);
+        exchange.getIn().removeHeader("Content-Length");
+        log.debug("JSON response projected, size: {} bytes", projected.length);
+    }
+
+    /**
+     * Wrap the upstream JSON in the envelope without parsing it into a tree
+     * Streamed bodies stay streamed unless the response is going to be cached,
+     * which needs the bytes; buffered bodies are copied once into the envelope.
+     */
+    private void spliceJsonResponse(Exchange exchange, ResponseProjection projection) throws Exception {
+        ObjectNode fields = objectMapper.createObjectNode();
+        projection.addLiterals(fields);
+        Object body = exchange.getIn().getBody();
+
+        if (body instanceof InputStream upstream && exchange.getProperty("responseCacheKey") == null) {
+            exchange.getIn().setBody(JsonEnvelope.open(objectMapper, fields, upstream));
+            log.debug("JSON response spliced while streaming");
+        } else {
+            byte[] responseBody = exchange.getIn().getBody(byte[].class);
+            exchange.getIn().setBody(JsonEnvelope.wrap(objectMapper, fields, responseBody));
+            log.debug("JSON response spliced, size: {} bytes", responseBody != null ? responseBody.length : 0);
+        }
+        // Upstream length no longer applies to the envelope
+        exchange.getIn().removeHeader("Content-Length");
     }
 
     /**
      * Transform JSON response with optional field mappings
      */
     private void transformJsonResponse(Exchange exchange, ResponseConfig config) throws Exception {
-        String responseBody = exchange.getIn().getBody(String.class);
+        byte[] responseBody = exchange.getIn().getBody(byte[].class);
         JsonNode originalResponse = objectMapper.readTree(responseBody);
 
         ObjectNode transformedResponse = objectMapper.createObjectNode();
@@ -109,7 +245,7 @@ public class DynamicResponseTransformer implements Processor {
                 String targetField = entry.getKey();
                 String sourceValue = entry.getValue();
 
-                // Simple string values or JSONPath could be supported here
+                // Only literal values reach this path; projections are handled while streaming
                 transformedResponse.put(targetField, sourceValue);
             }
         }
@@ -118,8 +254,16 @@ public class DynamicResponseTransformer implements Processor {
         transformedResponse.set("data", originalResponse);
         transformedResponse.put("timestamp", Instant.now().toString());
 
-        exchange.getIn().setBody(objectMapper.writeValueAsString(transformedResponse));
-        log.info("JSON response transformed successfully");
+        exchange.getIn().setBody(objectMapper.writeValueAsBytes(transformedResponse));
+        log.debug("JSON response transformed successfully");
+    }
+
+    /**
+     * Projection compiled with the endpoint plan; compiled here only for callers without a plan
+     */
+    private ResponseProjection projection(Exchange exchange, ResponseConfig config) {
+        EndpointPlan plan = exchange.getProperty("endpointPlan", EndpointPlan.class);
+        return plan != null ? plan.getResponseProjection() : ResponseProjection.compile(config.getTransform());
     }
 
     /**
@@ -0,0 +1,193 @@
+package com.orchestrator.processor.dynamic;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.orchestrator.config.plan.EndpointPlan;
+import com.orchestrator.config.plan.Template;
+import com.orchestrator.config.plan.UploadPlan;
+import com.orchestrator.context.RequestContext;
+import com.orchestrator.stream.MultipartHead;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.camel.Exchange;
+import org.apache.camel.Processor;
+import org.apache.camel.support.SynchronizationAdapter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Streams a caller's multipart upload into the upstream multipart request
+ *
+ * POST /api/upload/{endpointName} with multipart/form-data: the form fields sent
+ * in front of the file become the endpoint's input payload, and the file part is
+ * forwarded to Content Server as it arrives, behind the endpoint's upstream form
+ * fields. Nothing is copied to memory or temp files beyond a read buffer.
+ *
+ * Each upload reserves its declared size (max-request-bytes when sent chunked)
+ * from a shared in-flight budget until the exchange completes; an upload that
+ * does not fit is rejected with 503 before any of its content is read.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DynamicUploadProcessor implements Processor {
+
+    public static final String HEAD = "uploadHead";
+
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${orchestrator.upload.max-request-bytes:104857600}")
+    private long maxRequestBytes;
+
+    @Value("${orchestrator.upload.max-in-flight-bytes:1073741824}")
+    private long maxInFlightBytes;
+
+    @Value("${orchestrator.upload.max-fields-bytes:65536}")
+    private int maxFieldsBytes;
+
+    private final AtomicLong inFlightBytes = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        Gauge.builder("orchestrator.upload.in.flight.bytes", inFlightBytes, AtomicLong::get)
+                .description("Bytes reserved by uploads in progress")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Reserve the upload's share of the budget and read the form fields in front of the file
+     * Route step after endpoint resolution; the fields are the payload for the rest of the flow.
+     */
+    public void open(Exchange exchange) throws IOException {
+        EndpointPlan plan = exchange.getProperty("endpointPlan", EndpointPlan.class);
+        if (plan.getUpload() == null) {
+            throw new IllegalArgumentException("Endpoint '" + plan.getName() + "' does not accept uploads");
+        }
+
+        Long declared = exchange.getIn().getHeader(Exchange.CONTENT_LENGTH, Long.class);
+        if (declared != null && declared > maxRequestBytes) {
+            throw new IllegalArgumentException("Upload of " + declared + " bytes exceeds the limit of "
+                    + maxRequestBytes + " bytes");
+        }
+        String boundary = MultipartHead.boundary(exchange.getIn().getHeader(Exchange.CONTENT_TYPE, String.class));
+        InputStream body = exchange.getIn().getBody(InputStream.class);
+        if (body == null) {
+            throw new IllegalArgumentException("Upload body is required");
+        }
+
+        reserve(exchange, declared != null ? declared : maxRequestBytes);
+
+        MultipartHead head = MultipartHead.read(body, boundary, maxFieldsBytes);
+        ObjectNode payload = objectMapper.createObjectNode();
+        head.getFields().forEach(payload::put);
+        RequestContext.attach(exchange, objectMapper.writeValueAsBytes(payload));
+        exchange.setProperty(HEAD, head);
+
+        log.debug("Upload to {}: file '{}' ({}), fields {}", plan.getName(), head.getFileName(),
+                head.getFileContentType(), head.getFields().keySet());
+    }
+
+    /**
+     * Replace the body with the upstream multipart stream; runs after the payload transform
+     */
+    @Override
+    public void process(Exchange exchange) throws Exception {
+        EndpointPlan plan = exchange.getProperty("endpointPlan", EndpointPlan.class);
+        UploadPlan upload = plan.getUpload();
+        MultipartHead head = exchange.getProperty(HEAD, MultipartHead.class);
+
+        Map<String, Object> values = plan.extractValues(RequestContext.of(exchange).json(objectMapper));
+        Map<String, String> fields = new LinkedHashMap<>();
+        for (EndpointPlan.Param field : upload.fields()) {
+            String value = field.value().render(values, Template.Encoding.NONE);
+            if (value != null && !value.isEmpty()) {
+                fields.put(field.name(), value);
+            }
+        }
+
+        byte[] prefix = head.prefix(fields, upload.filePart());
+        InputStream content = new LimitedInputStream(head.getRemainder(), maxRequestBytes - head.getConsumed());
+        Long declared = exchange.getIn().getHeader(Exchange.CONTENT_LENGTH, Long.class);
+
+        exchange.getIn().setBody(new SequenceInputStream(new ByteArrayInputStream(prefix), content));
+        exchange.getIn().setHeader(Exchange.CONTENT_TYPE, "multipart/form-data; boundary=" + head.getBoundary());
+        if (declared != null) {
+            exchange.getIn().setHeader(Exchange.CONTENT_LENGTH, declared - head.getConsumed() + prefix.length);
+        } else {
+            exchange.getIn().removeHeader(Exchange.CONTENT_LENGTH);
+        }
+        exchange.setProperty("streamRequest", true);
+    }
+
+    private void reserve(Exchange exchange, long bytes) {
+        long current;
+        do {
+            current = inFlightBytes.get();
+            if (current + bytes > maxInFlightBytes) {
+                throw new RejectedExecutionException("Upload rejected: " + current + " of " + maxInFlightBytes
+                        + " in-flight upload bytes in use, " + bytes + " requested");
+            }
+        } while (!inFlightBytes.compareAndSet(current, current + bytes));
+
+        exchange.getExchangeExtension().addOnCompletion(new SynchronizationAdapter() {
+            @Override
+            public void onDone(Exchange completed) {
+                inFlightBytes.addAndGet(-bytes);
+            }
+        });
+    }
+
+    /**
+     * Fails the upstream request once the caller has sent more than the limit
+     * Covers chunked uploads, whose size is not known up front.
+     */
+    private static final class LimitedInputStream extends FilterInputStream {
+
+        private long remaining;
+
+        LimitedInputStream(InputStream in, long limit) {
+            super(in);
+            this.remaining = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                count(read);
+            }
+            return read;
+        }
+
+        private void count(int bytes) throws IOException {
+            remaining -= bytes;
+            if (remaining < 0) {
+                throw new IOException("Upload exceeds the request size limit");
+            }
+        }
+    }
+}
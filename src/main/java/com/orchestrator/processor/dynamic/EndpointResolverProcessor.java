@@ -5,6 +5,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.jayway.jsonpath.JsonPath;
 import com.orchestrator.config.EndpointConfigLoader;
 import com.orchestrator.config.model.EndpointConfig;
+import com.orchestrator.config.plan.EndpointPlan;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.camel.Exchange;
@@ -34,15 +35,18 @@ public class EndpointResolverProcessor implements Processor {
             throw new IllegalArgumentException("Endpoint name is required");
         }
 
-        log.info("Resolving endpoint configuration for: {}", endpointName);
+        log.debug("Resolving endpoint configuration for: {}", endpointName);
 
-        // Load endpoint configuration
-        EndpointConfig config = configLoader.getEndpoint(endpointName);
+        // Load compiled endpoint plan
+        EndpointPlan plan = configLoader.getPlan(endpointName);
+        EndpointConfig config = plan.getConfig();
 
         // Store configuration in exchange properties
+        exchange.setProperty("endpointPlan", plan);
         exchange.setProperty("endpointConfig", config);
-        exchange.setProperty("requiresAuth", config.getOpentext().isRequiresAuth());
+        exchange.setProperty("requiresAuth", plan.isRequiresAuth());
         exchange.setProperty("endpointName", endpointName);
+        exchange.setProperty("streamResponse", plan.isStreamResponse());
 
         log.debug("Endpoint configuration resolved: method={}, path={}, requiresAuth={}",
                 config.getOpentext().getMethod(),
@@ -0,0 +1,252 @@
+package com.orchestrator.processor.dynamic;
+
+import com.orchestrator.config.model.DownloadConfig;
+import com.orchestrator.config.plan.EndpointPlan;
+import com.orchestrator.processor.UpstreamCallProcessor;
+import com.orchestrator.stream.RangeReassemblyInputStream;
+import com.orchestrator.upstream.ConcurrencyLimiter;
+import com.orchestrator.upstream.UpstreamBody;
+import com.orchestrator.upstream.UpstreamGroup;
+import com.orchestrator.upstream.UpstreamGuard;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.camel.AsyncCallback;
+import org.apache.camel.CamelContext;
+import org.apache.camel.Exchange;
+import org.apache.camel.ProducerTemplate;
+import org.apache.camel.http.base.HttpOperationFailedException;
+import org.apache.camel.support.AsyncProcessorSupport;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Upstream call of content endpoints that download large bodies as parallel byte ranges
+ *
+ * For endpoints with a download block the call asks for the first range only.
+ * A 206 answer carries the total size in Content-Range: the first range is
+ * streamed to the caller as it arrives while the following ranges are fetched
+ * in parallel over the pooled buffered transport and reassembled in order. A
+ * 200 answer means the server ignores ranges and is passed on as the single
+ * stream; an empty body (416) is fetched again without a range.
+ *
+ * Ranges after the first carry If-Range with the first response's validator,
+ * so a document replaced mid-download fails instead of mixing two versions.
+ * Other endpoints, and callers that send their own Range, go straight through.
+ *
+ * The host slots and binary bulkhead permits of the range fetches are reserved
+ * before the first range is asked for and held until the body has been read or
+ * closed. Without them the download is fetched as a single stream up front,
+ * rather than failing part way through the body when a range is refused.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ParallelDownloadProcessor extends AsyncProcessorSupport {
+
+    public static final String RANGE_ROUTE = "direct:dynamicRange";
+
+    private static final Pattern CONTENT_RANGE = Pattern.compile("bytes\\s+(\\d+)-(\\d+)/(\\d+)");
+
+    private final UpstreamCallProcessor upstreamCallProcessor;
+    private final ConcurrencyLimiter concurrencyLimiter;
+    private final UpstreamGuard upstreamGuard;
+    private final ProducerTemplate producerTemplate;
+    private final CamelContext camelContext;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${orchestrator.download.threads:32}")
+    private int threads;
+
+    private ExecutorService executor;
+    private Counter parallelDownloads;
+    private Counter singleStreamFallbacks;
+
+    @PostConstruct
+    public void init() {
+        executor = camelContext.getExecutorServiceManager().newFixedThreadPool(this, "ParallelDownload", threads);
+        parallelDownloads = Counter.builder("orchestrator.download.ranged")
+                .description("Downloads of ranged endpoints, by how they were fetched")
+                .tag("mode", "parallel")
+                .register(meterRegistry);
+        singleStreamFallbacks = Counter.builder("orchestrator.download.ranged")
+                .description("Downloads of ranged endpoints, by how they were fetched")
+                .tag("mode", "single")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean process(Exchange exchange, AsyncCallback callback) {
+        EndpointPlan plan = exchange.getProperty("endpointPlan", EndpointPlan.class);
+        DownloadConfig download = plan != null ? plan.getConfig().getDownload() : null;
+        if (download == null || exchange.getIn().getHeader("Range") != null) {
+            return upstreamCallProcessor.process(exchange, callback);
+        }
+        Runnable reservation = reserve(exchange.getProperty("targetUrl", String.class), download.getRanges());
+        if (reservation == null) {
+            singleStreamFallbacks.increment();
+            log.debug("No capacity for {} parallel ranges of {}, streaming it as one body",
+                    download.getRanges(), plan.getName());
+            return upstreamCallProcessor.process(exchange, callback);
+        }
+
+        Map<String, Object> requestHeaders = new HashMap<>();
+        exchange.getIn().getHeaders().forEach((name, value) -> {
+            if (!name.startsWith("Camel") && !name.equalsIgnoreCase("Content-Length")
+                    && !name.equalsIgnoreCase("Transfer-Encoding")) {
+                requestHeaders.put(name, value);
+            }
+        });
+        exchange.getIn().setHeader("Range", "bytes=0-" + (download.getRangeSize() - 1));
+
+        AtomicBoolean retriedAsync = new AtomicBoolean();
+        boolean sync = upstreamCallProcessor.process(exchange, doneSync -> {
+            if (exchange.getException() instanceof HttpOperationFailedException failure
+                    && failure.getStatusCode() == 416) {
+                // Nothing to split: empty documents cannot satisfy any range
+                reservation.run();
+                exchange.setException(null);
+                exchange.getIn().setHeaders(new HashMap<>(requestHeaders));
+                exchange.getIn().setHeader(Exchange.HTTP_METHOD, "GET");
+                boolean retrySync = upstreamCallProcessor.process(exchange, retryDoneSync -> {
+                    if (!retryDoneSync) {
+                        callback.done(false);
+                    }
+                });
+                if (retrySync) {
+                    callback.done(doneSync);
+                } else {
+                    // e.g. queued by the concurrency limiter: completes from the retry's callback
+                    retriedAsync.set(true);
+                }
+                return;
+            }
+            // Ours, not the caller's: do not echo it in the response
+            exchange.getIn().removeHeader("Range");
+            boolean parallel = false;
+            if (exchange.getException() == null) {
+                try {
+                    parallel = reassemble(exchange, plan, download, requestHeaders, reservation);
+                } catch (Exception e) {
+                    exchange.setException(e);
+                }
+            }
+            if (!parallel) {
+                reservation.run();
+            }
+            callback.done(doneSync);
+        });
+        return sync && !retriedAsync.get();
+    }
+
+    /**
+     * Take the host slots and bulkhead permits for the range fetches, or null if there are not enough
+     *
+     * @return what gives them back
+     */
+    private Runnable reserve(String targetUrl, int ranges) {
+        String host;
+        try {
+            host = URI.create(targetUrl).getRawAuthority();
+        } catch (RuntimeException e) {
+            return null; // reported by the upstream call
+        }
+        if (host == null || !concurrencyLimiter.tryReserve(host, ranges)) {
+            return null;
+        }
+        if (!upstreamGuard.tryReserve(UpstreamGroup.BINARY, ranges)) {
+            concurrencyLimiter.unreserve(host, ranges);
+            return null;
+        }
+        return () -> {
+            upstreamGuard.unreserve(UpstreamGroup.BINARY, ranges);
+            concurrencyLimiter.unreserve(host, ranges);
+        };
+    }
+
+    /**
+     * Turn a 206 answer to the first range into the full body
+     *
+     * @return true if the remaining ranges are fetched in parallel, holding the reservation until the body is consumed
+     */
+    private boolean reassemble(Exchange exchange, EndpointPlan plan, DownloadConfig download,
+                               Map<String, Object> requestHeaders, Runnable reservation) {
+        int status = exchange.getIn().getHeader(Exchange.HTTP_RESPONSE_CODE, 200, Integer.class);
+        Matcher range = CONTENT_RANGE.matcher(exchange.getIn().getHeader("Content-Range", "", String.class));
+        if (status != 206 || !range.find() || Long.parseLong(range.group(1)) != 0) {
+            singleStreamFallbacks.increment();
+            log.debug("{} answered {} to a range request, streaming it as one body", plan.getName(), status);
+            return false;
+        }
+
+        long total = Long.parseLong(range.group(3));
+        exchange.getIn().setHeader(Exchange.HTTP_RESPONSE_CODE, 200);
+        exchange.getIn().setHeader("Content-Length", total);
+        exchange.getIn().removeHeader("Content-Range");
+        if (total <= download.getRangeSize()) {
+            return false;
+        }
+
+        String validator = exchange.getIn().getHeader("ETag", String.class);
+        if (validator == null || validator.startsWith("W/")) {
+            validator = exchange.getIn().getHeader("Last-Modified", String.class);
+        }
+        if (validator != null) {
+            requestHeaders.put("If-Range", validator);
+        }
+
+        String targetUrl = exchange.getProperty("targetUrl", String.class);
+        String authToken = exchange.getProperty("authToken", String.class);
+        InputStream first = exchange.getIn().getBody(InputStream.class);
+        exchange.getIn().setBody(new RangeReassemblyInputStream(first, total, download.getRangeSize(),
+                download.getRanges(), (from, to) -> fetchRange(plan, targetUrl, authToken, requestHeaders, from, to),
+                executor));
+        UpstreamBody.releaseWhenConsumed(exchange, reservation);
+        parallelDownloads.increment();
+        log.debug("Downloading {} bytes of {} as {}-byte ranges, {} in parallel",
+                total, plan.getName(), download.getRangeSize(), download.getRanges());
+        return true;
+    }
+
+    private byte[] fetchRange(EndpointPlan plan, String targetUrl, String authToken,
+                              Map<String, Object> requestHeaders, long from, long to) {
+        Exchange response = producerTemplate.send(RANGE_ROUTE, range -> {
+            range.getIn().setHeaders(new HashMap<>(requestHeaders));
+            range.getIn().setHeader(Exchange.HTTP_METHOD, "GET");
+            range.getIn().setHeader("Range", "bytes=" + from + "-" + to);
+            range.setProperty("endpointPlan", plan);
+            range.setProperty("endpointName", plan.getName());
+            range.setProperty("targetUrl", targetUrl);
+            range.setProperty("authToken", authToken);
+            range.setProperty("streamResponse", false);
+            range.setProperty(UpstreamGroup.PROPERTY, UpstreamGroup.BINARY);
+            range.setProperty(ConcurrencyLimiter.RESERVED, true);
+            range.setProperty(UpstreamGuard.RESERVED, true);
+        });
+        if (response.getException() != null) {
+            throw new IllegalStateException("Range " + from + "-" + to + " of " + plan.getName() + " failed: "
+                    + response.getException().getMessage(), response.getException());
+        }
+
+        int status = response.getIn().getHeader(Exchange.HTTP_RESPONSE_CODE, 200, Integer.class);
+        Matcher range = CONTENT_RANGE.matcher(response.getIn().getHeader("Content-Range", "", String.class));
+        if (status != 206 || !range.find() || Long.parseLong(range.group(1)) != from) {
+            // A full 200 answer to If-Range means the document changed since the first range
+            throw new IllegalStateException("Range " + from + "-" + to + " of " + plan.getName()
+                    + " was not honoured (status " + status + "); the document may have changed");
+        }
+        byte[] body = response.getIn().getBody(byte[].class);
+        return body != null ? body : new byte[0];
+    }
+}
@@ -0,0 +1,98 @@
+package com.orchestrator.processor.dynamic;
+
+import com.orchestrator.cache.ResponseCache;
+import com.orchestrator.config.plan.EndpointPlan;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.camel.Exchange;
+import org.apache.camel.Processor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+/**
+ * Serves cacheable endpoints from the response cache
+ * Sets exchangeProperty.cacheHit so the route can skip the upstream call. A
+ * cached envelope gets the current time as its trailing "timestamp".
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ResponseCacheLookupProcessor implements Processor {
+
+    private static final byte[] TIMESTAMP_FIELD = "\"timestamp\":\"".getBytes(StandardCharsets.US_ASCII);
+
+    private final ResponseCache responseCache;
+
+    @Value("${orchestrator.cache.identity-header:Authorization}")
+    private String identityHeader;
+
+    @Override
+    public void process(Exchange exchange) throws Exception {
+        EndpointPlan plan = exchange.getProperty("endpointPlan", EndpointPlan.class);
+        exchange.setProperty("cacheHit", false);
+
+        if (!responseCache.isCacheable(plan.getName())) {
+            return;
+        }
+
+        ResponseCache.Key key = responseCache.keyFor(
+                exchange.getProperty("nodeId", String.class),
+                exchange.getProperty("targetUrl", String.class),
+                exchange.getIn().getHeader(identityHeader, String.class));
+        exchange.setProperty("responseCacheKey", key);
+        // Read before the upstream call, so a write evicting the node meanwhile keeps its response out
+        exchange.setProperty("responseCacheGeneration", responseCache.generation(key.nodeId()));
+
+        ResponseCache.Entry entry = responseCache.get(plan.getName(), key);
+        if (entry == null) {
+            return;
+        }
+
+        exchange.getIn().setBody(restamp(entry.body(), Instant.now()));
+        exchange.getIn().setHeader(Exchange.CONTENT_TYPE, entry.contentType());
+        exchange.getIn().setHeader(Exchange.HTTP_RESPONSE_CODE, 200);
+        exchange.setProperty("cacheHit", true);
+        log.debug("Response cache hit for {}", plan.getName());
+    }
+
+    /**
+     * Copy of an envelope with its trailing "timestamp" value replaced; other bodies are returned as they are
+     */
+    static byte[] restamp(byte[] body, Instant now) {
+        int field = lastIndexOf(body, TIMESTAMP_FIELD);
+        if (field < 0) {
+            return body;
+        }
+        int valueStart = field + TIMESTAMP_FIELD.length;
+        int valueEnd = valueStart;
+        while (valueEnd < body.length && body[valueEnd] != '"') {
+            valueEnd++;
+        }
+        if (valueEnd + 2 != body.length || body[valueEnd + 1] != '}') {
+            return body; // not the last field of the envelope
+        }
+        byte[] value = now.toString().getBytes(StandardCharsets.US_ASCII);
+        byte[] restamped = new byte[valueStart + value.length + 2];
+        System.arraycopy(body, 0, restamped, 0, valueStart);
+        System.arraycopy(value, 0, restamped, valueStart, value.length);
+        restamped[restamped.length - 2] = '"';
+        restamped[restamped.length - 1] = '}';
+        return restamped;
+    }
+
+    private static int lastIndexOf(byte[] body, byte[] target) {
+        outer:
+        for (int i = body.length - target.length; i >= 0; i--) {
+            for (int j = 0; j < target.length; j++) {
+                if (body[i + j] != target[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+}
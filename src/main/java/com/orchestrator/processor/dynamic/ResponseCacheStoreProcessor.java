@@ -0,0 +1,46 @@
+package com.orchestrator.processor.dynamic;
+
+import com.orchestrator.cache.ResponseCache;
+import com.orchestrator.config.model.CacheConfig;
+import com.orchestrator.config.plan.EndpointPlan;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.camel.Exchange;
+import org.apache.camel.Processor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Stores transformed responses of cacheable endpoints and applies
+ * node invalidation after successful write endpoints
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ResponseCacheStoreProcessor implements Processor {
+
+    private final ResponseCache responseCache;
+
+    @Override
+    public void process(Exchange exchange) throws Exception {
+        EndpointPlan plan = exchange.getProperty("endpointPlan", EndpointPlan.class);
+        CacheConfig cacheConfig = plan.getConfig().getCache();
+
+        if (cacheConfig != null && cacheConfig.isInvalidate()) {
+            responseCache.evictNode(exchange.getProperty("nodeId", String.class));
+            return;
+        }
+
+        ResponseCache.Key key = exchange.getProperty("responseCacheKey", ResponseCache.Key.class);
+        if (key == null) {
+            return;
+        }
+
+        byte[] body = exchange.getIn().getBody(byte[].class);
+        if (body != null) {
+            responseCache.put(plan.getName(), key,
+                    exchange.getProperty("responseCacheGeneration", 0L, Long.class),
+                    new ResponseCache.Entry(body, exchange.getIn().getHeader(Exchange.CONTENT_TYPE, String.class)));
+            log.debug("Cached response for {} ({} bytes)", plan.getName(), body.length);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.orchestrator.routes;
+
+import com.orchestrator.auth.AuthTicketManager;
+import com.orchestrator.processor.AuthRequestProcessor;
+import com.orchestrator.processor.TokenExtractorProcessor;
+import lombok.RequiredArgsConstructor;
+import org.apache.camel.builder.RouteBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Camel route that fetches a new OTCS ticket for AuthTicketManager
+ *
+ * Flow:
+ * 1. Build form-urlencoded credentials
+ * 2. POST /v1/auth
+ * 3. Extract ticket and return it as the body
+ *
+ * No onException here on purpose: failures must propagate back to the
+ * ticket manager instead of being turned into an error response body.
+ */
+@Component
+@RequiredArgsConstructor
+public class AuthTicketRoute extends RouteBuilder {
+
+    private final AuthRequestProcessor authRequestProcessor;
+    private final TokenExtractorProcessor tokenExtractorProcessor;
+
+    @Value("${orchestrator.auth.url}")
+    private String authUrl;
+
+    @Override
+    public void configure() throws Exception {
+
+        from(AuthTicketManager.FETCH_ROUTE)
+                .routeId("fetch-auth-ticket")
+                .log("═══ AUTH TICKET REFRESH ═══")
+                .log("Calling: " + authUrl + "/v1/auth")
+                .process(authRequestProcessor)
+                .toD(authUrl + "/v1/auth?bridgeEndpoint=true&throwExceptionOnFailure=true")
+                .process(tokenExtractorProcessor)
+                .setBody(exchangeProperty("authToken"))
+                .log("Auth ticket refreshed successfully");
+    }
+}
@@ -1,18 +1,28 @@
 package com.orchestrator.routes;
 
+import com.orchestrator.context.RequestContext;
 import com.orchestrator.exception.GlobalExceptionHandler;
-import com.orchestrator.processor.AuthRequestProcessor;
-import com.orchestrator.processor.TokenExtractorProcessor;
+import com.orchestrator.metrics.OrchestrationMetrics;
+import com.orchestrator.processor.AuthTicketProcessor;
+import com.orchestrator.processor.UpstreamCallProcessor;
+import com.orchestrator.processor.dynamic.ContentCacheProcessor;
+import com.orchestrator.processor.dynamic.DynamicBatchProcessor;
+import com.orchestrator.processor.dynamic.DynamicPaginationProcessor;
 import com.orchestrator.processor.dynamic.DynamicPayloadTransformer;
 import com.orchestrator.processor.dynamic.DynamicResponseTransformer;
+import com.orchestrator.processor.dynamic.DynamicUploadProcessor;
 import com.orchestrator.processor.dynamic.EndpointResolverProcessor;
+import com.orchestrator.processor.dynamic.ParallelDownloadProcessor;
+import com.orchestrator.processor.dynamic.ResponseCacheLookupProcessor;
+import com.orchestrator.processor.dynamic.ResponseCacheStoreProcessor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.camel.Exchange;
 import org.apache.camel.builder.RouteBuilder;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import static com.orchestrator.metrics.OrchestrationMetrics.*;
+
 /**
  * Dynamic orchestration route that handles any configured endpoint
  * 
@@ -20,8 +30,14 @@ import org.springframework.stereotype.Component;
  * 1. Resolve endpoint configuration
  * 2. Authenticate if required
  * 3. Transform payload dynamically
- * 4. Call OpenText API
- * 5. Transform response
+ * 4. Serve from response cache, or call OpenText API
+ * 5. Transform response (or stream it through untouched), cache or invalidate
+ *
+ * POST /api/dynamic/_batch runs many such calls with one authentication.
+ * "allPages": true on a paginated endpoint fetches and streams every page.
+ * Endpoints with a download block fetch large bodies as parallel byte ranges,
+ * and with a contentCache block keep downloaded content on disk.
+ * POST /api/upload/{endpointName} streams a multipart upload to Content Server.
  */
 @Slf4j
 @Component
@@ -29,14 +45,18 @@ import org.springframework.stereotype.Component;
 public class DynamicOrchestrationRoute extends RouteBuilder {
 
     private final EndpointResolverProcessor endpointResolver;
-    private final AuthRequestProcessor authRequestProcessor;
-    private final TokenExtractorProcessor tokenExtractorProcessor;
+    private final AuthTicketProcessor authTicketProcessor;
+    private final UpstreamCallProcessor upstreamCallProcessor;
     private final DynamicPayloadTransformer payloadTransformer;
     private final DynamicResponseTransformer responseTransformer;
+    private final ResponseCacheLookupProcessor cacheLookupProcessor;
+    private final ResponseCacheStoreProcessor cacheStoreProcessor;
+    private final DynamicBatchProcessor batchProcessor;
+    private final DynamicPaginationProcessor paginationProcessor;
+    private final DynamicUploadProcessor uploadProcessor;
+    private final ContentCacheProcessor contentCacheProcessor;
     private final GlobalExceptionHandler globalExceptionHandler;
-
-    @Value("${orchestrator.auth.url}")
-    private String authUrl;
+    private final OrchestrationMetrics metrics;
 
     @Override
     public void configure() throws Exception {
@@ -46,8 +66,12 @@ public class DynamicOrchestrationRoute extends RouteBuilder {
                 .handled(true)
                 .process(globalExceptionHandler);
 
-        // REST endpoint for dynamic orchestration
+        // REST endpoints for dynamic orchestration
         rest("/api/dynamic")
+                .post("/_batch")
+                .consumes("application/json")
+                .produces("application/json")
+                .to("direct:dynamicBatch")
                 .post("/{endpointName}")
                 .consumes("application/json")
                 .produces("application/json")
@@ -57,27 +81,98 @@ public class DynamicOrchestrationRoute extends RouteBuilder {
         from("direct:dynamicOrchestrate")
                 .routeId("dynamic-orchestration")
                 .log("Starting dynamic orchestration - Exchange ID: ${exchangeId}")
-                .setProperty("originalRequest", body())
-                .process(endpointResolver)
+                .process(metrics::begin)
+                .process(RequestContext::capture)
+                .process(metrics.stage(RESOLVE, endpointResolver))
                 .choice()
                 .when(simple("${exchangeProperty.requiresAuth}"))
                 .to("direct:getDynamicAuthToken")
                 .end()
-                .process(payloadTransformer)
+                .choice()
+                .when(paginationProcessor::isRequested)
+                .process(paginationProcessor) // streams the items of every page
+                .otherwise()
+                .to("direct:dynamicExecute")
+                .end()
+                .log("Dynamic orchestration completed successfully");
+
+        // Execute a resolved (and authenticated) endpoint call
+        from("direct:dynamicExecute")
+                .routeId("dynamic-execute")
+                .process(metrics.stage(PAYLOAD_TRANSFORM, payloadTransformer))
+                .process(cacheLookupProcessor)
+                .choice()
+                .when(simple("${exchangeProperty.cacheHit}"))
+                .log("Served from response cache: ${exchangeProperty.targetUrl}")
+                .otherwise()
                 .log("Calling: ${exchangeProperty.targetUrl}")
-                .toD("${exchangeProperty.targetUrl}?bridgeEndpoint=true&throwExceptionOnFailure=true")
-                .process(responseTransformer)
-                .log("Dynamic orchestration completed successfully")
-                .setHeader(Exchange.CONTENT_TYPE, constant("application/json"));
+                // coalesces identical concurrent GETs; downloads come from the content cache
+                // when possible, large ones are fetched as parallel ranges
+                .process(metrics.stage(UPSTREAM, contentCacheProcessor))
+                // sets Content-Type (JSON envelope or upstream type for streams)
+                .process(metrics.stage(RESPONSE_TRANSFORM, responseTransformer))
+                .process(cacheStoreProcessor)
+                .end();
+
+        // Streamed multipart upload; the servlet hands over the raw request stream and
+        // stream caching stays off, so the body is never buffered or spooled
+        from("servlet:/api/upload?matchOnUriPrefix=true&httpMethodRestrict=POST&disableStreamCache=true")
+                .routeId("dynamic-upload")
+                .noStreamCaching()
+                .log("Starting dynamic upload - Exchange ID: ${exchangeId}")
+                .process(metrics::begin)
+                .process(exchange -> exchange.getIn().setHeader("endpointName",
+                        exchange.getIn().getHeader(Exchange.HTTP_PATH, "", String.class).replaceFirst("^/", "")))
+                .process(metrics.stage(RESOLVE, endpointResolver))
+                .process(uploadProcessor::open) // reads the form fields in front of the file
+                .choice()
+                .when(simple("${exchangeProperty.requiresAuth}"))
+                .to("direct:getDynamicAuthToken")
+                .end()
+                .process(metrics.stage(PAYLOAD_TRANSFORM, payloadTransformer))
+                .process(uploadProcessor) // file part flows upstream while the caller sends it
+                .log("Uploading to: ${exchangeProperty.targetUrl}")
+                .process(metrics.stage(UPSTREAM, upstreamCallProcessor))
+                .process(metrics.stage(RESPONSE_TRANSFORM, responseTransformer))
+                .process(cacheStoreProcessor)
+                .log("Dynamic upload completed successfully");
+
+        // Batch of endpoint calls, authenticated once
+        from("direct:dynamicBatch")
+                .routeId("dynamic-batch")
+                .log("Starting dynamic batch - Exchange ID: ${exchangeId}")
+                .setProperty("endpointName", constant("_batch"))
+                .process(metrics::begin)
+                .process(RequestContext::capture)
+                .process(batchProcessor);
+
+        // Single batch item; the batch has already attached the auth token
+        from(DynamicBatchProcessor.ITEM_ROUTE)
+                .routeId("dynamic-batch-item")
+                .process(metrics::begin)
+                .process(RequestContext::capture)
+                .process(metrics.stage(RESOLVE, endpointResolver))
+                .to("direct:dynamicExecute");
+
+        // One page of a paginated endpoint, raw upstream body; the pagination processor sets
+        // the plan, auth token and page overrides
+        from(DynamicPaginationProcessor.PAGE_ROUTE)
+                .routeId("dynamic-page")
+                .process(RequestContext::capture)
+                .process(metrics.stage(PAYLOAD_TRANSFORM, payloadTransformer))
+                .process(metrics.stage(UPSTREAM, upstreamCallProcessor));
+
+        // One byte range of a parallel download, buffered; the download processor sets
+        // the plan, target URL and request headers
+        from(ParallelDownloadProcessor.RANGE_ROUTE)
+                .routeId("dynamic-range")
+                .process(metrics.stage(UPSTREAM, upstreamCallProcessor));
 
-        // Get auth token for dynamic endpoints
+        // Get auth token for dynamic endpoints (shared ticket, refreshed by AuthTicketManager)
         from("direct:getDynamicAuthToken")
                 .routeId("get-dynamic-auth-token")
                 .log("═══ AUTHENTICATION ═══")
-                .log("Calling: " + authUrl + "/v1/auth")
-                .process(authRequestProcessor)
-                .toD(authUrl + "/v1/auth?bridgeEndpoint=true&throwExceptionOnFailure=true")
-                .process(tokenExtractorProcessor)
-                .log("Token extracted successfully");
+                .process(metrics.stage(AUTH, authTicketProcessor))
+                .log("Token attached successfully");
     }
 }
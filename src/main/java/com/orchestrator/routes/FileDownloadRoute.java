@@ -1,14 +1,17 @@
 package com.orchestrator.routes;
 
+import com.orchestrator.context.RequestContext;
 import com.orchestrator.exception.GlobalExceptionHandler;
+import com.orchestrator.metrics.OrchestrationMetrics;
 import com.orchestrator.processor.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.camel.Exchange;
 import org.apache.camel.builder.RouteBuilder;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import static com.orchestrator.metrics.OrchestrationMetrics.*;
+
 /**
  * Camel route for file content download orchestration
  * 
@@ -23,14 +26,11 @@ import org.springframework.stereotype.Component;
 @RequiredArgsConstructor
 public class FileDownloadRoute extends RouteBuilder {
 
-    private final AuthRequestProcessor authRequestProcessor;
-    private final TokenExtractorProcessor tokenExtractorProcessor;
     private final FileDownloadRequestProcessor fileDownloadRequestProcessor;
     private final BinaryToBase64Processor binaryToBase64Processor;
+    private final UpstreamCallProcessor upstreamCallProcessor;
     private final GlobalExceptionHandler globalExceptionHandler;
-
-    @Value("${orchestrator.auth.url}")
-    private String authUrl;
+    private final OrchestrationMetrics metrics;
 
     @Override
     public void configure() throws Exception {
@@ -51,34 +51,24 @@ public class FileDownloadRoute extends RouteBuilder {
         from("direct:downloadFile")
                 .routeId("file-download-orchestration")
                 .log("Starting file download orchestration - Exchange ID: ${exchangeId}")
-                .setProperty("originalRequest", body())
-                .to("direct:getAuthToken")
+                .setProperty("endpointName", constant("orchestrate-download"))
+                .process(metrics::begin)
+                .process(RequestContext::capture)
+                .to("direct:getAuthToken") // defined in TokenOrchestrationRoute
                 .to("direct:downloadFileContent")
                 .log("File download completed successfully")
                 .setHeader(Exchange.CONTENT_TYPE, constant("application/json"));
 
-        // Step 1: Get authentication token (reuse from TokenOrchestrationRoute)
-        from("direct:getAuthToken")
-                .routeId("get-auth-token-download")
-                .log("═══ STEP 1: AUTH TOKEN REQUEST ═══")
-                .log("Calling: " + authUrl + "/v1/auth")
-                .process(authRequestProcessor)
-                .log("Sending POST request to auth endpoint...")
-                .toD(authUrl + "/v1/auth?bridgeEndpoint=true&throwExceptionOnFailure=true")
-                .log("Auth response received successfully")
-                .process(tokenExtractorProcessor)
-                .log("Token extracted successfully");
-
         // Step 2: Download file content and convert to base64
         from("direct:downloadFileContent")
                 .routeId("download-file-content")
                 .log("═══ STEP 2: FILE CONTENT DOWNLOAD ═══")
                 .log("Calling: ${exchangeProperty.contentUrl}")
-                .process(fileDownloadRequestProcessor)
+                .process(metrics.stage(PAYLOAD_TRANSFORM, fileDownloadRequestProcessor))
                 .log("Sending GET request to content endpoint...")
-                .toD("${exchangeProperty.contentUrl}?bridgeEndpoint=true&throwExceptionOnFailure=true")
+                .process(metrics.stage(UPSTREAM, upstreamCallProcessor)) // streams the body when orchestrator.download.streaming is on
                 .log("Binary content received successfully")
-                .process(binaryToBase64Processor)
+                .process(metrics.stage(RESPONSE_TRANSFORM, binaryToBase64Processor))
                 .log("Content converted to base64 with metadata");
     }
 }
@@ -1,19 +1,22 @@
 package com.orchestrator.routes;
 
+import com.orchestrator.context.RequestContext;
 import com.orchestrator.exception.GlobalExceptionHandler;
+import com.orchestrator.metrics.OrchestrationMetrics;
 import com.orchestrator.processor.*;
 import lombok.RequiredArgsConstructor;
 import org.apache.camel.Exchange;
 import org.apache.camel.builder.RouteBuilder;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import static com.orchestrator.metrics.OrchestrationMetrics.*;
+
 /**
  * Token-based Orchestration Route
  * 
  * Flow:
  * 1. Receive request with {id, metadata?, supper_response_codes?}
- * 2. Get authentication token via POST /v1/auth
+ * 2. Get authentication token (cached, refreshed via POST /v1/auth)
  * 3. Call GET /v2/nodes/{id}/categories with Bearer token
  * 4. Return response
  * 
@@ -24,14 +27,12 @@ import org.springframework.stereotype.Component;
 @RequiredArgsConstructor
 public class TokenOrchestrationRoute extends RouteBuilder {
 
-    private final AuthRequestProcessor authRequestProcessor;
-    private final TokenExtractorProcessor tokenExtractorProcessor;
+    private final AuthTicketProcessor authTicketProcessor;
     private final CategoriesRequestProcessor categoriesRequestProcessor;
     private final ResponseValidatorProcessor responseValidatorProcessor;
+    private final UpstreamCallProcessor upstreamCallProcessor;
     private final GlobalExceptionHandler globalExceptionHandler;
-
-    @Value("${orchestrator.auth.url}")
-    private String authUrl;
+    private final OrchestrationMetrics metrics;
 
     @Override
     public void configure() throws Exception {
@@ -52,34 +53,31 @@ public class TokenOrchestrationRoute extends RouteBuilder {
         from("direct:orchestrate")
                 .routeId("token-orchestration-flow")
                 .log("Starting orchestration - Exchange ID: ${exchangeId}")
-                .setProperty("originalRequest", body())
+                .setProperty("endpointName", constant("orchestrate-execute"))
+                .process(metrics::begin)
+                .process(RequestContext::capture)
                 .to("direct:getAuthToken")
                 .to("direct:callCategoriesEndpoint")
                 .log("Orchestration completed successfully")
                 .setHeader(Exchange.CONTENT_TYPE, constant("application/json"));
 
-        // Step 1: Get authentication token
+        // Step 1: Get authentication token (shared ticket, refreshed by AuthTicketManager)
         from("direct:getAuthToken")
                 .routeId("get-auth-token")
-                .log("═══ STEP 1: AUTH TOKEN REQUEST ═══")
-                .log("Calling: " + authUrl + "/v1/auth")
-                .process(authRequestProcessor)
-                .log("Sending POST request to auth endpoint...")
-                .toD(authUrl + "/v1/auth?bridgeEndpoint=true&throwExceptionOnFailure=true")
-                .log("Auth response received successfully")
-                .process(tokenExtractorProcessor)
-                .log("Token extracted successfully");
+                .log("═══ STEP 1: AUTH TOKEN ═══")
+                .process(metrics.stage(AUTH, authTicketProcessor))
+                .log("Token attached successfully");
 
         // Step 2: Call categories endpoint with token
         from("direct:callCategoriesEndpoint")
                 .routeId("call-categories-endpoint")
                 .log("═══ STEP 2: CATEGORIES API REQUEST ═══")
                 .log("Calling: ${exchangeProperty.targetUrl}")
-                .process(categoriesRequestProcessor)
+                .process(metrics.stage(PAYLOAD_TRANSFORM, categoriesRequestProcessor))
                 .log("Sending GET request to categories endpoint...")
-                .toD("${exchangeProperty.targetUrl}?bridgeEndpoint=true&throwExceptionOnFailure=true")
+                .process(metrics.stage(UPSTREAM, upstreamCallProcessor)) // non-blocking, servlet request suspended
                 .log("Categories response received successfully")
-                .process(responseValidatorProcessor)
+                .process(metrics.stage(RESPONSE_TRANSFORM, responseValidatorProcessor))
                 .log("Response validation completed");
     }
 }
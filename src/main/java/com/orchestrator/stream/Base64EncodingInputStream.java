@@ -0,0 +1,104 @@
+package com.orchestrator.stream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * InputStream that base64-encodes another stream on the fly
+ *
+ * Reads the source in fixed chunks (a multiple of 3 bytes so padding only
+ * appears at the very end), so memory use is constant regardless of the
+ * source size.
+ */
+public class Base64EncodingInputStream extends InputStream {
+
+    private static final int RAW_CHUNK_SIZE = 3 * 16 * 1024;
+
+    private final InputStream source;
+    private final Base64.Encoder encoder = Base64.getEncoder();
+    private final byte[] raw = new byte[RAW_CHUNK_SIZE];
+    private final byte[] encoded = new byte[RAW_CHUNK_SIZE / 3 * 4];
+
+    private byte[] current = encoded;
+    private int position;
+    private int limit;
+    private boolean eof;
+    private long sourceBytes;
+
+    public Base64EncodingInputStream(InputStream source) {
+        this.source = source;
+    }
+
+    /**
+     * Number of raw bytes consumed from the source so far
+     */
+    public long getSourceBytes() {
+        return sourceBytes;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (position >= limit && !fill()) {
+            return -1;
+        }
+        return current[position++] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        if (position >= limit && !fill()) {
+            return -1;
+        }
+        int count = Math.min(length, limit - position);
+        System.arraycopy(current, position, buffer, offset, count);
+        position += count;
+        return count;
+    }
+
+    @Override
+    public int available() {
+        return limit - position;
+    }
+
+    @Override
+    public void close() throws IOException {
+        source.close();
+    }
+
+    private boolean fill() throws IOException {
+        if (eof) {
+            return false;
+        }
+
+        int filled = 0;
+        while (filled < RAW_CHUNK_SIZE) {
+            int read = source.read(raw, filled, RAW_CHUNK_SIZE - filled);
+            if (read < 0) {
+                eof = true;
+                break;
+            }
+            filled += read;
+        }
+
+        if (filled == 0) {
+            return false;
+        }
+        sourceBytes += filled;
+
+        if (filled == RAW_CHUNK_SIZE) {
+            current = encoded;
+            limit = encoder.encode(raw, encoded);
+        } else {
+            // Final partial chunk, the only one that may carry padding
+            current = encoder.encode(Arrays.copyOf(raw, filled));
+            limit = current.length;
+        }
+        position = 0;
+        return true;
+    }
+}
@@ -0,0 +1,48 @@
+package com.orchestrator.stream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+
+/**
+ * Builds the binary download JSON envelope as a stream
+ *
+ * Output: {...metadata, "base64Content":"<encoded content>", "timestamp":"..."}
+ * Only the metadata prefix and the suffix are materialized; the content is
+ * encoded chunk by chunk while the caller reads.
+ */
+public final class Base64Envelope {
+
+    private Base64Envelope() {
+    }
+
+    /**
+     * Open the envelope stream over the given binary content
+     */
+    public static InputStream open(ObjectMapper objectMapper, ObjectNode metadata, InputStream content)
+            throws IOException {
+        byte[] prefix;
+        if (metadata.isEmpty()) {
+            prefix = "{\"base64Content\":\"".getBytes(StandardCharsets.UTF_8);
+        } else {
+            byte[] header = objectMapper.writeValueAsBytes(metadata);
+            byte[] fieldStart = ",\"base64Content\":\"".getBytes(StandardCharsets.UTF_8);
+            // Drop the closing brace and continue the object with the content field
+            prefix = Arrays.copyOf(header, header.length - 1 + fieldStart.length);
+            System.arraycopy(fieldStart, 0, prefix, header.length - 1, fieldStart.length);
+        }
+
+        byte[] suffix = ("\",\"timestamp\":\"" + Instant.now() + "\"}").getBytes(StandardCharsets.UTF_8);
+
+        return new SequenceInputStream(
+                new SequenceInputStream(new ByteArrayInputStream(prefix), new Base64EncodingInputStream(content)),
+                new ByteArrayInputStream(suffix));
+    }
+}
@@ -0,0 +1,115 @@
+package com.orchestrator.stream;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.function.Supplier;
+
+/**
+ * InputStream that writes JSON documents as one JSON array inside an envelope
+ *
+ * Output: prefix, then [doc,doc,...], then the suffix. Like NdjsonInputStream,
+ * documents are pulled from the iterator one at a time as the reader consumes
+ * the stream. The suffix is produced after the last document, so it can carry
+ * totals that are only known at the end.
+ */
+public class JsonArrayInputStream extends InputStream {
+
+    private static final byte[] OPEN = {'['};
+    private static final byte[] CLOSE = {']'};
+
+    private final ObjectMapper objectMapper;
+    private final Iterator<? extends JsonNode> source;
+    private final Supplier<byte[]> suffix;
+
+    private byte[] chunk;
+    private int position;
+    private int documents;
+    private int state; // next chunk: 1 "[", 2 documents then "]", 3 suffix, 4 end of stream
+
+    public JsonArrayInputStream(ObjectMapper objectMapper, byte[] prefix, Iterator<? extends JsonNode> source,
+                                Supplier<byte[]> suffix) {
+        this.objectMapper = objectMapper;
+        this.source = source;
+        this.suffix = suffix;
+        this.chunk = prefix;
+        this.state = 1;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!advance()) {
+            return -1;
+        }
+        return chunk[position++] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        if (!advance()) {
+            return -1;
+        }
+        int count = Math.min(length, chunk.length - position);
+        System.arraycopy(chunk, position, buffer, offset, count);
+        position += count;
+        return count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (source instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (IOException | RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IOException(e);
+            }
+        }
+    }
+
+    private boolean advance() throws IOException {
+        while (chunk == null || position >= chunk.length) {
+            position = 0;
+            try {
+                switch (state) {
+                    case 1 -> {
+                        chunk = OPEN;
+                        state = 2;
+                    }
+                    case 2 -> {
+                        if (source.hasNext()) {
+                            byte[] document = objectMapper.writeValueAsBytes(source.next());
+                            if (documents++ > 0) {
+                                chunk = new byte[document.length + 1];
+                                chunk[0] = ',';
+                                System.arraycopy(document, 0, chunk, 1, document.length);
+                            } else {
+                                chunk = document;
+                            }
+                        } else {
+                            chunk = CLOSE;
+                            state = 3;
+                        }
+                    }
+                    case 3 -> {
+                        chunk = suffix.get();
+                        state = 4;
+                    }
+                    default -> {
+                        return false;
+                    }
+                }
+            } catch (RuntimeException e) {
+                throw new IOException("Failed to produce next JSON array element: " + e.getMessage(), e);
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,152 @@
+package com.orchestrator.stream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+
+/**
+ * Builds the JSON response envelope around an upstream JSON body without parsing it
+ *
+ * Output: {...fields, "data":<upstream body, byte for byte>, "timestamp":"..."}
+ * The upstream bytes are copied verbatim as the data value and only checked for
+ * well-formedness, so number precision and formatting are kept as sent.
+ * An empty body becomes "data":null.
+ */
+public final class JsonEnvelope {
+
+    private JsonEnvelope() {
+    }
+
+    /**
+     * Envelope a buffered body; fails before anything is returned if it is not valid JSON
+     */
+    public static byte[] wrap(ObjectMapper objectMapper, ObjectNode fields, byte[] data) throws IOException {
+        if (data == null || data.length == 0) {
+            data = "null".getBytes(StandardCharsets.UTF_8);
+        } else {
+            JsonWellFormedness.validate(objectMapper.getFactory(), data);
+        }
+
+        byte[] prefix = prefix(objectMapper, fields);
+        byte[] suffix = suffix();
+        byte[] envelope = Arrays.copyOf(prefix, prefix.length + data.length + suffix.length);
+        System.arraycopy(data, 0, envelope, prefix.length, data.length);
+        System.arraycopy(suffix, 0, envelope, prefix.length + data.length, suffix.length);
+        return envelope;
+    }
+
+    /**
+     * Envelope a streamed body while the caller reads
+     * The body is validated as it passes; a malformed or truncated body fails the
+     * read at the point it is detected, so the response is aborted rather than
+     * completed as invalid JSON.
+     */
+    public static InputStream open(ObjectMapper objectMapper, ObjectNode fields, InputStream data)
+            throws IOException {
+        return new SequenceInputStream(
+                new SequenceInputStream(new ByteArrayInputStream(prefix(objectMapper, fields)),
+                        new ValidatingInputStream(data, new JsonWellFormedness(objectMapper.getFactory()))),
+                new ByteArrayInputStream(suffix()));
+    }
+
+    private static byte[] prefix(ObjectMapper objectMapper, ObjectNode fields) throws IOException {
+        if (fields.isEmpty()) {
+            return "{\"data\":".getBytes(StandardCharsets.UTF_8);
+        }
+        byte[] header = objectMapper.writeValueAsBytes(fields);
+        byte[] fieldStart = ",\"data\":".getBytes(StandardCharsets.UTF_8);
+        // Drop the closing brace and continue the object with the data field
+        byte[] prefix = Arrays.copyOf(header, header.length - 1 + fieldStart.length);
+        System.arraycopy(fieldStart, 0, prefix, header.length - 1, fieldStart.length);
+        return prefix;
+    }
+
+    private static byte[] suffix() {
+        return (",\"timestamp\":\"" + Instant.now() + "\"}").getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Passes bytes through unchanged while feeding them to the well-formedness check
+     */
+    private static final class ValidatingInputStream extends FilterInputStream {
+
+        private static final byte[] NULL = "null".getBytes(StandardCharsets.UTF_8);
+
+        private final JsonWellFormedness check;
+        private long count;
+        private boolean finished;
+        private byte[] replacement;
+        private int replacementPosition;
+
+        ValidatingInputStream(InputStream in, JsonWellFormedness check) {
+            super(in);
+            this.check = check;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            int read = read(single, 0, 1);
+            return read < 0 ? -1 : single[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            if (replacement != null) {
+                if (replacementPosition == replacement.length) {
+                    return -1;
+                }
+                int count = Math.min(length, replacement.length - replacementPosition);
+                System.arraycopy(replacement, replacementPosition, buffer, offset, count);
+                replacementPosition += count;
+                return count;
+            }
+            if (finished) {
+                return -1;
+            }
+
+            int read = in.read(buffer, offset, length);
+            if (read > 0) {
+                check.feed(buffer, offset, read);
+                count += read;
+            } else if (read < 0) {
+                finished = true;
+                if (count == 0) {
+                    // Same as the buffered case: no content is a null data value
+                    replacement = NULL;
+                    return read(buffer, offset, length);
+                }
+                check.finish();
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            // Skipped bytes must still be validated
+            byte[] discard = new byte[(int) Math.min(n, 8192)];
+            return Math.max(read(discard, 0, discard.length), 0);
+        }
+
+        @Override
+        public int available() {
+            return 0;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.orchestrator.stream;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+
+import java.io.IOException;
+
+/**
+ * Incremental check that a byte sequence is exactly one well-formed JSON value
+ *
+ * Bytes are fed as they arrive to Jackson's non-blocking parser, which only
+ * tokenizes: no tree, no field names interned into maps, no number conversion.
+ * Each fed chunk is fully tokenized before feed returns, so the caller may
+ * reuse its buffer afterwards.
+ */
+public final class JsonWellFormedness {
+
+    private final JsonParser parser;
+    private final ByteArrayFeeder feeder;
+    private int depth;
+    private boolean complete;
+
+    public JsonWellFormedness(JsonFactory jsonFactory) throws IOException {
+        this.parser = jsonFactory.createNonBlockingByteArrayParser();
+        this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+    }
+
+    /**
+     * Check a complete document in one pass
+     */
+    public static void validate(JsonFactory jsonFactory, byte[] json) throws IOException {
+        JsonWellFormedness check = new JsonWellFormedness(jsonFactory);
+        check.feed(json, 0, json.length);
+        check.finish();
+    }
+
+    public void feed(byte[] buffer, int offset, int length) throws IOException {
+        if (length > 0) {
+            feeder.feedInput(buffer, offset, offset + length);
+            drain();
+        }
+    }
+
+    /**
+     * Signal end of input; fails unless exactly one complete value was read
+     */
+    public void finish() throws IOException {
+        feeder.endOfInput();
+        drain();
+        parser.close();
+        if (!complete) {
+            throw new JsonParseException(parser, "Truncated JSON: input ended inside a value");
+        }
+    }
+
+    private void drain() throws IOException {
+        JsonToken token;
+        while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+            if (complete) {
+                throw new JsonParseException(parser, "Unexpected content after the JSON value: " + token);
+            }
+            if (token.isStructStart()) {
+                depth++;
+            } else if (token.isStructEnd()) {
+                depth--;
+            }
+            complete = depth == 0;
+        }
+    }
+}
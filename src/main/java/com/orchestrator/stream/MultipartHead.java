@@ -0,0 +1,294 @@
+package com.orchestrator.stream;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Leading part of a multipart/form-data body, read up to the first file part
+ *
+ * Text parts in front of the file are read into fields. The file content is not
+ * read at all: the remainder continues right after the file part's headers, so
+ * the content and everything after it (closing delimiter included) can be
+ * forwarded as is, without scanning it for the boundary. Callers therefore
+ * send their form fields before the file, as browsers and HTTP clients do.
+ *
+ * Part headers are kept as ISO-8859-1 so file names are forwarded byte for byte.
+ */
+public final class MultipartHead {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final String boundary;
+    private final Map<String, String> fields;
+    private final String fileName;
+    private final String fileContentType;
+    private final InputStream remainder;
+    private final long consumed;
+
+    private MultipartHead(String boundary, Map<String, String> fields, String fileName, String fileContentType,
+                          InputStream remainder, long consumed) {
+        this.boundary = boundary;
+        this.fields = fields;
+        this.fileName = fileName;
+        this.fileContentType = fileContentType;
+        this.remainder = remainder;
+        this.consumed = consumed;
+    }
+
+    /**
+     * Boundary parameter of a multipart/form-data Content-Type
+     */
+    public static String boundary(String contentType) {
+        if (contentType == null || !contentType.toLowerCase(Locale.ROOT).startsWith("multipart/form-data")) {
+            throw new IllegalArgumentException("Upload must be sent as multipart/form-data");
+        }
+        String value = parameter(contentType, "boundary");
+        if (value == null || value.isEmpty() || value.length() > 70) {
+            throw new IllegalArgumentException("Multipart Content-Type has no valid boundary");
+        }
+        return value;
+    }
+
+    /**
+     * Read the preamble, the text parts and the headers of the first file part
+     *
+     * @param maxBytes upper bound on the bytes read before the file content
+     */
+    public static MultipartHead read(InputStream body, String boundary, int maxBytes) throws IOException {
+        Reader reader = new Reader(new BufferedInputStream(body, BUFFER_SIZE), maxBytes);
+        String dashBoundary = "--" + boundary;
+        byte[] delimiter = ("\r\n" + dashBoundary).getBytes(StandardCharsets.ISO_8859_1);
+
+        String line;
+        do {
+            line = reader.line();
+            if (line == null) {
+                throw new IllegalArgumentException("Multipart body has no parts");
+            }
+        } while (!line.startsWith(dashBoundary));
+
+        Map<String, String> fields = new LinkedHashMap<>();
+        while (!line.startsWith(dashBoundary + "--")) {
+            String disposition = null;
+            String contentType = null;
+            for (String header = reader.line(); header != null && !header.isEmpty(); header = reader.line()) {
+                int colon = header.indexOf(':');
+                String name = colon > 0 ? header.substring(0, colon).trim() : "";
+                if (name.equalsIgnoreCase("Content-Disposition")) {
+                    disposition = header.substring(colon + 1).trim();
+                } else if (name.equalsIgnoreCase("Content-Type")) {
+                    contentType = header.substring(colon + 1).trim();
+                }
+            }
+
+            String name = disposition != null ? parameter(disposition, "name") : null;
+            String fileName = disposition != null ? parameter(disposition, "filename") : null;
+            if (fileName != null) {
+                return new MultipartHead(boundary, Collections.unmodifiableMap(fields), fileName, contentType,
+                        reader.in, reader.count);
+            }
+            if (name == null) {
+                throw new IllegalArgumentException("Multipart part without a form field name");
+            }
+
+            fields.put(new String(name.getBytes(StandardCharsets.ISO_8859_1), StandardCharsets.UTF_8),
+                    new String(reader.until(delimiter), StandardCharsets.UTF_8));
+            // Rest of the delimiter line: "--" closes the body, otherwise another part follows
+            String rest = reader.line();
+            line = dashBoundary + (rest != null ? rest : "--");
+        }
+        throw new IllegalArgumentException("Multipart body has no file part");
+    }
+
+    public String getBoundary() {
+        return boundary;
+    }
+
+    /**
+     * Text fields in front of the file part, in body order
+     */
+    public Map<String, String> getFields() {
+        return fields;
+    }
+
+    /**
+     * File name as sent by the caller
+     */
+    public String getFileName() {
+        return new String(fileName.getBytes(StandardCharsets.ISO_8859_1), StandardCharsets.UTF_8);
+    }
+
+    public String getFileContentType() {
+        return fileContentType;
+    }
+
+    /**
+     * The file content and the rest of the body; the closing delimiter ends it
+     */
+    public InputStream getRemainder() {
+        return remainder;
+    }
+
+    /**
+     * Bytes of the body read before the file content
+     */
+    public long getConsumed() {
+        return consumed;
+    }
+
+    /**
+     * Form fields and file part headers that, followed by the remainder, make a
+     * multipart body with the same boundary
+     */
+    public byte[] prefix(Map<String, String> formFields, String filePart) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+        byte[] dashBoundary = ("--" + boundary).getBytes(StandardCharsets.ISO_8859_1);
+        formFields.forEach((name, value) -> {
+            if (value.contains("--" + boundary)) {
+                throw new IllegalArgumentException("Form field '" + name + "' contains the multipart boundary");
+            }
+            out.writeBytes(dashBoundary);
+            out.writeBytes(("\r\nContent-Disposition: form-data; name=\"" + quote(name) + "\"\r\n\r\n")
+                    .getBytes(StandardCharsets.UTF_8));
+            out.writeBytes(value.getBytes(StandardCharsets.UTF_8));
+            out.writeBytes(new byte[]{'\r', '\n'});
+        });
+
+        StringBuilder headers = new StringBuilder(128)
+                .append("--").append(boundary)
+                .append("\r\nContent-Disposition: form-data; name=\"").append(quote(filePart))
+                .append("\"; filename=\"").append(quote(fileName)).append("\"\r\n");
+        if (fileContentType != null) {
+            headers.append("Content-Type: ").append(fileContentType).append("\r\n");
+        }
+        headers.append("\r\n");
+        out.writeBytes(headers.toString().getBytes(StandardCharsets.ISO_8859_1));
+        return out.toByteArray();
+    }
+
+    private static String quote(String value) {
+        return value.replace("\"", "%22").replace("\r", "").replace("\n", "");
+    }
+
+    /**
+     * Value of a header parameter; quoted values may contain ';' and escaped quotes
+     */
+    static String parameter(String header, String name) {
+        int position = header.indexOf(';');
+        while (position >= 0 && position < header.length()) {
+            int start = position + 1;
+            int equals = header.indexOf('=', start);
+            if (equals < 0) {
+                return null;
+            }
+            String key = header.substring(start, equals).trim();
+
+            int valueStart = equals + 1;
+            while (valueStart < header.length() && header.charAt(valueStart) == ' ') {
+                valueStart++;
+            }
+            String value;
+            int end;
+            if (valueStart < header.length() && header.charAt(valueStart) == '"') {
+                StringBuilder quoted = new StringBuilder();
+                end = valueStart + 1;
+                while (end < header.length() && header.charAt(end) != '"') {
+                    char c = header.charAt(end);
+                    if (c == '\\' && end + 1 < header.length()) {
+                        c = header.charAt(++end);
+                    }
+                    quoted.append(c);
+                    end++;
+                }
+                value = quoted.toString();
+                end = header.indexOf(';', end);
+            } else {
+                end = header.indexOf(';', valueStart);
+                value = header.substring(valueStart, end < 0 ? header.length() : end).trim();
+            }
+
+            if (key.equalsIgnoreCase(name)) {
+                return value;
+            }
+            position = end;
+        }
+        return null;
+    }
+
+    /**
+     * Byte-level reader over the head, counting what it consumes
+     */
+    private static final class Reader {
+        final InputStream in;
+        final int maxBytes;
+        long count;
+
+        Reader(InputStream in, int maxBytes) {
+            this.in = in;
+            this.maxBytes = maxBytes;
+        }
+
+        int read() throws IOException {
+            int b = in.read();
+            if (b >= 0 && ++count > maxBytes) {
+                throw new IllegalArgumentException("Multipart fields in front of the file exceed " + maxBytes + " bytes");
+            }
+            return b;
+        }
+
+        /**
+         * Next line without its CRLF, or null at the end of the body
+         */
+        String line() throws IOException {
+            StringBuilder line = new StringBuilder(80);
+            int b = read();
+            if (b < 0) {
+                return null;
+            }
+            while (b >= 0) {
+                if (b == '\n') {
+                    int length = line.length();
+                    if (length > 0 && line.charAt(length - 1) == '\r') {
+                        line.setLength(length - 1);
+                    }
+                    return line.toString();
+                }
+                line.append((char) b);
+                b = read();
+            }
+            return line.toString();
+        }
+
+        /**
+         * Bytes up to the delimiter, which is consumed but not returned
+         */
+        byte[] until(byte[] delimiter) throws IOException {
+            byte[] buffer = new byte[256];
+            int length = 0;
+            byte last = delimiter[delimiter.length - 1];
+            while (true) {
+                int b = read();
+                if (b < 0) {
+                    throw new IllegalArgumentException("Multipart body ended inside a form field");
+                }
+                if (length == buffer.length) {
+                    buffer = Arrays.copyOf(buffer, length * 2);
+                }
+                buffer[length++] = (byte) b;
+                if (b == (last & 0xff) && length >= delimiter.length
+                        && Arrays.equals(buffer, length - delimiter.length, length,
+                        delimiter, 0, delimiter.length)) {
+                    return Arrays.copyOf(buffer, length - delimiter.length);
+                }
+            }
+        }
+    }
+}
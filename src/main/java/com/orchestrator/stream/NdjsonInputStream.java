@@ -0,0 +1,81 @@
+package com.orchestrator.stream;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Iterator;
+
+/**
+ * InputStream that writes JSON documents as newline-delimited JSON
+ *
+ * Documents are pulled from the iterator one at a time as the reader consumes
+ * the stream, so only the current line is held in memory.
+ */
+public class NdjsonInputStream extends InputStream {
+
+    private final ObjectMapper objectMapper;
+    private final Iterator<? extends JsonNode> source;
+
+    private byte[] line;
+    private int position;
+
+    public NdjsonInputStream(ObjectMapper objectMapper, Iterator<? extends JsonNode> source) {
+        this.objectMapper = objectMapper;
+        this.source = source;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!advance()) {
+            return -1;
+        }
+        return line[position++] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        if (!advance()) {
+            return -1;
+        }
+        int count = Math.min(length, line.length - position);
+        System.arraycopy(line, position, buffer, offset, count);
+        position += count;
+        return count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (source instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (IOException | RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IOException(e);
+            }
+        }
+    }
+
+    private boolean advance() throws IOException {
+        while (line == null || position >= line.length) {
+            try {
+                if (!source.hasNext()) {
+                    return false;
+                }
+                byte[] document = objectMapper.writeValueAsBytes(source.next());
+                line = Arrays.copyOf(document, document.length + 1);
+                line[document.length] = '\n';
+                position = 0;
+            } catch (RuntimeException e) {
+                throw new IOException("Failed to produce next NDJSON line: " + e.getMessage(), e);
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,163 @@
+package com.orchestrator.stream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * Reassembles a body fetched as consecutive byte ranges, in order
+ *
+ * The first range is read straight from the stream that probed for range
+ * support; the following ranges are fetched in parallel and handed out in
+ * order. Ranges are requested in order and at most 'window' of them are in
+ * flight or waiting to be read, so a slow range holds back at most that many
+ * buffered ranges: memory per download stays below window x range size.
+ */
+public final class RangeReassemblyInputStream extends InputStream {
+
+    /**
+     * Fetches one range; returns exactly the requested bytes or fails
+     */
+    @FunctionalInterface
+    public interface RangeFetcher {
+        byte[] fetch(long from, long to);
+    }
+
+    private final InputStream first;
+    private final long total;
+    private final long rangeSize;
+    private final int window;
+    private final RangeFetcher fetcher;
+    private final Executor executor;
+    private final CompletableFuture<byte[]>[] ranges;
+
+    private long firstRemaining;
+    private int current; // index of the range being read, 0 is the first stream
+    private byte[] buffer;
+    private int position;
+    private volatile boolean closed;
+
+    /**
+     * @param first     remaining body of the first range response, rangeSize bytes
+     * @param total     full length of the body
+     * @param rangeSize bytes per range
+     * @param window    ranges in flight or buffered ahead of the reader
+     */
+    @SuppressWarnings("unchecked")
+    public RangeReassemblyInputStream(InputStream first, long total, long rangeSize, int window,
+                                      RangeFetcher fetcher, Executor executor) {
+        this.first = first;
+        this.total = total;
+        this.rangeSize = rangeSize;
+        this.window = Math.max(1, window);
+        this.fetcher = fetcher;
+        this.executor = executor;
+        this.firstRemaining = Math.min(rangeSize, total);
+        this.ranges = new CompletableFuture[(int) ((total + rangeSize - 1) / rangeSize)];
+
+        for (int index = 1; index <= this.window && index < ranges.length; index++) {
+            request(index);
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] single = new byte[1];
+        int read = read(single, 0, 1);
+        return read < 0 ? -1 : single[0] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] target, int offset, int length) throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+        if (length == 0) {
+            return 0;
+        }
+
+        if (current == 0) {
+            if (firstRemaining > 0) {
+                int read = first.read(target, offset, (int) Math.min(length, firstRemaining));
+                if (read < 0) {
+                    throw new IOException("Range 0 ended after " + (Math.min(rangeSize, total) - firstRemaining)
+                            + " of " + Math.min(rangeSize, total) + " bytes");
+                }
+                firstRemaining -= read;
+                return read;
+            }
+            first.close();
+            if (!next()) {
+                return -1;
+            }
+        }
+
+        while (position == buffer.length) {
+            if (!next()) {
+                return -1;
+            }
+        }
+        int read = Math.min(length, buffer.length - position);
+        System.arraycopy(buffer, position, target, offset, read);
+        position += read;
+        return read;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        buffer = null;
+        for (CompletableFuture<byte[]> range : ranges) {
+            if (range != null) {
+                range.cancel(false);
+            }
+        }
+        first.close();
+    }
+
+    /**
+     * Move to the following range, waiting for it if needed
+     */
+    private boolean next() throws IOException {
+        if (current > 0) {
+            ranges[current] = null;
+        }
+        current++;
+        if (current >= ranges.length) {
+            buffer = new byte[0];
+            position = 0;
+            return false;
+        }
+        // The range being read counts against the window until it is consumed
+        if (current + window - 1 < ranges.length && ranges[current + window - 1] == null) {
+            request(current + window - 1);
+        }
+        try {
+            buffer = ranges[current].join();
+            position = 0;
+            return true;
+        } catch (CompletionException e) {
+            throw new IOException("Range " + current + " failed: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    private void request(int index) {
+        long from = index * rangeSize;
+        long to = Math.min(from + rangeSize, total) - 1;
+        ranges[index] = CompletableFuture.supplyAsync(() -> {
+            if (closed) {
+                throw new IllegalStateException("Download cancelled");
+            }
+            byte[] bytes = fetcher.fetch(from, to);
+            if (bytes.length != to - from + 1) {
+                throw new IllegalStateException("Range " + from + "-" + to + " returned " + bytes.length + " bytes");
+            }
+            return bytes;
+        }, executor);
+    }
+}
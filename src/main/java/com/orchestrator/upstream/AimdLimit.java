@@ -0,0 +1,122 @@
+package com.orchestrator.upstream;
+
+/**
+ * Additive-increase / multiplicative-decrease limit on concurrent calls to one host
+ *
+ * Every successful call made while the host was busy (at least half the limit
+ * in flight) raises the limit by 1/limit, about one per round of calls.
+ * An overload signal (429, 503, timeout) multiplies it by the backoff ratio,
+ * at most once per round: calls that were already in flight when the limit
+ * was cut do not cut it again. Retry-After pauses the host altogether.
+ * Not thread safe; callers synchronize.
+ */
+public final class AimdLimit {
+
+    public enum Outcome {
+        /** Answered normally */
+        SUCCESS,
+        /** Content Server is overloaded */
+        DROPPED,
+        /** Says nothing about load, e.g. a 404 or a call refused locally */
+        IGNORED
+    }
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+
+    private double limit;
+    private int inFlight;
+    private long lastDecrease = Long.MIN_VALUE;
+    private long pausedUntil;
+    private boolean paused;
+
+    public AimdLimit(int initialLimit, int minLimit, int maxLimit, double backoffRatio) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.backoffRatio = backoffRatio;
+        this.limit = Math.min(this.maxLimit, Math.max(this.minLimit, initialLimit));
+    }
+
+    /**
+     * Take a slot if the host is below its limit and not paused
+     */
+    public boolean tryAcquire(long now) {
+        return tryAcquire(now, 1);
+    }
+
+    /**
+     * Take 'slots' slots at once if they all fit below the limit and the host is not paused
+     */
+    public boolean tryAcquire(long now, int slots) {
+        if (remainingPause(now) > 0 || inFlight + slots > (int) limit) {
+            return false;
+        }
+        inFlight += slots;
+        return true;
+    }
+
+    /**
+     * Return the slot of a call that started at 'started' and ended at 'now'
+     */
+    public void release(Outcome outcome, long started, long now) {
+        record(outcome, started, now);
+        inFlight--;
+    }
+
+    /**
+     * Return slots taken with tryAcquire(now, slots) without an outcome of their own
+     */
+    public void release(int slots) {
+        inFlight -= slots;
+    }
+
+    /**
+     * Adjust the limit to the outcome of a call that keeps its slot, e.g. one of several reserved together
+     */
+    public void record(Outcome outcome, long started, long now) {
+        switch (outcome) {
+            case SUCCESS -> {
+                if (inFlight * 2 >= limit) {
+                    limit = Math.min(maxLimit, limit + 1 / limit);
+                }
+            }
+            case DROPPED -> {
+                if (started > lastDecrease) {
+                    limit = Math.max(minLimit, limit * backoffRatio);
+                    lastDecrease = now;
+                }
+            }
+            case IGNORED -> {
+            }
+        }
+    }
+
+    /**
+     * Admit nothing new before 'until', as asked by a Retry-After header
+     */
+    public void pause(long until) {
+        if (!paused || until > pausedUntil) {
+            pausedUntil = until;
+            paused = true;
+        }
+    }
+
+    /**
+     * Nanoseconds until the host admits calls again after a Retry-After, 0 if it is not paused
+     */
+    public long remainingPause(long now) {
+        if (paused && now >= pausedUntil) {
+            paused = false;
+        }
+        return paused ? pausedUntil - now : 0;
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight;
+    }
+}
@@ -0,0 +1,157 @@
+package com.orchestrator.upstream;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Failure-rate circuit breaker over the outcomes of the last 'window' calls
+ *
+ * CLOSED lets calls through and opens once at least 'minimumCalls' outcomes are
+ * recorded and the failing share reaches the threshold. OPEN rejects calls
+ * until 'openNanos' have passed, then HALF_OPEN admits 'trialCalls' calls: all
+ * of them succeeding closes the breaker, any failure opens it again.
+ *
+ * Every transition starts a new generation. A permit carries the generation it
+ * was issued in and its outcome only counts within that generation, so a slow
+ * call admitted while CLOSED cannot settle a later HALF_OPEN trial.
+ */
+public final class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    /**
+     * Returned by tryAcquire when the call may not go ahead
+     */
+    public static final long REJECTED = -1;
+
+    @FunctionalInterface
+    public interface Listener {
+        void onTransition(State from, State to);
+    }
+
+    private final double failureRateThreshold;
+    private final int minimumCalls;
+    private final long openNanos;
+    private final int trialCalls;
+    private final LongSupplier nanoClock;
+    private final Listener listener;
+
+    private final boolean[] outcomes;
+    private int next;
+    private int recorded;
+    private int failures;
+
+    private State state = State.CLOSED;
+    private long generation;
+    private long openedAt;
+    private int trialPermits;
+    private int trialSuccesses;
+
+    /**
+     * @param failureRateThreshold failing share of the window, 0..1, that opens the breaker
+     */
+    public CircuitBreaker(double failureRateThreshold, int window, int minimumCalls, long openNanos,
+                          int trialCalls, LongSupplier nanoClock, Listener listener) {
+        this.failureRateThreshold = failureRateThreshold;
+        this.outcomes = new boolean[Math.max(1, window)];
+        this.minimumCalls = Math.max(1, Math.min(minimumCalls, outcomes.length));
+        this.openNanos = openNanos;
+        this.trialCalls = Math.max(1, trialCalls);
+        this.nanoClock = nanoClock;
+        this.listener = listener;
+    }
+
+    /**
+     * Permit for a call to go ahead, or REJECTED; every admitted call must report its outcome
+     */
+    public synchronized long tryAcquire() {
+        if (state == State.OPEN) {
+            if (nanoClock.getAsLong() - openedAt < openNanos) {
+                return REJECTED;
+            }
+            trialPermits = trialCalls;
+            trialSuccesses = 0;
+            transition(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (trialPermits == 0) {
+                return REJECTED;
+            }
+            trialPermits--;
+        }
+        return generation;
+    }
+
+    public synchronized void onResult(long permit, boolean failure) {
+        if (permit != generation) {
+            return; // Late outcome of a call admitted in an earlier state
+        }
+        switch (state) {
+            case HALF_OPEN -> {
+                if (failure) {
+                    open();
+                } else if (++trialSuccesses >= trialCalls) {
+                    next = 0;
+                    recorded = 0;
+                    failures = 0;
+                    transition(State.CLOSED);
+                }
+            }
+            case CLOSED -> {
+                if (recorded == outcomes.length && outcomes[next]) {
+                    failures--;
+                }
+                outcomes[next] = failure;
+                next = (next + 1) % outcomes.length;
+                recorded = Math.min(recorded + 1, outcomes.length);
+                if (failure) {
+                    failures++;
+                }
+                if (recorded >= minimumCalls && failures >= failureRateThreshold * recorded) {
+                    open();
+                }
+            }
+            case OPEN -> {
+                // Unreachable: OPEN issues no permits
+            }
+        }
+    }
+
+    /**
+     * Give a permit back without an outcome, e.g. for a call refused before it reached the upstream
+     */
+    public synchronized void release(long permit) {
+        if (permit == generation && state == State.HALF_OPEN) {
+            trialPermits++;
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * Milliseconds until an open breaker admits trial calls, 0 otherwise
+     */
+    public synchronized long retryAfterMillis() {
+        if (state != State.OPEN) {
+            return 0;
+        }
+        return Math.max(0, (openNanos - (nanoClock.getAsLong() - openedAt)) / 1_000_000);
+    }
+
+    private void open() {
+        openedAt = nanoClock.getAsLong();
+        transition(State.OPEN);
+    }
+
+    private void transition(State to) {
+        State from = state;
+        state = to;
+        generation++;
+        if (from != to) {
+            listener.onTransition(from, to);
+        }
+    }
+}
@@ -0,0 +1,380 @@
+package com.orchestrator.upstream;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.camel.AsyncCallback;
+import org.apache.camel.CamelContext;
+import org.apache.camel.Exchange;
+import org.apache.camel.http.base.HttpOperationFailedException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Adaptive limit on concurrent calls per Content Server host
+ *
+ * Each target host gets an AIMD limit that grows while calls succeed under
+ * load and shrinks on 429, 503 and timeouts; a Retry-After on those answers
+ * holds back new calls to the host until it has passed. Calls over the limit
+ * wait in a bounded per-host queue without holding a thread and are started
+ * as slots free up; calls that find the queue full or wait too long are shed
+ * with UPSTREAM_OVERLOADED. A streamed response holds its slot until its
+ * body has been read to the end or closed.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ConcurrencyLimiter {
+
+    /**
+     * Exchange property holding the System.nanoTime() at which the call got its slot
+     */
+    public static final String ADMITTED_AT = "upstreamAdmittedAt";
+
+    /**
+     * Exchange property marking a call that runs on slots taken with tryReserve
+     */
+    public static final String RESERVED = "upstreamLimitReserved";
+
+    private final CamelContext camelContext;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${orchestrator.upstream.limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${orchestrator.upstream.limit.initial:20}")
+    private int initialLimit;
+
+    @Value("${orchestrator.upstream.limit.min:2}")
+    private int minLimit;
+
+    @Value("${orchestrator.upstream.limit.max:100}")
+    private int maxLimit;
+
+    @Value("${orchestrator.upstream.limit.backoff-ratio:0.75}")
+    private double backoffRatio;
+
+    @Value("${orchestrator.upstream.limit.max-queue:200}")
+    private int maxQueue;
+
+    @Value("${orchestrator.upstream.limit.max-wait-ms:5000}")
+    private long maxWaitMillis;
+
+    @Value("${orchestrator.upstream.limit.max-retry-after-seconds:60}")
+    private long maxRetryAfterSeconds;
+
+    private final Map<String, Host> hosts = new ConcurrentHashMap<>();
+    private ExecutorService dispatcher;
+    private ScheduledExecutorService timer;
+
+    @PostConstruct
+    public void init() {
+        // Queued calls are started from whichever thread frees a slot, often a
+        // Vert.x event loop; blocking camel-http calls must not run there
+        dispatcher = camelContext.getExecutorServiceManager().newCachedThreadPool(this, "UpstreamLimiter");
+        timer = camelContext.getExecutorServiceManager().newSingleThreadScheduledExecutor(this, "UpstreamLimiterTimer");
+        if (enabled) {
+            log.info("Upstream concurrency limit per host: {} (adaptive {}..{}), queue {} for {}ms",
+                    initialLimit, minLimit, maxLimit, maxQueue, maxWaitMillis);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        camelContext.getExecutorServiceManager().shutdownNow(timer);
+        camelContext.getExecutorServiceManager().shutdownNow(dispatcher);
+    }
+
+    /**
+     * Perform the call now, or once the host has a free slot
+     *
+     * @return true if the exchange completed synchronously, as for AsyncProcessor.process
+     */
+    public boolean execute(String host, Exchange exchange, AsyncCallback callback, RequestCoalescer.UpstreamCall call) {
+        if (!enabled) {
+            return call.execute(exchange, callback);
+        }
+        Host state = hosts.computeIfAbsent(host, Host::new);
+        if (exchange.getProperty(RESERVED, false, Boolean.class)) {
+            return state.start(new Call(exchange, callback, call), true);
+        }
+        return state.submit(new Call(exchange, callback, call));
+    }
+
+    /**
+     * Take several slots of the host at once, for calls marked RESERVED
+     * All or nothing, and only when no call is waiting for a slot.
+     */
+    public boolean tryReserve(String host, int slots) {
+        return !enabled || hosts.computeIfAbsent(host, Host::new).tryReserve(slots);
+    }
+
+    /**
+     * Give back slots taken with tryReserve
+     */
+    public void unreserve(String host, int slots) {
+        if (enabled) {
+            hosts.computeIfAbsent(host, Host::new).unreserve(slots);
+        }
+    }
+
+    public int getLimit(String host) {
+        Host state = hosts.get(host);
+        return state != null ? state.limit() : initialLimit;
+    }
+
+    /**
+     * What the outcome of a call says about the host's load
+     */
+    static AimdLimit.Outcome classify(Exception failure) {
+        if (failure == null) {
+            return AimdLimit.Outcome.SUCCESS;
+        }
+        for (Throwable current = failure; current != null; current = current.getCause()) {
+            if (current instanceof HttpOperationFailedException http) {
+                int status = http.getStatusCode();
+                return status == 429 || status == 503 ? AimdLimit.Outcome.DROPPED : AimdLimit.Outcome.IGNORED;
+            }
+            // java.util.concurrent, java.net and Vert.x (NoStackTraceTimeoutException) timeouts alike
+            if (current.getClass().getSimpleName().endsWith("TimeoutException")) {
+                return AimdLimit.Outcome.DROPPED;
+            }
+        }
+        return AimdLimit.Outcome.IGNORED;
+    }
+
+    /**
+     * Retry-After of a 429/503 answer in milliseconds, or -1
+     * Accepts delta-seconds and HTTP dates.
+     */
+    static long retryAfterMillis(Exception failure, long nowMillis) {
+        for (Throwable current = failure; current != null; current = current.getCause()) {
+            if (current instanceof HttpOperationFailedException http && http.getResponseHeaders() != null) {
+                for (Map.Entry<String, String> header : http.getResponseHeaders().entrySet()) {
+                    if ("Retry-After".equalsIgnoreCase(header.getKey()) && header.getValue() != null) {
+                        return parseRetryAfter(header.getValue().trim(), nowMillis);
+                    }
+                }
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    private static long parseRetryAfter(String value, long nowMillis) {
+        try {
+            return Math.max(0, Long.parseLong(value) * 1000);
+        } catch (NumberFormatException notSeconds) {
+            try {
+                long at = ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+                return Math.max(0, at - nowMillis);
+            } catch (DateTimeParseException notDate) {
+                return -1;
+            }
+        }
+    }
+
+    private record Call(Exchange exchange, AsyncCallback callback, RequestCoalescer.UpstreamCall call) {
+    }
+
+    private final class Host {
+
+        private final String name;
+        private final AimdLimit limit;
+        private final Queue<Call> queue = new ArrayDeque<>();
+        private final Counter dropped;
+        private final Counter shedFull;
+        private final Counter shedTimeout;
+        private ScheduledFuture<?> resume;
+
+        Host(String name) {
+            this.name = name;
+            this.limit = new AimdLimit(initialLimit, minLimit, maxLimit, backoffRatio);
+
+            Gauge.builder("orchestrator.upstream.limit", this, Host::limit)
+                    .description("Adaptive concurrency limit per Content Server host")
+                    .tag("host", name)
+                    .register(meterRegistry);
+            Gauge.builder("orchestrator.upstream.limit.inflight", this, Host::inFlight)
+                    .description("Upstream calls in flight per host")
+                    .tag("host", name)
+                    .register(meterRegistry);
+            Gauge.builder("orchestrator.upstream.limit.queued", this, Host::queued)
+                    .description("Upstream calls waiting for a slot per host")
+                    .tag("host", name)
+                    .register(meterRegistry);
+            dropped = Counter.builder("orchestrator.upstream.limit.dropped")
+                    .description("Upstream calls answered with an overload signal (429, 503, timeout)")
+                    .tag("host", name)
+                    .register(meterRegistry);
+            shedFull = shed("queue_full");
+            shedTimeout = shed("timeout");
+        }
+
+        boolean submit(Call call) {
+            boolean admitted;
+            synchronized (this) {
+                admitted = queue.isEmpty() && limit.tryAcquire(System.nanoTime());
+                if (!admitted && queue.size() < maxQueue) {
+                    queue.add(call);
+                    timer.schedule(() -> expire(call), maxWaitMillis, TimeUnit.MILLISECONDS);
+                    // With nothing in flight no release will drain the queue once a Retry-After has passed
+                    scheduleResume(System.nanoTime());
+                    return false;
+                }
+            }
+            if (admitted) {
+                return start(call, false);
+            }
+            shedFull.increment();
+            reject(call, "queue full");
+            call.callback().done(true);
+            return true;
+        }
+
+        private boolean start(Call call, boolean reserved) {
+            long started = System.nanoTime();
+            Exchange exchange = call.exchange();
+            exchange.setProperty(ADMITTED_AT, started);
+            boolean streaming = exchange.getProperty("streamResponse", false, Boolean.class);
+            try {
+                return call.call().execute(exchange, doneSync -> {
+                    AimdLimit.Outcome outcome = classify(exchange.getException());
+                    if (streaming && exchange.getException() == null) {
+                        UpstreamBody.releaseWhenConsumed(exchange, () -> release(outcome, started, null, reserved));
+                    } else {
+                        release(outcome, started, exchange.getException(), reserved);
+                    }
+                    call.callback().done(doneSync);
+                });
+            } catch (RuntimeException e) {
+                release(AimdLimit.Outcome.IGNORED, started, null, reserved);
+                exchange.setException(e);
+                call.callback().done(true);
+                return true;
+            }
+        }
+
+        /**
+         * Return the slot of a call, or only record its outcome if it ran on a reserved slot
+         */
+        private void release(AimdLimit.Outcome outcome, long started, Exception failure, boolean reserved) {
+            if (outcome == AimdLimit.Outcome.DROPPED) {
+                dropped.increment();
+            }
+            long retryAfter = outcome == AimdLimit.Outcome.DROPPED
+                    ? Math.min(retryAfterMillis(failure, System.currentTimeMillis()), maxRetryAfterSeconds * 1000)
+                    : -1;
+            synchronized (this) {
+                int before = limit.getLimit();
+                if (reserved) {
+                    limit.record(outcome, started, System.nanoTime());
+                } else {
+                    limit.release(outcome, started, System.nanoTime());
+                }
+                if (retryAfter > 0) {
+                    limit.pause(System.nanoTime() + retryAfter * 1_000_000);
+                    log.warn("{} asked to retry after {}ms, holding back new calls", name, retryAfter);
+                } else if (limit.getLimit() < before) {
+                    log.info("{} is overloaded, concurrency limit {} -> {}", name, before, limit.getLimit());
+                }
+                drain();
+            }
+        }
+
+        /**
+         * Start queued calls while there are free slots; called holding the lock
+         */
+        private void drain() {
+            long now = System.nanoTime();
+            while (!queue.isEmpty() && limit.tryAcquire(now)) {
+                Call next = queue.poll();
+                // The caller was told to wait for the callback, so it completes asynchronously in any case
+                dispatcher.execute(() -> start(new Call(next.exchange(),
+                        doneSync -> next.callback().done(false), next.call()), false));
+            }
+            scheduleResume(now);
+        }
+
+        /**
+         * Drain again once a pause has passed; called holding the lock
+         */
+        private void scheduleResume(long now) {
+            long pause = limit.remainingPause(now);
+            if (!queue.isEmpty() && pause > 0 && (resume == null || resume.isDone())) {
+                resume = timer.schedule(this::resume, pause, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        private synchronized boolean tryReserve(int slots) {
+            return queue.isEmpty() && limit.tryAcquire(System.nanoTime(), slots);
+        }
+
+        private synchronized void unreserve(int slots) {
+            limit.release(slots);
+            drain();
+        }
+
+        private synchronized void resume() {
+            drain();
+        }
+
+        private void expire(Call call) {
+            synchronized (this) {
+                if (!queue.remove(call)) {
+                    return;
+                }
+            }
+            shedTimeout.increment();
+            reject(call, "no free slot within " + maxWaitMillis + "ms");
+            call.callback().done(false);
+        }
+
+        private void reject(Call call, String reason) {
+            long pause;
+            synchronized (this) {
+                pause = limit.remainingPause(System.nanoTime());
+            }
+            call.exchange().setException(new UpstreamUnavailableException("UPSTREAM_OVERLOADED",
+                    "Content Server " + name + " is at its concurrency limit: " + reason,
+                    Math.max(1, Duration.ofNanos(pause).toSeconds())));
+        }
+
+        private synchronized int limit() {
+            return limit.getLimit();
+        }
+
+        private synchronized int inFlight() {
+            return limit.getInFlight();
+        }
+
+        private synchronized int queued() {
+            return queue.size();
+        }
+
+        private Counter shed(String reason) {
+            return Counter.builder("orchestrator.upstream.limit.shed")
+                    .description("Upstream calls shed by the concurrency limiter")
+                    .tag("host", name)
+                    .tag("reason", reason)
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.orchestrator.upstream;
+
+import java.util.Arrays;
+
+/**
+ * The most recent call latencies of one endpoint, for percentile estimates
+ * Percentiles are recomputed every few samples, not on every lookup.
+ */
+public final class LatencyWindow {
+
+    private static final int RECOMPUTE_EVERY = 16;
+
+    private final long[] samples;
+    private int next;
+    private int count;
+    private int sinceComputed;
+    private final int percentile;
+    private long cached = -1;
+
+    /**
+     * @param size       samples kept
+     * @param percentile percentile to report, 1..99
+     */
+    public LatencyWindow(int size, int percentile) {
+        this.samples = new long[Math.max(1, size)];
+        this.percentile = percentile;
+    }
+
+    public synchronized void record(long nanos) {
+        samples[next] = nanos;
+        next = (next + 1) % samples.length;
+        count = Math.min(count + 1, samples.length);
+        sinceComputed++;
+    }
+
+    /**
+     * Latency percentile in nanoseconds, or -1 while fewer than 'minimum' samples are known
+     */
+    public synchronized long percentile(int minimum) {
+        if (count < minimum || count == 0) {
+            return -1;
+        }
+        if (cached < 0 || sinceComputed >= RECOMPUTE_EVERY) {
+            long[] sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            cached = sorted[Math.min(count - 1, (int) Math.ceil(count * percentile / 100.0) - 1)];
+            sinceComputed = 0;
+        }
+        return cached;
+    }
+}
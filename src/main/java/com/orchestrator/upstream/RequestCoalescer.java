@@ -0,0 +1,129 @@
+package com.orchestrator.upstream;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.camel.AsyncCallback;
+import org.apache.camel.CamelContext;
+import org.apache.camel.Exchange;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * In-flight request table for identical concurrent upstream GETs
+ *
+ * The first exchange for a key performs the call; exchanges arriving while it
+ * is in flight wait for the same response and get their own copy of it.
+ * Waiting is callback based, so followers do not hold a thread either.
+ * Followers resume on a pool of their own rather than on the thread that
+ * completed the leader's call, often a Vert.x event loop: each of them runs
+ * the rest of its route (response transform, cache store, servlet write),
+ * which must neither block that thread nor hold up the leader.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RequestCoalescer {
+
+    /**
+     * The actual upstream call, performed on the leading exchange
+     * Follows the Camel AsyncProcessor contract: returns true if it completed synchronously.
+     */
+    @FunctionalInterface
+    public interface UpstreamCall {
+        boolean execute(Exchange exchange, AsyncCallback callback);
+    }
+
+    private final CamelContext camelContext;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, CompletableFuture<UpstreamResponse>> inFlight = new ConcurrentHashMap<>();
+    private ExecutorService followerExecutor;
+    private Counter leaders;
+    private Counter followers;
+
+    @PostConstruct
+    public void init() {
+        followerExecutor = camelContext.getExecutorServiceManager().newCachedThreadPool(this, "UpstreamCoalescer");
+        leaders = Counter.builder("orchestrator.upstream.coalescing")
+                .description("Upstream GETs by coalescing role")
+                .tag("role", "leader")
+                .register(meterRegistry);
+        followers = Counter.builder("orchestrator.upstream.coalescing")
+                .description("Upstream GETs by coalescing role")
+                .tag("role", "follower")
+                .register(meterRegistry);
+        Gauge.builder("orchestrator.upstream.coalescing.inflight", inFlight, Map::size)
+                .description("Distinct upstream GETs currently in flight")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        camelContext.getExecutorServiceManager().shutdownNow(followerExecutor);
+    }
+
+    /**
+     * Perform the call, or share the response of an identical call already in flight
+     *
+     * @return true if the exchange completed synchronously, as for AsyncProcessor.process
+     */
+    public boolean execute(String key, Exchange exchange, AsyncCallback callback, UpstreamCall call) {
+        CompletableFuture<UpstreamResponse> own = new CompletableFuture<>();
+        CompletableFuture<UpstreamResponse> existing = inFlight.putIfAbsent(key, own);
+
+        if (existing != null) {
+            followers.increment();
+            log.debug("Joining in-flight upstream call: {}", key);
+            existing.whenCompleteAsync((response, failure) -> {
+                if (failure != null) {
+                    exchange.setException(failure instanceof Exception e ? e : new IllegalStateException(failure));
+                } else {
+                    response.applyTo(exchange);
+                }
+                callback.done(false);
+            }, followerExecutor);
+            return false;
+        }
+
+        leaders.increment();
+        Map<String, Object> requestHeaders = new HashMap<>(exchange.getIn().getHeaders());
+        try {
+            return call.execute(exchange, doneSync -> {
+                // Only queues the followers on their pool, so the leader goes on without waiting for them
+                complete(key, own, exchange, requestHeaders);
+                callback.done(doneSync);
+            });
+        } catch (RuntimeException e) {
+            exchange.setException(e);
+            complete(key, own, exchange, requestHeaders);
+            callback.done(true);
+            return true;
+        }
+    }
+
+    private void complete(String key, CompletableFuture<UpstreamResponse> own, Exchange exchange,
+                          Map<String, Object> requestHeaders) {
+        try {
+            if (exchange.getException() != null) {
+                own.completeExceptionally(exchange.getException());
+            } else {
+                own.complete(UpstreamResponse.capture(exchange, requestHeaders));
+            }
+        } catch (RuntimeException e) {
+            exchange.setException(e);
+            own.completeExceptionally(e);
+        } finally {
+            inFlight.remove(key, own);
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package com.orchestrator.upstream;
+
+import com.orchestrator.config.model.HedgeConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.camel.AsyncCallback;
+import org.apache.camel.CamelContext;
+import org.apache.camel.Exchange;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hedged upstream calls for idempotent endpoints with a hedge block
+ *
+ * The call is sent; if it has not answered within the endpoint's latency
+ * percentile (e.g. p95 of its recent calls) an identical second call is sent
+ * and the first successful answer is used. Both calls are made on copies of
+ * the exchange, so the loser finishing late cannot touch the response. Hedges
+ * draw on a global budget that refills by budget-percent of every hedged
+ * endpoint call, which caps the extra load on Content Server.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RequestHedger {
+
+    private static final int WINDOW = 512;
+    private static final int MIN_SAMPLES = 20;
+
+    private final CamelContext camelContext;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${orchestrator.hedging.enabled:true}")
+    private boolean enabled;
+
+    @Value("${orchestrator.hedging.budget-percent:5}")
+    private double budgetPercent;
+
+    @Value("${orchestrator.hedging.budget-burst:10}")
+    private double budgetBurst;
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+    private ScheduledExecutorService timer;
+    private double budget;
+
+    @PostConstruct
+    public void init() {
+        timer = camelContext.getExecutorServiceManager().newSingleThreadScheduledExecutor(this, "UpstreamHedge");
+        budget = budgetBurst;
+        if (enabled) {
+            log.info("Hedged upstream calls: budget {}% of calls, burst {}", budgetPercent, budgetBurst);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        camelContext.getExecutorServiceManager().shutdownNow(timer);
+    }
+
+    /**
+     * Perform the call, hedged if it is slow
+     *
+     * @return true if the exchange completed synchronously, as for AsyncProcessor.process
+     */
+    public boolean execute(String name, HedgeConfig config, Exchange exchange, AsyncCallback callback,
+                           RequestCoalescer.UpstreamCall call) {
+        if (!enabled || config == null) {
+            return call.execute(exchange, callback);
+        }
+        Endpoint endpoint = endpoints.computeIfAbsent(name, key -> new Endpoint(key, config));
+        endpoint.calls.increment();
+        deposit();
+
+        Hedge hedge = new Hedge(endpoint, exchange, callback, call);
+        hedge.start();
+        return false;
+    }
+
+    private synchronized void deposit() {
+        budget = Math.min(budgetBurst, budget + budgetPercent / 100);
+    }
+
+    private synchronized boolean withdraw() {
+        if (budget < 1) {
+            return false;
+        }
+        budget--;
+        return true;
+    }
+
+    /**
+     * One hedged call: the primary attempt, possibly a second one, and who answered first
+     */
+    private final class Hedge {
+
+        private final Endpoint endpoint;
+        private final Exchange exchange;
+        private final AsyncCallback callback;
+        private final RequestCoalescer.UpstreamCall call;
+        private final Exchange primary;
+
+        private Exchange second;
+        private ScheduledFuture<?> timeout;
+        private boolean primaryDone;
+        private boolean secondDone;
+        private boolean settled;
+
+        Hedge(Endpoint endpoint, Exchange exchange, AsyncCallback callback, RequestCoalescer.UpstreamCall call) {
+            this.endpoint = endpoint;
+            this.exchange = exchange;
+            this.callback = callback;
+            this.call = call;
+            this.primary = exchange.copy();
+        }
+
+        void start() {
+            long delay = endpoint.delayNanos();
+            synchronized (this) {
+                timeout = timer.schedule(this::hedge, delay, TimeUnit.NANOSECONDS);
+            }
+            attempt(primary, true);
+        }
+
+        private void hedge() {
+            Exchange copy;
+            synchronized (this) {
+                if (settled || primaryDone) {
+                    return;
+                }
+                if (!withdraw()) {
+                    endpoint.skipped.increment();
+                    return;
+                }
+                copy = exchange.copy();
+                second = copy;
+            }
+            endpoint.sent.increment();
+            log.debug("{} slower than {}ms, sending a hedged call", endpoint.name,
+                    TimeUnit.NANOSECONDS.toMillis(endpoint.delayNanos()));
+            attempt(copy, false);
+        }
+
+        private void attempt(Exchange attempt, boolean isPrimary) {
+            long sent = System.nanoTime();
+            try {
+                call.execute(attempt, doneSync -> {
+                    // Only primaries, from the moment the limiter let them through: hedges answer
+                    // the slow tail and queueing says nothing about how fast the endpoint is
+                    if (isPrimary && attempt.getException() == null) {
+                        long started = attempt.getProperty(ConcurrencyLimiter.ADMITTED_AT, sent, Long.class);
+                        endpoint.latencies.record(System.nanoTime() - started);
+                    }
+                    done(attempt, isPrimary);
+                });
+            } catch (RuntimeException e) {
+                attempt.setException(e);
+                done(attempt, isPrimary);
+            }
+        }
+
+        private void done(Exchange attempt, boolean isPrimary) {
+            synchronized (this) {
+                if (isPrimary) {
+                    primaryDone = true;
+                    timeout.cancel(false);
+                } else {
+                    secondDone = true;
+                }
+                boolean otherPending = isPrimary ? second != null && !secondDone : !primaryDone;
+                // A failure waits for the other call if there is one; the first success wins
+                if (settled || attempt.getException() != null && otherPending) {
+                    return;
+                }
+                settled = true;
+            }
+            if (!isPrimary && attempt.getException() == null) {
+                endpoint.won.increment();
+            }
+            exchange.setException(attempt.getException());
+            exchange.getIn().copyFrom(attempt.getIn());
+            callback.done(false);
+        }
+    }
+
+    private final class Endpoint {
+
+        private final String name;
+        private final HedgeConfig config;
+        private final LatencyWindow latencies;
+        private final Counter calls;
+        private final Counter sent;
+        private final Counter won;
+        private final Counter skipped;
+
+        Endpoint(String name, HedgeConfig config) {
+            this.name = name;
+            this.config = config;
+            this.latencies = new LatencyWindow(WINDOW, config.getPercentile());
+            calls = counter("call");
+            sent = counter("hedged");
+            won = counter("won");
+            skipped = counter("over_budget");
+            Gauge.builder("orchestrator.upstream.hedge.delay", this, e -> TimeUnit.NANOSECONDS.toMillis(e.delayNanos()))
+                    .description("Current hedge delay per endpoint")
+                    .baseUnit("milliseconds")
+                    .tag("endpoint", name)
+                    .register(meterRegistry);
+        }
+
+        /**
+         * The latency percentile, within the configured bounds
+         */
+        long delayNanos() {
+            long percentile = latencies.percentile(MIN_SAMPLES);
+            long min = TimeUnit.MILLISECONDS.toNanos(config.getMinDelayMs());
+            long max = TimeUnit.MILLISECONDS.toNanos(config.getMaxDelayMs());
+            return percentile < 0 ? max : Math.min(max, Math.max(min, percentile));
+        }
+
+        private Counter counter(String result) {
+            return Counter.builder("orchestrator.upstream.hedge")
+                    .description("Calls of hedged endpoints: all calls, hedges sent, hedges that answered first"
+                            + " and hedges skipped for lack of budget")
+                    .tag("endpoint", name)
+                    .tag("result", result)
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.orchestrator.upstream;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.support.SynchronizationAdapter;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Ties what an upstream call holds (a host slot, a bulkhead permit) to its streamed response body
+ *
+ * The hold ends once the body has been read to the end or closed, not when
+ * the exchange completes: Content Server is done with the call at that point,
+ * while the caller's side of the exchange may go on for much longer, and the
+ * first range of a parallel download is closed long before the download ends.
+ * Exchange completion remains the fallback for bodies that are never read.
+ */
+public final class UpstreamBody {
+
+    private UpstreamBody() {
+    }
+
+    /**
+     * Run 'release' once, when the exchange's body is consumed or the exchange completes
+     */
+    public static void releaseWhenConsumed(Exchange exchange, Runnable release) {
+        AtomicBoolean released = new AtomicBoolean();
+        Runnable once = () -> {
+            if (released.compareAndSet(false, true)) {
+                release.run();
+            }
+        };
+        if (exchange.getIn().getBody() instanceof InputStream body) {
+            exchange.getIn().setBody(new ReleasingInputStream(body, once));
+        }
+        exchange.getExchangeExtension().addOnCompletion(new SynchronizationAdapter() {
+            @Override
+            public void onDone(Exchange completed) {
+                once.run();
+            }
+        });
+    }
+
+    private static final class ReleasingInputStream extends FilterInputStream {
+
+        private final Runnable release;
+
+        ReleasingInputStream(InputStream in, Runnable release) {
+            super(in);
+            this.release = release;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b < 0) {
+                release.run();
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n < 0) {
+                release.run();
+            }
+            return n;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                release.run();
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.orchestrator.upstream;
+
+import org.apache.camel.Exchange;
+
+import java.util.Locale;
+
+/**
+ * Upstream call groups, each with its own circuit breaker and bulkhead
+ * A failing binary transfer path should not stop metadata reads, and so on.
+ */
+public enum UpstreamGroup {
+    AUTH,
+    METADATA,
+    WRITE,
+    BINARY;
+
+    /**
+     * Exchange property that pins the group of a call, e.g. for buffered byte ranges
+     */
+    public static final String PROPERTY = "upstreamGroup";
+
+    /**
+     * Group of the upstream call the exchange is about to make
+     */
+    public static UpstreamGroup of(Exchange exchange) {
+        UpstreamGroup pinned = exchange.getProperty(PROPERTY, UpstreamGroup.class);
+        if (pinned != null) {
+            return pinned;
+        }
+        if (exchange.getProperty("streamResponse", false, Boolean.class)
+                || exchange.getProperty("streamRequest", false, Boolean.class)) {
+            return BINARY;
+        }
+        String method = exchange.getIn().getHeader(Exchange.HTTP_METHOD, "GET", String.class);
+        return "GET".equalsIgnoreCase(method) ? METADATA : WRITE;
+    }
+
+    public String tag() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
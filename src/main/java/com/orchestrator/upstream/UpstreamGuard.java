@@ -0,0 +1,282 @@
+package com.orchestrator.upstream;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.camel.AsyncCallback;
+import org.apache.camel.Exchange;
+import org.apache.camel.http.base.HttpOperationFailedException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+/**
+ * Circuit breaker and bulkhead per upstream group
+ *
+ * Each group (auth, metadata reads, writes, binary transfers) has a bounded
+ * number of concurrent calls and its own breaker, so a Content Server area
+ * that is failing or slow fails fast instead of tying up threads and
+ * connections the other groups need. Calls refused here never reach Content
+ * Server and surface as UpstreamUnavailableException.
+ *
+ * 5xx answers, 429, transport errors and calls slower than the slow-call
+ * threshold count as failures; other 4xx answers are the caller's problem
+ * and count as successes. A streamed response holds its bulkhead permit
+ * until its body has been read to the end or closed.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UpstreamGuard {
+
+    /**
+     * Exchange property marking a call that runs on bulkhead permits taken with tryReserve
+     */
+    public static final String RESERVED = "upstreamGuardReserved";
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${orchestrator.upstream.guard.enabled:true}")
+    private boolean enabled;
+
+    @Value("${orchestrator.upstream.guard.failure-rate-threshold:50}")
+    private int failureRateThreshold;
+
+    @Value("${orchestrator.upstream.guard.window:50}")
+    private int window;
+
+    @Value("${orchestrator.upstream.guard.minimum-calls:20}")
+    private int minimumCalls;
+
+    @Value("${orchestrator.upstream.guard.slow-call-ms:10000}")
+    private long slowCallMillis;
+
+    @Value("${orchestrator.upstream.guard.open-seconds:30}")
+    private long openSeconds;
+
+    @Value("${orchestrator.upstream.guard.half-open-calls:5}")
+    private int halfOpenCalls;
+
+    @Value("${orchestrator.upstream.guard.max-concurrent.auth:4}")
+    private int maxConcurrentAuth;
+
+    @Value("${orchestrator.upstream.guard.max-concurrent.metadata:80}")
+    private int maxConcurrentMetadata;
+
+    @Value("${orchestrator.upstream.guard.max-concurrent.write:40}")
+    private int maxConcurrentWrite;
+
+    @Value("${orchestrator.upstream.guard.max-concurrent.binary:40}")
+    private int maxConcurrentBinary;
+
+    private final Map<UpstreamGroup, Guard> guards = new EnumMap<>(UpstreamGroup.class);
+
+    @PostConstruct
+    public void init() {
+        for (UpstreamGroup group : UpstreamGroup.values()) {
+            int maxConcurrent = switch (group) {
+                case AUTH -> maxConcurrentAuth;
+                case METADATA -> maxConcurrentMetadata;
+                case WRITE -> maxConcurrentWrite;
+                case BINARY -> maxConcurrentBinary;
+            };
+            guards.put(group, new Guard(group, maxConcurrent));
+        }
+        if (enabled) {
+            log.info("Upstream guard: breaker opens at {}% of {} calls for {}s, bulkheads auth={} metadata={}"
+                            + " write={} binary={}", failureRateThreshold, window, openSeconds,
+                    maxConcurrentAuth, maxConcurrentMetadata, maxConcurrentWrite, maxConcurrentBinary);
+        }
+    }
+
+    /**
+     * Perform an asynchronous upstream call within the group's breaker and bulkhead
+     *
+     * @return true if the exchange completed synchronously, as for AsyncProcessor.process
+     */
+    public boolean execute(UpstreamGroup group, Exchange exchange, AsyncCallback callback,
+                           RequestCoalescer.UpstreamCall call) {
+        if (!enabled) {
+            return call.execute(exchange, callback);
+        }
+        Guard guard = guards.get(group);
+        boolean reserved = exchange.getProperty(RESERVED, false, Boolean.class);
+        Runnable release = reserved ? () -> { } : guard::release;
+        long permit;
+        try {
+            permit = guard.acquire(reserved);
+        } catch (UpstreamUnavailableException e) {
+            exchange.setException(e);
+            callback.done(true);
+            return true;
+        }
+
+        boolean streaming = exchange.getProperty("streamResponse", false, Boolean.class);
+        long start = System.nanoTime();
+        try {
+            return call.execute(exchange, doneSync -> {
+                guard.record(permit, exchange.getException(), start);
+                if (streaming && exchange.getException() == null) {
+                    UpstreamBody.releaseWhenConsumed(exchange, release);
+                } else {
+                    release.run();
+                }
+                callback.done(doneSync);
+            });
+        } catch (RuntimeException e) {
+            guard.record(permit, e, start);
+            release.run();
+            throw e;
+        }
+    }
+
+    /**
+     * Take several bulkhead permits of the group at once, for calls marked RESERVED
+     * Calls on reserved permits still go through the breaker.
+     */
+    public boolean tryReserve(UpstreamGroup group, int permits) {
+        return !enabled || guards.get(group).bulkhead.tryAcquire(permits);
+    }
+
+    /**
+     * Give back permits taken with tryReserve
+     */
+    public void unreserve(UpstreamGroup group, int permits) {
+        if (enabled) {
+            guards.get(group).bulkhead.release(permits);
+        }
+    }
+
+    /**
+     * Perform a blocking upstream call within the group's breaker and bulkhead
+     */
+    public <T> T call(UpstreamGroup group, Supplier<T> call) {
+        if (!enabled) {
+            return call.get();
+        }
+        Guard guard = guards.get(group);
+        long permit = guard.acquire(false);
+        long start = System.nanoTime();
+        try {
+            T result = call.get();
+            guard.record(permit, null, start);
+            return result;
+        } catch (RuntimeException e) {
+            guard.record(permit, e, start);
+            throw e;
+        } finally {
+            guard.release();
+        }
+    }
+
+    public CircuitBreaker.State getState(UpstreamGroup group) {
+        return guards.get(group).breaker.getState();
+    }
+
+    /**
+     * Whether the outcome says Content Server (or the way to it) is unhealthy
+     */
+    static boolean isFailure(Throwable failure) {
+        for (Throwable current = failure; current != null; current = current.getCause()) {
+            if (current instanceof HttpOperationFailedException http) {
+                return http.getStatusCode() >= 500 || http.getStatusCode() == 429;
+            }
+        }
+        return failure != null;
+    }
+
+    private final class Guard {
+
+        private final UpstreamGroup group;
+        private final Semaphore bulkhead;
+        private final int maxConcurrent;
+        private final CircuitBreaker breaker;
+        private final Counter circuitOpen;
+        private final Counter bulkheadFull;
+
+        Guard(UpstreamGroup group, int maxConcurrent) {
+            this.group = group;
+            this.maxConcurrent = maxConcurrent;
+            this.bulkhead = new Semaphore(maxConcurrent);
+            this.breaker = new CircuitBreaker(failureRateThreshold / 100.0, window, minimumCalls,
+                    openSeconds * 1_000_000_000L, halfOpenCalls, System::nanoTime, this::onTransition);
+
+            Gauge.builder("orchestrator.upstream.circuit.state", breaker, b -> b.getState().ordinal())
+                    .description("Circuit state per upstream group: 0 closed, 1 open, 2 half-open")
+                    .tag("group", group.tag())
+                    .register(meterRegistry);
+            Gauge.builder("orchestrator.upstream.bulkhead.active", bulkhead,
+                            b -> this.maxConcurrent - b.availablePermits())
+                    .description("Upstream calls in flight per group")
+                    .tag("group", group.tag())
+                    .register(meterRegistry);
+            circuitOpen = rejected("circuit_open");
+            bulkheadFull = rejected("bulkhead_full");
+        }
+
+        long acquire(boolean reserved) {
+            if (!reserved && !bulkhead.tryAcquire()) {
+                bulkheadFull.increment();
+                throw new UpstreamUnavailableException("BULKHEAD_FULL",
+                        "Too many concurrent " + group.tag() + " calls to Content Server", 1);
+            }
+            long permit = breaker.tryAcquire();
+            if (permit == CircuitBreaker.REJECTED) {
+                if (!reserved) {
+                    bulkhead.release();
+                }
+                circuitOpen.increment();
+                long retryAfter = Math.max(1, (breaker.retryAfterMillis() + 999) / 1000);
+                throw new UpstreamUnavailableException("CIRCUIT_OPEN",
+                        "Content Server " + group.tag() + " calls are failing, retry in " + retryAfter + "s",
+                        retryAfter);
+            }
+            return permit;
+        }
+
+        void record(long permit, Throwable failure, long start) {
+            if (failure instanceof UpstreamUnavailableException) {
+                breaker.release(permit); // refused locally, says nothing about Content Server
+                return;
+            }
+            boolean slow = System.nanoTime() - start > slowCallMillis * 1_000_000L;
+            breaker.onResult(permit, slow || isFailure(failure));
+        }
+
+        void release() {
+            bulkhead.release();
+        }
+
+        private void onTransition(CircuitBreaker.State from, CircuitBreaker.State to) {
+            Counter.builder("orchestrator.upstream.circuit.transitions")
+                    .description("Circuit breaker state changes per upstream group")
+                    .tag("group", group.tag())
+                    .tag("from", from.name().toLowerCase(Locale.ROOT))
+                    .tag("to", to.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry)
+                    .increment();
+            if (to == CircuitBreaker.State.OPEN) {
+                log.warn("Circuit for {} calls opened ({} -> {}), failing fast for {}s",
+                        group.tag(), from, to, openSeconds);
+            } else {
+                log.info("Circuit for {} calls {} -> {}", group.tag(), from, to);
+            }
+        }
+
+        private Counter rejected(String reason) {
+            return Counter.builder("orchestrator.upstream.rejected")
+                    .description("Upstream calls refused locally per group")
+                    .tag("group", group.tag())
+                    .tag("reason", reason)
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.orchestrator.upstream;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.Message;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Immutable snapshot of a buffered upstream response
+ * Only the headers set by the upstream call are kept, never the caller's own headers.
+ */
+public record UpstreamResponse(Map<String, Object> headers, byte[] body) {
+
+    /**
+     * Capture the response of a completed call
+     *
+     * @param requestHeaders copy of the message headers taken before the call
+     */
+    public static UpstreamResponse capture(Exchange exchange, Map<String, Object> requestHeaders) {
+        Message message = exchange.getIn();
+        Map<String, Object> responseHeaders = new HashMap<>();
+        message.getHeaders().forEach((name, value) -> {
+            if (!Objects.equals(requestHeaders.get(name), value)) {
+                responseHeaders.put(name, value);
+            }
+        });
+
+        // Buffer once and keep the bytes as the body so it is not read twice
+        byte[] body = message.getBody(byte[].class);
+        message.setBody(body);
+        return new UpstreamResponse(Map.copyOf(responseHeaders), body);
+    }
+
+    /**
+     * Apply the response to another exchange with its own copy of the body
+     */
+    public void applyTo(Exchange exchange) {
+        exchange.getIn().getHeaders().putAll(headers);
+        exchange.getIn().setBody(body != null ? body.clone() : null);
+    }
+}
@@ -0,0 +1,30 @@
+package com.orchestrator.upstream;
+
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Upstream call refused locally: the group's circuit is open, its bulkhead is
+ * full, or the target host is at its concurrency limit
+ */
+public class UpstreamUnavailableException extends RejectedExecutionException {
+
+    private final String errorType;
+    private final long retryAfterSeconds;
+
+    public UpstreamUnavailableException(String errorType, String message, long retryAfterSeconds) {
+        super(message);
+        this.errorType = errorType;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /**
+     * CIRCUIT_OPEN, BULKHEAD_FULL or UPSTREAM_OVERLOADED
+     */
+    public String getErrorType() {
+        return errorType;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,119 @@
+package com.orchestrator.auth;
+
+import com.orchestrator.upstream.UpstreamGuard;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.camel.ProducerTemplate;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+class AuthTicketManagerTest {
+
+    private AuthTicketManager manager;
+    private ProducerTemplate producerTemplate;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        producerTemplate = mock(ProducerTemplate.class);
+        meterRegistry = new SimpleMeterRegistry();
+        manager = new AuthTicketManager(producerTemplate, new UpstreamGuard(meterRegistry), meterRegistry);
+        ReflectionTestUtils.setField(manager, "ttlSeconds", 1500L);
+        ReflectionTestUtils.setField(manager, "refreshAheadSeconds", 300L);
+        manager.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        manager.shutdown();
+    }
+
+    @Test
+    void shouldReuseCachedTicket() {
+        // Given
+        when(producerTemplate.requestBody(eq(AuthTicketManager.FETCH_ROUTE), isNull(), eq(String.class)))
+                .thenReturn("ticket-1");
+
+        // When
+        String first = manager.getTicket();
+        String second = manager.getTicket();
+
+        // Then
+        assertEquals("ticket-1", first);
+        assertEquals("ticket-1", second);
+        verify(producerTemplate, times(1)).requestBody(AuthTicketManager.FETCH_ROUTE, null, String.class);
+        assertEquals(1.0, meterRegistry.counter("orchestrator.auth.ticket.cache", "result", "miss").count());
+        assertEquals(1.0, meterRegistry.counter("orchestrator.auth.ticket.cache", "result", "hit").count());
+    }
+
+    @Test
+    void shouldCollapseConcurrentRefreshesIntoOneCall() throws Exception {
+        // Given
+        AtomicInteger calls = new AtomicInteger();
+        when(producerTemplate.requestBody(eq(AuthTicketManager.FETCH_ROUTE), isNull(), eq(String.class)))
+                .thenAnswer(invocation -> {
+                    calls.incrementAndGet();
+                    Thread.sleep(200);
+                    return "ticket-1";
+                });
+
+        ExecutorService pool = Executors.newFixedThreadPool(50);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<String>> results = new ArrayList<>();
+
+        // When
+        for (int i = 0; i < 500; i++) {
+            results.add(pool.submit(() -> {
+                start.await();
+                return manager.getTicket();
+            }));
+        }
+        start.countDown();
+
+        // Then
+        for (Future<String> result : results) {
+            assertEquals("ticket-1", result.get());
+        }
+        pool.shutdown();
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void shouldFetchNewTicketAfterInvalidation() {
+        // Given
+        when(producerTemplate.requestBody(eq(AuthTicketManager.FETCH_ROUTE), isNull(), eq(String.class)))
+                .thenReturn("ticket-1", "ticket-2");
+        manager.getTicket();
+
+        // When
+        manager.invalidate("ticket-1");
+
+        // Then
+        assertEquals("ticket-2", manager.getTicket());
+    }
+
+    @Test
+    void shouldPropagateAuthFailure() {
+        // Given
+        when(producerTemplate.requestBody(eq(AuthTicketManager.FETCH_ROUTE), isNull(), eq(String.class)))
+                .thenThrow(new IllegalStateException("Response missing 'ticket' field"));
+
+        // When/Then
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () -> manager.getTicket());
+        assertTrue(exception.getMessage().contains("ticket"));
+    }
+}
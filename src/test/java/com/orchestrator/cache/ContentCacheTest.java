@@ -0,0 +1,128 @@
+package com.orchestrator.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContentCacheTest {
+
+    @TempDir
+    Path directory;
+
+    private ContentCache contentCache;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        contentCache = new ContentCache(new ResponseCache(null, meterRegistry), meterRegistry);
+        ReflectionTestUtils.setField(contentCache, "enabled", true);
+        ReflectionTestUtils.setField(contentCache, "directory", directory);
+        ReflectionTestUtils.setField(contentCache, "maxBytes", 1_000_000L);
+        contentCache.init();
+    }
+
+    private static ContentCache.Entry metadata(long size) {
+        return new ContentCache.Entry(null, size, "application/pdf", "attachment; filename=\"a.pdf\"",
+                "\"v1\"", null);
+    }
+
+    @Test
+    void shouldStoreContentOnceReadToTheEnd() throws Exception {
+        // Given
+        byte[] content = "%PDF-1.7 document content".getBytes(StandardCharsets.UTF_8);
+        ResponseCache.Key key = contentCache.keyFor("2000", "https://cs/api/v2/nodes/2000/versions/1/content", null);
+
+        // When
+        byte[] passedThrough;
+        try (InputStream stream = contentCache.fill(key, new ByteArrayInputStream(content), metadata(content.length))) {
+            passedThrough = stream.readAllBytes();
+        }
+
+        // Then
+        assertArrayEquals(content, passedThrough);
+        ContentCache.Entry entry = contentCache.get(key);
+        assertNotNull(entry);
+        assertEquals(content.length, entry.size());
+        assertEquals("\"v1\"", entry.etag());
+        try (InputStream cached = contentCache.open(entry)) {
+            assertArrayEquals(content, cached.readAllBytes());
+        }
+    }
+
+    @Test
+    void shouldStoreIdenticalContentOnce() throws Exception {
+        // Given
+        byte[] content = "same bytes".getBytes(StandardCharsets.UTF_8);
+        ResponseCache.Key first = contentCache.keyFor("1", "https://cs/api/v2/nodes/1/content", null);
+        ResponseCache.Key second = contentCache.keyFor("2", "https://cs/api/v2/nodes/2/content", null);
+
+        // When
+        for (ResponseCache.Key key : new ResponseCache.Key[]{first, second}) {
+            try (InputStream stream = contentCache.fill(key, new ByteArrayInputStream(content), metadata(-1))) {
+                stream.readAllBytes();
+            }
+        }
+
+        // Then
+        assertEquals(contentCache.get(first).hash(), contentCache.get(second).hash());
+        try (Stream<Path> blobs = Files.list(directory.resolve("blobs"))) {
+            assertEquals(1, blobs.count());
+        }
+    }
+
+    @Test
+    void shouldDiscardAbandonedOrIncompleteDownloads() throws Exception {
+        // Given
+        byte[] content = new byte[64 * 1024];
+        ResponseCache.Key abandoned = contentCache.keyFor("1", "https://cs/api/v2/nodes/1/content", null);
+        ResponseCache.Key truncated = contentCache.keyFor("2", "https://cs/api/v2/nodes/2/content", null);
+
+        // When
+        try (InputStream stream = contentCache.fill(abandoned, new ByteArrayInputStream(content),
+                metadata(content.length))) {
+            stream.readNBytes(1024);
+        }
+        try (InputStream stream = contentCache.fill(truncated, new ByteArrayInputStream(content),
+                metadata(content.length + 1))) {
+            stream.readAllBytes();
+        }
+
+        // Then
+        assertNull(contentCache.get(abandoned));
+        assertNull(contentCache.get(truncated));
+        try (Stream<Path> files = Files.list(directory.resolve("tmp"))) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void shouldReportABlobEvictedAfterTheLookup() throws Exception {
+        // Given
+        byte[] content = "short lived".getBytes(StandardCharsets.UTF_8);
+        ResponseCache.Key key = contentCache.keyFor("3000", "https://cs/api/v2/nodes/3000/content", null);
+        try (InputStream stream = contentCache.fill(key, new ByteArrayInputStream(content), metadata(content.length))) {
+            stream.readAllBytes();
+        }
+        ContentCache.Entry entry = contentCache.get(key);
+        Files.delete(directory.resolve("blobs").resolve(entry.hash()));
+
+        // When
+        assertThrows(NoSuchFileException.class, () -> contentCache.open(entry));
+        contentCache.invalidate(key);
+
+        // Then
+        assertNull(contentCache.get(key));
+    }
+}
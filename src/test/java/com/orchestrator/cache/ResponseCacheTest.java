@@ -0,0 +1,149 @@
+package com.orchestrator.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.orchestrator.config.EndpointConfigLoader;
+import com.orchestrator.config.model.CacheConfig;
+import com.orchestrator.config.model.EndpointConfig;
+import com.orchestrator.config.model.OpentextConfig;
+import com.orchestrator.config.plan.EndpointPlan;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ResponseCacheTest {
+
+    private static final String NODE = "https://cs/api/v2/nodes/2000";
+    private static final String CATEGORIES = "https://cs/api/v2/nodes/2000/categories";
+
+    private ResponseCache responseCache;
+
+    @BeforeEach
+    void setUp() {
+        EndpointConfigLoader configLoader = mock(EndpointConfigLoader.class);
+        when(configLoader.getPlans()).thenReturn(Map.of(
+                "get-node", plan("get-node", "GET", cache(0)),
+                "get-categories", plan("get-categories", "GET", cache(0)),
+                "get-node-small", plan("get-node-small", "GET", cache(200)),
+                "update-node", plan("update-node", "PUT", invalidating())));
+        responseCache = new ResponseCache(configLoader, new SimpleMeterRegistry());
+        responseCache.init();
+    }
+
+    private static EndpointPlan plan(String name, String method, CacheConfig cache) {
+        OpentextConfig opentext = new OpentextConfig();
+        opentext.setPath("/v2/nodes/{nodeId}");
+        opentext.setMethod(method);
+        EndpointConfig config = new EndpointConfig();
+        config.setName(name);
+        config.setOpentext(opentext);
+        config.setCache(cache);
+        return EndpointPlan.compile(config);
+    }
+
+    private static CacheConfig cache(long maxBytes) {
+        CacheConfig config = new CacheConfig();
+        config.setMaxBytes(maxBytes);
+        return config;
+    }
+
+    private static CacheConfig invalidating() {
+        CacheConfig config = new CacheConfig();
+        config.setInvalidate(true);
+        return config;
+    }
+
+    private static ResponseCache.Entry entry(String body) {
+        return new ResponseCache.Entry(body.getBytes(StandardCharsets.UTF_8), "application/json");
+    }
+
+    private void put(String endpointName, ResponseCache.Key key, String body) {
+        responseCache.put(endpointName, key, responseCache.generation(key.nodeId()), entry(body));
+    }
+
+    @Test
+    void shouldOnlyCacheBufferedGetEndpoints() {
+        assertTrue(responseCache.isCacheable("get-node"));
+        assertFalse(responseCache.isCacheable("update-node"));
+    }
+
+    @Test
+    void shouldKeepResponsesOfDifferentCallersApart() {
+        // Given
+        ResponseCache.Key alice = responseCache.keyFor("2000", NODE, "Basic YWxpY2U6cHc=");
+        ResponseCache.Key bob = responseCache.keyFor("2000", NODE, "Basic Ym9iOnB3");
+
+        // When
+        put("get-node", alice, "{\"name\":\"visible to alice\"}");
+
+        // Then
+        assertNotEquals(alice, bob);
+        assertFalse(alice.identity().contains("YWxpY2U"));
+        assertNotNull(responseCache.get("get-node", alice));
+        assertNull(responseCache.get("get-node", bob));
+        assertNull(responseCache.get("get-node", responseCache.keyFor("2000", NODE, null)));
+    }
+
+    @Test
+    void shouldBoundCachedBytes() {
+        // Given
+        String body = "x".repeat(60);
+
+        // When
+        for (int node = 1; node <= 5; node++) {
+            put("get-node-small", responseCache.keyFor(String.valueOf(node), NODE + node, null), body);
+        }
+        @SuppressWarnings("unchecked")
+        Cache<ResponseCache.Key, ResponseCache.Entry> cache = ((Map<String, Cache<ResponseCache.Key, ResponseCache.Entry>>)
+                ReflectionTestUtils.getField(responseCache, "caches")).get("get-node-small");
+        cache.cleanUp();
+
+        // Then
+        long weight = cache.asMap().entrySet().stream()
+                .mapToLong(e -> e.getValue().body().length + e.getKey().url().length())
+                .sum();
+        assertTrue(weight <= 200, "cached weight " + weight);
+        assertTrue(cache.estimatedSize() < 5);
+    }
+
+    @Test
+    void shouldEvictANodeAcrossEndpoints() {
+        // Given
+        ResponseCache.Key node = responseCache.keyFor("2000", NODE, null);
+        ResponseCache.Key categories = responseCache.keyFor("2000", CATEGORIES, null);
+        ResponseCache.Key other = responseCache.keyFor("3000", "https://cs/api/v2/nodes/3000", null);
+        put("get-node", node, "{}");
+        put("get-categories", categories, "{}");
+        put("get-node", other, "{}");
+
+        // When
+        responseCache.evictNode("2000");
+
+        // Then
+        assertNull(responseCache.get("get-node", node));
+        assertNull(responseCache.get("get-categories", categories));
+        assertNotNull(responseCache.get("get-node", other));
+    }
+
+    @Test
+    void shouldNotStoreAResponseReadBeforeTheNodeWasEvicted() {
+        // Given
+        ResponseCache.Key key = responseCache.keyFor("2000", NODE, null);
+        long generation = responseCache.generation("2000");
+
+        // When
+        responseCache.evictNode("2000"); // a write completes while the read is in flight
+        responseCache.put("get-node", key, generation, entry("{\"name\":\"before the write\"}"));
+
+        // Then
+        assertNull(responseCache.get("get-node", key));
+        put("get-node", key, "{\"name\":\"after the write\"}");
+        assertNotNull(responseCache.get("get-node", key));
+    }
+}
@@ -0,0 +1,41 @@
+package com.orchestrator.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VirtualThreadsEnvironmentPostProcessorTest {
+
+    private final VirtualThreadsEnvironmentPostProcessor postProcessor = new VirtualThreadsEnvironmentPostProcessor();
+
+    @AfterEach
+    void tearDown() {
+        System.clearProperty(VirtualThreadsEnvironmentPostProcessor.CAMEL_VIRTUAL_THREADS);
+    }
+
+    @Test
+    void shouldEnableCamelVirtualThreadsWithSpring() {
+        // Given
+        MockEnvironment environment = new MockEnvironment().withProperty("spring.threads.virtual.enabled", "true");
+
+        // When
+        postProcessor.postProcessEnvironment(environment, null);
+
+        // Then
+        assertEquals("true", System.getProperty(VirtualThreadsEnvironmentPostProcessor.CAMEL_VIRTUAL_THREADS));
+    }
+
+    @Test
+    void shouldLeaveCamelOnPlatformThreadsByDefault() {
+        // Given
+        MockEnvironment environment = new MockEnvironment();
+
+        // When
+        postProcessor.postProcessEnvironment(environment, null);
+
+        // Then
+        assertNull(System.getProperty(VirtualThreadsEnvironmentPostProcessor.CAMEL_VIRTUAL_THREADS));
+    }
+}
@@ -0,0 +1,108 @@
+package com.orchestrator.config.plan;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.orchestrator.config.model.EndpointConfig;
+import com.orchestrator.config.model.MappingConfig;
+import com.orchestrator.config.model.OpentextConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EndpointPlanTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private EndpointPlan plan;
+
+    @BeforeEach
+    void setUp() {
+        OpentextConfig opentext = new OpentextConfig();
+        opentext.setPath("/v2/nodes/{nodeId}/categories");
+        opentext.setMethod("GET");
+        opentext.setRequiresAuth(true);
+
+        Map<String, String> input = new LinkedHashMap<>();
+        input.put("nodeId", "$.id");
+        input.put("metadata", "$.metadata");
+        input.put("codes", "$.supper_response_codes");
+        Map<String, String> queryParams = new LinkedHashMap<>();
+        queryParams.put("metadata", "{metadata}");
+        queryParams.put("supper_response_codes", "{codes}");
+
+        MappingConfig mapping = new MappingConfig();
+        mapping.setInput(input);
+        mapping.setQueryParams(queryParams);
+        mapping.setHeaders(Map.of("OTCSTicket", "{authToken}"));
+
+        EndpointConfig config = new EndpointConfig();
+        config.setName("get-categories");
+        config.setOpentext(opentext);
+        config.setMapping(mapping);
+
+        plan = EndpointPlan.compile(config);
+    }
+
+    @Test
+    void shouldBuildUrlWithEncodedQueryParameters() throws Exception {
+        // Given
+        Map<String, Object> values = plan.extractValues(
+                objectMapper.readTree("{\"id\":12345,\"metadata\":\"true\",\"supper_response_codes\":\"200,201\"}"));
+
+        // When
+        String url = plan.buildUrl("http://localhost:8082", values);
+
+        // Then
+        assertEquals("http://localhost:8082/v2/nodes/12345/categories?metadata=true&supper_response_codes=200%2C201",
+                url);
+    }
+
+    @Test
+    void shouldSkipQueryParametersWithMissingValues() throws Exception {
+        // Given
+        Map<String, Object> values = plan.extractValues(objectMapper.readTree("{\"id\":\"12345\"}"));
+
+        // When
+        String url = plan.buildUrl("http://localhost:8082", values);
+
+        // Then
+        assertEquals("http://localhost:8082/v2/nodes/12345/categories", url);
+        assertNull(values.get("metadata"));
+    }
+
+    @Test
+    void shouldEncodePathParameters() throws Exception {
+        // Given
+        Map<String, Object> values = plan.extractValues(objectMapper.readTree("{\"id\":\"a b/c\"}"));
+
+        // When
+        String url = plan.buildUrl("http://localhost:8082", values);
+
+        // Then
+        assertEquals("http://localhost:8082/v2/nodes/a%20b%2Fc/categories", url);
+    }
+
+    @Test
+    void shouldRejectMissingPathParameter() throws Exception {
+        // Given
+        Map<String, Object> values = plan.extractValues(objectMapper.readTree("{\"metadata\":\"true\"}"));
+
+        // When/Then
+        IllegalArgumentException exception = assertThrows(
+                IllegalArgumentException.class,
+                () -> plan.buildUrl("http://localhost:8082", values));
+        assertTrue(exception.getMessage().contains("nodeId"));
+    }
+
+    @Test
+    void shouldRenderHeaderTemplates() {
+        // Given
+        Template template = plan.getHeaders().get(0).value();
+
+        // When/Then
+        assertEquals("ticket-1", template.render(Map.of("authToken", "ticket-1"), Template.Encoding.NONE));
+        assertNull(template.render(Map.of(), Template.Encoding.NONE));
+    }
+}
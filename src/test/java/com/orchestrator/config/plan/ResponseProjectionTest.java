@@ -0,0 +1,81 @@
+package com.orchestrator.config.plan;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseProjectionTest {
+
+    private static final String SEARCH_RESPONSE = "{\"links\":{\"data\":{\"self\":{\"href\":\"/api/v2/search\"}}},"
+            + "\"collection\":{\"paging\":{\"total_count\":2}},"
+            + "\"results\":[{\"data\":{\"properties\":{\"id\":101,\"name\":\"Contract.pdf\",\"size\":1.50}}},"
+            + "{\"data\":{\"properties\":{\"id\":102,\"name\":\"Invoice.pdf\"}}}]}";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void shouldProjectJsonPathAndJsonPointerEntries() throws Exception {
+        // Given
+        Map<String, String> transform = new LinkedHashMap<>();
+        transform.put("total", "$.collection.paging.total_count");
+        transform.put("ids", "$.results[*].data.properties.id");
+        transform.put("first", "/results/0/data/properties");
+        transform.put("firstName", "$.results[0].data.properties['name']");
+        transform.put("missing", "$.results[5].data");
+        transform.put("source", "opentext");
+        ResponseProjection projection = ResponseProjection.compile(transform);
+
+        // When
+        JsonNode result = objectMapper.readTree(projection.project(objectMapper.getFactory(),
+                objectMapper.getFactory().createParser(SEARCH_RESPONSE)));
+
+        // Then
+        assertTrue(projection.isProjecting());
+        assertEquals(2, result.get("total").asInt());
+        assertEquals("[101,102]", result.get("ids").toString());
+        assertEquals("{\"id\":101,\"name\":\"Contract.pdf\",\"size\":1.50}", result.get("first").toString());
+        assertEquals("Contract.pdf", result.get("firstName").asText());
+        assertTrue(result.get("missing").isNull());
+        assertEquals("opentext", result.get("source").asText());
+        assertFalse(result.has("links"));
+        assertFalse(result.has("data"));
+        assertTrue(result.has("timestamp"));
+    }
+
+    @Test
+    void shouldStopReadingOnceDefinitePathsAreResolved() throws Exception {
+        // Given
+        ResponseProjection projection = ResponseProjection.compile(Map.of("self", "$.links.data.self.href"));
+
+        // When: content after the match is never read
+        JsonNode result = objectMapper.readTree(projection.project(objectMapper.getFactory(),
+                objectMapper.getFactory().createParser(SEARCH_RESPONSE.substring(0, 80))));
+
+        // Then
+        assertEquals("/api/v2/search", result.get("self").asText());
+    }
+
+    @Test
+    void shouldTreatLiteralOnlyTransformAsNonProjecting() {
+        // Given / When
+        ResponseProjection projection = ResponseProjection.compile(Map.of("source", "opentext"));
+
+        // Then
+        assertFalse(projection.isProjecting());
+        assertFalse(ResponseProjection.compile(null).isProjecting());
+    }
+
+    @Test
+    void shouldRejectPathsThatCannotBeStreamed() {
+        for (String expression : new String[]{"$..id", "$.results[?(@.id > 1)]", "$.results[0:2]",
+                "$.results[0,1]", "$.results.length()"}) {
+            assertThrows(IllegalArgumentException.class,
+                    () -> ResponseProjection.compile(Map.of("value", expression)), expression);
+        }
+    }
+}
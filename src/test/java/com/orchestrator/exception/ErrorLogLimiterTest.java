@@ -0,0 +1,43 @@
+package com.orchestrator.exception;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ErrorLogLimiterTest {
+
+    @Test
+    void shouldSuppressErrorsBeyondLimitPerType() {
+        // Given
+        ErrorLogLimiter limiter = new ErrorLogLimiter(60_000, 2);
+        Exception cause = new IllegalStateException("upstream down");
+
+        // When
+        boolean first = limiter.acquire("SERVICE_ERROR", cause).log();
+        boolean second = limiter.acquire("SERVICE_ERROR", cause).log();
+        boolean third = limiter.acquire("SERVICE_ERROR", cause).log();
+        boolean otherType = limiter.acquire("INVALID_REQUEST", new IllegalArgumentException("bad")).log();
+
+        // Then
+        assertTrue(first);
+        assertTrue(second);
+        assertFalse(third);
+        assertTrue(otherType);
+    }
+
+    @Test
+    void shouldPrintEachStackTraceOnce() {
+        // Given
+        ErrorLogLimiter limiter = new ErrorLogLimiter(0, 0);
+        Exception cause = new IllegalStateException("upstream down");
+
+        // When
+        ErrorLogLimiter.Decision first = limiter.acquire("SERVICE_ERROR", cause);
+        ErrorLogLimiter.Decision repeat = limiter.acquire("SERVICE_ERROR", cause);
+
+        // Then
+        assertTrue(first.fullStackTrace());
+        assertFalse(repeat.fullStackTrace());
+        assertEquals(first.signature(), repeat.signature());
+    }
+}
@@ -1,5 +1,6 @@
 package com.orchestrator.exception;
 
+import com.orchestrator.upstream.UpstreamUnavailableException;
 import org.apache.camel.CamelContext;
 import org.apache.camel.Exchange;
 import org.apache.camel.impl.DefaultCamelContext;
@@ -64,4 +65,20 @@ class GlobalExceptionHandlerTest {
         // Then
         assertEquals(500, exchange.getIn().getHeader(Exchange.HTTP_RESPONSE_CODE));
     }
+
+    @Test
+    void shouldHandleOpenCircuitWith503AndRetryAfter() throws Exception {
+        // Given
+        Exchange exchange = new DefaultExchange(camelContext);
+        exchange.setProperty(Exchange.EXCEPTION_CAUGHT,
+                new UpstreamUnavailableException("CIRCUIT_OPEN", "Content Server calls are failing", 12));
+
+        // When
+        handler.process(exchange);
+
+        // Then
+        assertEquals(503, exchange.getIn().getHeader(Exchange.HTTP_RESPONSE_CODE));
+        assertEquals(12L, exchange.getIn().getHeader("Retry-After"));
+        assertTrue(exchange.getIn().getBody(String.class).contains("\"errorType\":\"CIRCUIT_OPEN\""));
+    }
 }
@@ -0,0 +1,144 @@
+package com.orchestrator.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.opentelemetry.api.OpenTelemetry;
+import org.apache.camel.CamelContext;
+import org.apache.camel.Exchange;
+import org.apache.camel.Route;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.apache.camel.spi.Synchronization;
+import org.apache.camel.spi.SynchronizationRouteAware;
+import org.apache.camel.support.DefaultExchange;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class OrchestrationMetricsTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private OrchestrationMetrics metrics;
+    private CamelContext camelContext;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        metrics = new OrchestrationMetrics(meterRegistry, new OrchestrationTracing(OpenTelemetry.noop()));
+        camelContext = new DefaultCamelContext();
+    }
+
+    @Test
+    void shouldRecordStageAndOverheadPerEndpoint() throws Exception {
+        // Given
+        Exchange exchange = new DefaultExchange(camelContext);
+        exchange.setProperty("endpointName", "get-node");
+        exchange.getIn().setHeader(Exchange.HTTP_METHOD, "GET");
+        exchange.getIn().setBody("{\"nodeId\":1}".getBytes());
+        metrics.begin(exchange);
+
+        // When
+        metrics.stage(OrchestrationMetrics.UPSTREAM, ex -> {
+            Thread.sleep(20);
+            ex.getIn().setBody("{\"data\":{}}".getBytes());
+        }).process(exchange);
+        exchange.getExchangeExtension().handoverCompletions().forEach(sync -> sync.onComplete(exchange));
+
+        // Then
+        Timer upstream = meterRegistry.get("orchestrator.stage")
+                .tags("endpointName", "get-node", "method", "GET", "stage", "upstream", "outcome", "success")
+                .timer();
+        Timer overhead = meterRegistry.get("orchestrator.request.overhead").tag("endpointName", "get-node").timer();
+        Timer request = meterRegistry.get("orchestrator.request").tag("endpointName", "get-node").timer();
+
+        assertEquals(1, upstream.count());
+        assertTrue(upstream.totalTime(TimeUnit.MILLISECONDS) >= 20);
+        assertTrue(overhead.totalTime(TimeUnit.NANOSECONDS) < request.totalTime(TimeUnit.NANOSECONDS));
+        assertEquals(11, meterRegistry.get("orchestrator.request.bytes").tag("direction", "out").summary().totalAmount());
+    }
+
+    @Test
+    void shouldTagFailedStagesAsError() throws Exception {
+        // Given
+        Exchange exchange = new DefaultExchange(camelContext);
+        exchange.setProperty("endpointName", "get-node");
+
+        // When
+        metrics.stage(OrchestrationMetrics.AUTH, ex -> {
+            throw new IllegalStateException("auth down");
+        }).process(exchange);
+
+        // Then
+        assertEquals(1, meterRegistry.get("orchestrator.stage").tags("stage", "auth", "outcome", "error").timer().count());
+        assertInstanceOf(IllegalStateException.class, exchange.getException());
+    }
+
+    @Test
+    void shouldTagEveryStageWithTheCallersMethod() throws Exception {
+        // Given
+        Exchange exchange = new DefaultExchange(camelContext);
+        exchange.setProperty("endpointName", "get-node");
+        exchange.getIn().setHeader(Exchange.HTTP_METHOD, "POST");
+        metrics.begin(exchange);
+
+        // When - the auth and upstream calls set their own methods on the exchange
+        metrics.stage(OrchestrationMetrics.AUTH, ex -> ex.getIn().setHeader(Exchange.HTTP_METHOD, "POST"))
+                .process(exchange);
+        metrics.stage(OrchestrationMetrics.UPSTREAM, ex -> ex.getIn().setHeader(Exchange.HTTP_METHOD, "GET"))
+                .process(exchange);
+        metrics.stage(OrchestrationMetrics.RESPONSE_TRANSFORM, ex -> { }).process(exchange);
+
+        // Then
+        assertEquals(3, meterRegistry.get("orchestrator.stage").tag("method", "POST").timers().size());
+        assertTrue(meterRegistry.find("orchestrator.stage").tag("method", "GET").timers().isEmpty());
+    }
+
+    @Test
+    void shouldCountResponseTextAsUtf8Bytes() {
+        // Given
+        Exchange exchange = new DefaultExchange(camelContext);
+        exchange.setProperty("endpointName", "get-node");
+        metrics.begin(exchange);
+
+        // When
+        exchange.getIn().setBody("{\"name\":\"Caf\u00e9 \u20ac\"}");
+        exchange.getExchangeExtension().handoverCompletions().forEach(sync -> sync.onComplete(exchange));
+
+        // Then
+        assertEquals(20, meterRegistry.get("orchestrator.request.bytes").tag("direction", "out").summary().totalAmount());
+        assertEquals(4, OrchestrationMetrics.utf8Length("\uD83D\uDE00"));
+    }
+
+    @Test
+    void shouldCountStreamedResponsesAsTheyAreRead() throws Exception {
+        // Given
+        Exchange exchange = new DefaultExchange(camelContext);
+        exchange.setProperty("endpointName", "download-file");
+        exchange.getExchangeExtension().setFromRouteId("dynamic-orchestration");
+        metrics.begin(exchange);
+        exchange.getIn().setBody(new ByteArrayInputStream(new byte[100_000])); // no Content-Length
+        Route route = mock(Route.class);
+        when(route.getRouteId()).thenReturn("dynamic-orchestration");
+        List<Synchronization> completions = exchange.getExchangeExtension().handoverCompletions();
+
+        // When
+        completions.forEach(sync -> ((SynchronizationRouteAware) sync).onAfterRoute(route, exchange));
+        try (InputStream body = exchange.getIn().getBody(InputStream.class)) {
+            body.transferTo(OutputStream.nullOutputStream()); // the servlet writing the response
+        }
+        completions.forEach(sync -> sync.onComplete(exchange));
+
+        // Then
+        DistributionSummary out = meterRegistry.get("orchestrator.request.bytes").tag("direction", "out").summary();
+        assertEquals(1, out.count());
+        assertEquals(100_000, out.totalAmount());
+    }
+}
@@ -0,0 +1,46 @@
+package com.orchestrator.processor;
+
+import com.orchestrator.auth.AuthTicketManager;
+import org.apache.camel.Exchange;
+import org.apache.camel.http.base.HttpOperationFailedException;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.apache.camel.support.DefaultExchange;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.mockito.Mockito.*;
+
+class AuthTicketProcessorTest {
+
+    private final AuthTicketManager ticketManager = mock(AuthTicketManager.class);
+    private final AuthTicketProcessor processor = new AuthTicketProcessor(ticketManager);
+
+    @Test
+    void shouldInvalidateTicketRejectedWithHandled401() {
+        // Given - a batch item whose failure was handled by the route's onException
+        Exchange item = new DefaultExchange(new DefaultCamelContext());
+        item.setProperty(Exchange.EXCEPTION_CAUGHT,
+                new HttpOperationFailedException("https://cs/api/v2/nodes/1", 401, "Unauthorized", null, Map.of(), ""));
+
+        // When
+        processor.invalidateIfRejected(item, "ticket-1");
+
+        // Then
+        verify(ticketManager).invalidate("ticket-1");
+    }
+
+    @Test
+    void shouldKeepTicketOnOtherFailures() {
+        // Given
+        Exchange item = new DefaultExchange(new DefaultCamelContext());
+        item.setException(
+                new HttpOperationFailedException("https://cs/api/v2/nodes/1", 404, "Not Found", null, Map.of(), ""));
+
+        // When
+        processor.invalidateIfRejected(item, "ticket-1");
+
+        // Then
+        verify(ticketManager, never()).invalidate(anyString());
+    }
+}
@@ -0,0 +1,207 @@
+package com.orchestrator.processor.dynamic;
+
+import com.orchestrator.cache.ContentCache;
+import com.orchestrator.cache.ResponseCache;
+import com.orchestrator.config.model.ContentCacheConfig;
+import com.orchestrator.config.model.EndpointConfig;
+import com.orchestrator.config.model.OpentextConfig;
+import com.orchestrator.config.model.ResponseConfig;
+import com.orchestrator.config.plan.EndpointPlan;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.camel.AsyncCallback;
+import org.apache.camel.CamelContext;
+import org.apache.camel.Exchange;
+import org.apache.camel.http.base.HttpOperationFailedException;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.apache.camel.support.DefaultExchange;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ContentCacheProcessorTest {
+
+    private static final byte[] CONTENT = "%PDF-1.7 version 1 content".getBytes(StandardCharsets.UTF_8);
+    private static final String ETAG = "\"v1\"";
+
+    @TempDir
+    Path directory;
+
+    private final CamelContext camelContext = new DefaultCamelContext();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    /** Conditional header sent with each upstream call, "" when there was none */
+    private final List<String> upstreamCalls = new CopyOnWriteArrayList<>();
+    private ContentCache contentCache;
+    private ContentCacheProcessor processor;
+    private boolean notModified;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        ContentCache real = new ContentCache(new ResponseCache(null, meterRegistry), meterRegistry);
+        ReflectionTestUtils.setField(real, "enabled", true);
+        ReflectionTestUtils.setField(real, "directory", directory);
+        ReflectionTestUtils.setField(real, "maxBytes", 1_000_000L);
+        real.init();
+        contentCache = spy(real);
+
+        // Stub Content Server: 304 when asked and told to, the content otherwise
+        ParallelDownloadProcessor upstream = mock(ParallelDownloadProcessor.class);
+        when(upstream.process(any(Exchange.class), any(AsyncCallback.class))).thenAnswer(invocation -> {
+            Exchange exchange = invocation.getArgument(0);
+            AsyncCallback callback = invocation.getArgument(1);
+            String conditional = exchange.getIn().getHeader("If-None-Match", "", String.class);
+            upstreamCalls.add(conditional);
+            if (notModified && !conditional.isEmpty()) {
+                exchange.setException(new HttpOperationFailedException("https://cs/api/v2/nodes/2000/content",
+                        304, "Not Modified", null, Map.of(), ""));
+            } else {
+                exchange.getIn().setHeader(Exchange.HTTP_RESPONSE_CODE, 200);
+                exchange.getIn().setHeader("Content-Length", (long) CONTENT.length);
+                exchange.getIn().setHeader(Exchange.CONTENT_TYPE, "application/pdf");
+                exchange.getIn().setHeader("ETag", ETAG);
+                exchange.getIn().setBody(new ByteArrayInputStream(CONTENT));
+            }
+            callback.done(true);
+            return true;
+        });
+
+        processor = new ContentCacheProcessor(upstream, contentCache, meterRegistry);
+        ReflectionTestUtils.setField(processor, "identityHeader", "Authorization");
+        processor.init();
+    }
+
+    private Exchange download(boolean immutable) throws Exception {
+        OpentextConfig opentext = new OpentextConfig();
+        opentext.setPath("/v2/nodes/{nodeId}/content");
+        opentext.setMethod("GET");
+        ResponseConfig response = new ResponseConfig();
+        response.setType("stream");
+        ContentCacheConfig cache = new ContentCacheConfig();
+        cache.setImmutable(immutable);
+        EndpointConfig config = new EndpointConfig();
+        config.setName("download-file");
+        config.setOpentext(opentext);
+        config.setResponse(response);
+        config.setContentCache(cache);
+
+        Exchange exchange = new DefaultExchange(camelContext);
+        exchange.setProperty("endpointPlan", EndpointPlan.compile(config));
+        exchange.setProperty("nodeId", "2000");
+        exchange.setProperty("targetUrl", "https://cs/api/v2/nodes/2000/content");
+        exchange.getIn().setHeader("Authorization", "Basic YWxpY2U6cHc=");
+        processor.process(exchange);
+        return exchange;
+    }
+
+    private static byte[] read(Exchange exchange) throws Exception {
+        try (InputStream body = exchange.getIn().getBody(InputStream.class)) {
+            return body.readAllBytes();
+        }
+    }
+
+    private double count(String result) {
+        return meterRegistry.get("orchestrator.content.cache.requests").tag("result", result).counter().count();
+    }
+
+    private void deleteBlobs() throws Exception {
+        try (Stream<Path> blobs = Files.list(directory.resolve("blobs"))) {
+            for (Path blob : (Iterable<Path>) blobs::iterator) {
+                Files.delete(blob);
+            }
+        }
+    }
+
+    @Test
+    void shouldServeImmutableContentFromDiskWithoutAskingContentServer() throws Exception {
+        // Given
+        assertArrayEquals(CONTENT, read(download(true)));
+
+        // When
+        Exchange hit = download(true);
+
+        // Then
+        assertArrayEquals(CONTENT, read(hit));
+        assertEquals(1, upstreamCalls.size());
+        assertEquals(200, hit.getIn().getHeader(Exchange.HTTP_RESPONSE_CODE));
+        assertEquals((long) CONTENT.length, hit.getIn().getHeader("Content-Length"));
+        assertEquals("application/pdf", hit.getIn().getHeader(Exchange.CONTENT_TYPE));
+        assertEquals(1, count("hit"));
+        assertEquals(1, count("miss"));
+    }
+
+    @Test
+    void shouldServeTheCachedCopyWhenContentServerAnswersNotModified() throws Exception {
+        // Given
+        read(download(false));
+        notModified = true;
+
+        // When
+        Exchange revalidated = download(false);
+
+        // Then
+        assertEquals(List.of("", ETAG), upstreamCalls);
+        assertNull(revalidated.getException());
+        assertArrayEquals(CONTENT, read(revalidated));
+        assertNull(revalidated.getIn().getHeader("If-None-Match"));
+        assertEquals(ETAG, revalidated.getIn().getHeader("ETag"));
+        assertEquals(1, count("revalidated"));
+    }
+
+    @Test
+    void shouldFetchContentAgainWhenTheBlobIsEvictedAfterTheLookup() throws Exception {
+        // Given
+        read(download(true));
+        doAnswer(invocation -> {
+            Object entry = invocation.callRealMethod();
+            deleteBlobs(); // evicted between the index lookup and the open
+            return entry;
+        }).when(contentCache).get(any(ResponseCache.Key.class));
+
+        // When
+        Exchange refetched = download(true);
+
+        // Then
+        assertNull(refetched.getException());
+        assertArrayEquals(CONTENT, read(refetched));
+        assertEquals(List.of("", ""), upstreamCalls);
+        assertEquals(0, count("hit"));
+        assertEquals(2, count("miss"));
+        doCallRealMethod().when(contentCache).get(any(ResponseCache.Key.class));
+        assertArrayEquals(CONTENT, read(download(true))); // refilled
+        assertEquals(2, upstreamCalls.size());
+    }
+
+    @Test
+    void shouldRevalidateUnconditionallyWhenTheBlobIsEvictedAfterTheLookup() throws Exception {
+        // Given
+        read(download(false));
+        notModified = true;
+        doAnswer(invocation -> {
+            Object entry = invocation.callRealMethod();
+            deleteBlobs();
+            return entry;
+        }).when(contentCache).get(any(ResponseCache.Key.class));
+
+        // When
+        Exchange refetched = download(false);
+
+        // Then - a 304 would leave nothing to serve, so no validators are sent
+        assertEquals(List.of("", ""), upstreamCalls);
+        assertNull(refetched.getException());
+        assertArrayEquals(CONTENT, read(refetched));
+    }
+}
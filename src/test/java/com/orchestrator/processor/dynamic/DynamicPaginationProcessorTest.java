@@ -0,0 +1,178 @@
+package com.orchestrator.processor.dynamic;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.orchestrator.auth.AuthTicketManager;
+import com.orchestrator.config.model.EndpointConfig;
+import com.orchestrator.config.model.MappingConfig;
+import com.orchestrator.config.model.OpentextConfig;
+import com.orchestrator.config.model.PaginationConfig;
+import com.orchestrator.config.plan.EndpointPlan;
+import com.orchestrator.context.RequestContext;
+import com.orchestrator.processor.AuthTicketProcessor;
+import org.apache.camel.CamelContext;
+import org.apache.camel.Exchange;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.apache.camel.support.DefaultExchange;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class DynamicPaginationProcessorTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<Integer> fetched = new CopyOnWriteArrayList<>();
+    private final List<String> tickets = new CopyOnWriteArrayList<>();
+
+    private CamelContext camelContext;
+    private AuthTicketManager ticketManager;
+    private DynamicPaginationProcessor processor;
+    private Integer pageTotal;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        camelContext = new DefaultCamelContext();
+        camelContext.addRoutes(new RouteBuilder() {
+            @Override
+            public void configure() {
+                // Stub Content Server: pages of two items
+                from(DynamicPaginationProcessor.PAGE_ROUTE).process(exchange -> {
+                    int page = (Integer) exchange.getProperty(DynamicPaginationProcessor.INPUT_OVERRIDES, Map.class)
+                            .get("page");
+                    fetched.add(page);
+                    tickets.add(exchange.getProperty("authToken", String.class));
+                    exchange.getIn().setBody(("{\"results\":[{\"n\":" + (page * 10) + "},{\"n\":" + (page * 10 + 1) + "}]"
+                            + (pageTotal != null ? ",\"page_total\":" + pageTotal : "") + "}")
+                            .getBytes(StandardCharsets.UTF_8));
+                });
+            }
+        });
+        camelContext.start();
+
+        ticketManager = mock(AuthTicketManager.class);
+        when(ticketManager.getTicket()).thenReturn("ticket-1");
+        processor = new DynamicPaginationProcessor(objectMapper, camelContext.createProducerTemplate(), camelContext,
+                ticketManager, new AuthTicketProcessor(ticketManager));
+        ReflectionTestUtils.setField(processor, "threads", 4);
+        processor.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        camelContext.stop();
+    }
+
+    private Exchange request(int maxPages) {
+        OpentextConfig opentext = new OpentextConfig();
+        opentext.setPath("/v2/nodes/{nodeId}/nodes");
+        opentext.setMethod("GET");
+        opentext.setRequiresAuth(true);
+        MappingConfig mapping = new MappingConfig();
+        mapping.setInput(Map.of("nodeId", "$.id", "page", "$.page", "limit", "$.limit"));
+        PaginationConfig pagination = new PaginationConfig();
+        pagination.setFirstPage(0);
+        pagination.setPageSize(2);
+        pagination.setMaxPages(maxPages);
+        if (pageTotal != null) {
+            pagination.setPageTotal("$.page_total");
+        }
+        EndpointConfig config = new EndpointConfig();
+        config.setName("get-folder-contents");
+        config.setOpentext(opentext);
+        config.setMapping(mapping);
+        config.setPagination(pagination);
+
+        Exchange exchange = new DefaultExchange(camelContext);
+        exchange.setProperty("endpointPlan", EndpointPlan.compile(config));
+        exchange.getIn().setHeader("Accept", "application/x-ndjson");
+        RequestContext.attach(exchange, "{\"id\":\"2000\",\"allPages\":true}".getBytes(StandardCharsets.UTF_8));
+        return exchange;
+    }
+
+    private static List<String> lines(Exchange exchange) throws Exception {
+        try (InputStream body = exchange.getIn().getBody(InputStream.class)) {
+            return new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8)).lines().toList();
+        }
+    }
+
+    @Test
+    void shouldStopAtThePageTotalWhenPagesStartAtZero() throws Exception {
+        // Given
+        pageTotal = 3;
+        Exchange exchange = request(100);
+
+        // When
+        processor.process(exchange);
+        List<String> items = lines(exchange);
+
+        // Then
+        assertEquals(6, items.size());
+        assertEquals(List.of(0, 1, 2), fetched);
+    }
+
+    @Test
+    void shouldTruncateAtMaxPages() throws Exception {
+        // Given - full pages and no page total: only maxPages ends the run
+        Exchange exchange = request(2);
+        exchange.getIn().removeHeader("Accept");
+
+        // When
+        processor.process(exchange);
+        String body = new String(exchange.getIn().getBody(InputStream.class).readAllBytes(), StandardCharsets.UTF_8);
+
+        // Then
+        assertEquals(List.of(0, 1), fetched);
+        assertTrue(body.contains("\"pages\":2"), body);
+        assertTrue(body.contains("\"count\":4"), body);
+        assertTrue(body.contains("\"truncated\":true"), body);
+    }
+
+    @Test
+    void shouldTakeTheCurrentTicketForEveryPage() throws Exception {
+        // Given - the ticket is refreshed during the run
+        pageTotal = 3;
+        when(ticketManager.getTicket()).thenReturn("ticket-1", "ticket-2", "ticket-3");
+        Exchange exchange = request(100);
+
+        // When
+        processor.process(exchange);
+        lines(exchange);
+
+        // Then
+        assertEquals(List.of("ticket-1", "ticket-2", "ticket-3"), tickets);
+    }
+
+    @Test
+    void shouldStopFetchingWhenTheCallerGoesAway() throws Exception {
+        // Given
+        Exchange exchange = request(100);
+        processor.process(exchange);
+        InputStream body = exchange.getIn().getBody(InputStream.class);
+
+        // When - the two items of the first page are read, then the caller disconnects
+        int lines = 0;
+        while (lines < 2) {
+            if (body.read() == '\n') {
+                lines++;
+            }
+        }
+        body.close();
+
+        // Then - page 0 and at most its prefetched successor
+        assertEquals(-1, body.read());
+        Thread.sleep(100);
+        assertTrue(fetched.size() <= 2, "fetched: " + fetched);
+    }
+}
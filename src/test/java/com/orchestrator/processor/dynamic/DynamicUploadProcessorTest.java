@@ -0,0 +1,193 @@
+package com.orchestrator.processor.dynamic;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.orchestrator.config.model.EndpointConfig;
+import com.orchestrator.config.model.MappingConfig;
+import com.orchestrator.config.model.OpentextConfig;
+import com.orchestrator.config.model.UploadConfig;
+import com.orchestrator.config.plan.EndpointPlan;
+import com.orchestrator.stream.MultipartHead;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.camel.CamelContext;
+import org.apache.camel.Exchange;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.apache.camel.support.DefaultExchange;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DynamicUploadProcessorTest {
+
+    private static final String BOUNDARY = "----form7MA4YWxkTrZu0gW";
+    private static final String FILE = "%PDF-1.7 " + "x".repeat(1000);
+
+    private final CamelContext camelContext = new DefaultCamelContext();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private DynamicUploadProcessor processor;
+    private EndpointPlan plan;
+
+    @BeforeEach
+    void setUp() {
+        processor = new DynamicUploadProcessor(new ObjectMapper(), meterRegistry);
+        ReflectionTestUtils.setField(processor, "maxRequestBytes", 1_000_000L);
+        ReflectionTestUtils.setField(processor, "maxInFlightBytes", 10_000_000L);
+        ReflectionTestUtils.setField(processor, "maxFieldsBytes", 1024);
+        processor.init();
+
+        OpentextConfig opentext = new OpentextConfig();
+        opentext.setPath("/v2/nodes");
+        opentext.setMethod("POST");
+        MappingConfig mapping = new MappingConfig();
+        mapping.setInput(Map.of("parentId", "$.parent_id", "name", "$.name"));
+        Map<String, String> fields = new LinkedHashMap<>();
+        fields.put("type", "144");
+        fields.put("parent_id", "{parentId}");
+        fields.put("name", "{name}");
+        UploadConfig upload = new UploadConfig();
+        upload.setFields(fields);
+        EndpointConfig config = new EndpointConfig();
+        config.setName("upload-document");
+        config.setOpentext(opentext);
+        config.setMapping(mapping);
+        config.setUpload(upload);
+        plan = EndpointPlan.compile(config);
+    }
+
+    private static byte[] body() {
+        return ("--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"parent_id\"\r\n\r\n"
+                + "2000\r\n"
+                + "--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"name\"\r\n\r\n"
+                + "report.pdf\r\n"
+                + "--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"upload\"; filename=\"report.pdf\"\r\n"
+                + "Content-Type: application/pdf\r\n\r\n"
+                + FILE + "\r\n"
+                + "--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private Exchange upload(InputStream body, Long contentLength) {
+        Exchange exchange = new DefaultExchange(camelContext);
+        exchange.setProperty("endpointPlan", plan);
+        exchange.getIn().setHeader(Exchange.CONTENT_TYPE, "multipart/form-data; boundary=" + BOUNDARY);
+        if (contentLength != null) {
+            exchange.getIn().setHeader(Exchange.CONTENT_LENGTH, contentLength);
+        }
+        exchange.getIn().setBody(body);
+        return exchange;
+    }
+
+    private double inFlightBytes() {
+        return meterRegistry.get("orchestrator.upload.in.flight.bytes").gauge().value();
+    }
+
+    @Test
+    void shouldDeclareTheLengthOfTheUpstreamRequest() throws Exception {
+        // Given
+        byte[] body = body();
+        Exchange exchange = upload(new ByteArrayInputStream(body), (long) body.length);
+
+        // When
+        processor.open(exchange);
+        processor.process(exchange);
+        byte[] upstream = exchange.getIn().getBody(InputStream.class).readAllBytes();
+
+        // Then
+        assertEquals(upstream.length, exchange.getIn().getHeader(Exchange.CONTENT_LENGTH, Long.class));
+        assertEquals("multipart/form-data; boundary=" + BOUNDARY, exchange.getIn().getHeader(Exchange.CONTENT_TYPE));
+        assertTrue(exchange.getProperty("streamRequest", Boolean.class));
+        MultipartHead forwarded = MultipartHead.read(new ByteArrayInputStream(upstream), BOUNDARY, 1024);
+        assertEquals(Map.of("type", "144", "parent_id", "2000", "name", "report.pdf"), forwarded.getFields());
+        assertEquals("report.pdf", forwarded.getFileName());
+        assertEquals(FILE + "\r\n--" + BOUNDARY + "--\r\n",
+                new String(forwarded.getRemainder().readAllBytes(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void shouldReleaseTheBudgetWhenTheUploadCompletes() throws Exception {
+        // Given
+        byte[] body = body();
+        Exchange exchange = upload(new ByteArrayInputStream(body), (long) body.length);
+        processor.open(exchange);
+        assertEquals(body.length, inFlightBytes());
+
+        // When
+        exchange.getExchangeExtension().handoverCompletions().forEach(sync -> sync.onComplete(exchange));
+
+        // Then
+        assertEquals(0, inFlightBytes());
+    }
+
+    @Test
+    void shouldReleaseTheBudgetWhenTheUploadFails() throws Exception {
+        // Given
+        Exchange exchange = upload(new ByteArrayInputStream(body()), null);
+        processor.open(exchange);
+        assertEquals(1_000_000, inFlightBytes()); // chunked: the whole request limit is reserved
+
+        // When
+        exchange.setException(new IOException("connection reset by caller"));
+        exchange.getExchangeExtension().handoverCompletions().forEach(sync -> sync.onFailure(exchange));
+
+        // Then
+        assertEquals(0, inFlightBytes());
+    }
+
+    @Test
+    void shouldRejectUploadsOverTheInFlightBudgetBeforeReadingThem() throws Exception {
+        // Given
+        byte[] body = body();
+        ReflectionTestUtils.setField(processor, "maxInFlightBytes", body.length + 100L);
+        processor.open(upload(new ByteArrayInputStream(body), (long) body.length));
+        ByteArrayInputStream second = new ByteArrayInputStream(body);
+
+        // When
+        assertThrows(RejectedExecutionException.class,
+                () -> processor.open(upload(second, (long) body.length)));
+
+        // Then
+        assertEquals(body.length, second.available());
+        assertEquals(body.length, inFlightBytes());
+    }
+
+    @Test
+    void shouldRejectDeclaredUploadsOverTheRequestLimit() {
+        // Given
+        ReflectionTestUtils.setField(processor, "maxRequestBytes", 100L);
+        byte[] body = body();
+
+        // Then
+        assertThrows(IllegalArgumentException.class,
+                () -> processor.open(upload(new ByteArrayInputStream(body), (long) body.length)));
+        assertEquals(0, inFlightBytes());
+    }
+
+    @Test
+    void shouldAbortChunkedUploadsOverTheRequestLimit() throws Exception {
+        // Given
+        byte[] body = body();
+        ReflectionTestUtils.setField(processor, "maxRequestBytes", body.length - 100L);
+        Exchange exchange = upload(new ByteArrayInputStream(body), null);
+
+        // When
+        processor.open(exchange);
+        processor.process(exchange);
+
+        // Then
+        assertNull(exchange.getIn().getHeader(Exchange.CONTENT_LENGTH));
+        InputStream upstream = exchange.getIn().getBody(InputStream.class);
+        IOException failure = assertThrows(IOException.class, upstream::readAllBytes);
+        assertTrue(failure.getMessage().contains("size limit"), failure.getMessage());
+    }
+}
@@ -0,0 +1,123 @@
+package com.orchestrator.processor.dynamic;
+
+import com.orchestrator.cache.ResponseCache;
+import com.orchestrator.config.EndpointConfigLoader;
+import com.orchestrator.config.model.CacheConfig;
+import com.orchestrator.config.model.EndpointConfig;
+import com.orchestrator.config.model.OpentextConfig;
+import com.orchestrator.config.plan.EndpointPlan;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.camel.CamelContext;
+import org.apache.camel.Exchange;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.apache.camel.support.DefaultExchange;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ResponseCacheLookupProcessorTest {
+
+    private final CamelContext camelContext = new DefaultCamelContext();
+    private EndpointPlan getNode;
+    private EndpointPlan updateNode;
+    private ResponseCacheLookupProcessor lookupProcessor;
+    private ResponseCacheStoreProcessor storeProcessor;
+
+    @BeforeEach
+    void setUp() {
+        getNode = plan("get-node", "GET", new CacheConfig());
+        CacheConfig invalidate = new CacheConfig();
+        invalidate.setInvalidate(true);
+        updateNode = plan("update-node", "PUT", invalidate);
+
+        EndpointConfigLoader configLoader = mock(EndpointConfigLoader.class);
+        when(configLoader.getPlans()).thenReturn(Map.of("get-node", getNode, "update-node", updateNode));
+        ResponseCache responseCache = new ResponseCache(configLoader, new SimpleMeterRegistry());
+        responseCache.init();
+        lookupProcessor = new ResponseCacheLookupProcessor(responseCache);
+        ReflectionTestUtils.setField(lookupProcessor, "identityHeader", "Authorization");
+        storeProcessor = new ResponseCacheStoreProcessor(responseCache);
+    }
+
+    private static EndpointPlan plan(String name, String method, CacheConfig cache) {
+        OpentextConfig opentext = new OpentextConfig();
+        opentext.setPath("/v2/nodes/{nodeId}");
+        opentext.setMethod(method);
+        EndpointConfig config = new EndpointConfig();
+        config.setName(name);
+        config.setOpentext(opentext);
+        config.setCache(cache);
+        return EndpointPlan.compile(config);
+    }
+
+    private Exchange exchange(EndpointPlan plan) {
+        Exchange exchange = new DefaultExchange(camelContext);
+        exchange.setProperty("endpointPlan", plan);
+        exchange.setProperty("nodeId", "2000");
+        exchange.setProperty("targetUrl", "https://cs/api/v2/nodes/2000");
+        exchange.getIn().setHeader("Authorization", "Basic YWxpY2U6cHc=");
+        return exchange;
+    }
+
+    private Exchange read(String upstreamBody) throws Exception {
+        Exchange exchange = exchange(getNode);
+        lookupProcessor.process(exchange);
+        if (!exchange.getProperty("cacheHit", Boolean.class)) {
+            exchange.getIn().setBody(upstreamBody.getBytes(StandardCharsets.UTF_8));
+            exchange.getIn().setHeader(Exchange.CONTENT_TYPE, "application/json");
+            storeProcessor.process(exchange);
+        }
+        return exchange;
+    }
+
+    @Test
+    void shouldServeTheStoredResponseWithACurrentTimestamp() throws Exception {
+        // Given
+        read("{\"data\":{\"id\":2000},\"timestamp\":\"2026-01-01T00:00:00Z\"}");
+
+        // When
+        Exchange hit = read("{\"data\":{\"id\":-1}}");
+
+        // Then
+        assertTrue(hit.getProperty("cacheHit", Boolean.class));
+        String body = hit.getIn().getBody(String.class);
+        assertTrue(body.startsWith("{\"data\":{\"id\":2000},\"timestamp\":\""), body);
+        assertFalse(body.contains("2026-01-01T00:00:00Z"), body);
+    }
+
+    @Test
+    void shouldNotCacheAReadThatRacedAWrite() throws Exception {
+        // Given
+        Exchange slowRead = exchange(getNode);
+        lookupProcessor.process(slowRead);
+
+        // When
+        storeProcessor.process(exchange(updateNode));
+        slowRead.getIn().setBody("{\"name\":\"old\"}".getBytes(StandardCharsets.UTF_8));
+        storeProcessor.process(slowRead);
+
+        // Then
+        assertFalse(read("{\"name\":\"new\"}").getProperty("cacheHit", Boolean.class));
+        assertTrue(read("{\"name\":\"ignored\"}").getProperty("cacheHit", Boolean.class));
+    }
+
+    @Test
+    void shouldOnlyRestampATrailingTimestamp() {
+        // Given
+        Instant now = Instant.parse("2026-10-17T10:00:00Z");
+        byte[] envelope = "{\"a\":1,\"timestamp\":\"2026-01-01T00:00:00Z\"}".getBytes(StandardCharsets.UTF_8);
+        byte[] nested = "{\"data\":{\"timestamp\":\"x\"},\"b\":2}".getBytes(StandardCharsets.UTF_8);
+
+        // Then
+        assertEquals("{\"a\":1,\"timestamp\":\"2026-10-17T10:00:00Z\"}",
+                new String(ResponseCacheLookupProcessor.restamp(envelope, now), StandardCharsets.UTF_8));
+        assertSame(nested, ResponseCacheLookupProcessor.restamp(nested, now));
+    }
+}
@@ -0,0 +1,58 @@
+package com.orchestrator.stream;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.Base64;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Base64EnvelopeTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void shouldEncodeLikeBase64EncoderForAnySize() throws Exception {
+        Random random = new Random(42);
+        for (int size : new int[]{0, 1, 2, 3, 49151, 49152, 49153, 200_000}) {
+            // Given
+            byte[] content = new byte[size];
+            random.nextBytes(content);
+
+            // When
+            byte[] encoded;
+            try (InputStream stream = new Base64EncodingInputStream(new ByteArrayInputStream(content))) {
+                encoded = stream.readAllBytes();
+            }
+
+            // Then
+            assertEquals(Base64.getEncoder().encodeToString(content), new String(encoded), "size " + size);
+        }
+    }
+
+    @Test
+    void shouldWrapContentInJsonEnvelope() throws Exception {
+        // Given
+        byte[] content = "hello world".getBytes();
+        ObjectNode metadata = objectMapper.createObjectNode();
+        metadata.put("status", "success");
+        metadata.put("nodeId", "12345");
+
+        // When
+        JsonNode envelope;
+        try (InputStream stream = Base64Envelope.open(objectMapper, metadata, new ByteArrayInputStream(content))) {
+            envelope = objectMapper.readTree(stream);
+        }
+
+        // Then
+        assertEquals("success", envelope.get("status").asText());
+        assertEquals("12345", envelope.get("nodeId").asText());
+        assertArrayEquals(content, Base64.getDecoder().decode(envelope.get("base64Content").asText()));
+        assertTrue(envelope.has("timestamp"));
+    }
+}
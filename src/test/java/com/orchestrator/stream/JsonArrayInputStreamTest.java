@@ -0,0 +1,53 @@
+package com.orchestrator.stream;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonArrayInputStreamTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void shouldWriteDocumentsAsArrayInsideEnvelope() throws Exception {
+        // Given
+        List<JsonNode> items = List.of(objectMapper.readTree("{\"id\":1}"), objectMapper.readTree("{\"id\":2}"));
+        AtomicInteger pulled = new AtomicInteger();
+        Iterator<JsonNode> source = items.stream().peek(item -> pulled.incrementAndGet()).iterator();
+        byte[] prefix = "{\"items\":".getBytes(StandardCharsets.UTF_8);
+
+        // When
+        String json;
+        try (InputStream stream = new JsonArrayInputStream(objectMapper, prefix, source,
+                () -> (",\"count\":" + pulled.get() + "}").getBytes(StandardCharsets.UTF_8))) {
+            json = new String(stream.readAllBytes(), StandardCharsets.UTF_8);
+        }
+
+        // Then: the suffix is produced after the last document
+        assertEquals("{\"items\":[{\"id\":1},{\"id\":2}],\"count\":2}", json);
+    }
+
+    @Test
+    void shouldWriteEmptyArrayWithoutDocuments() throws Exception {
+        // Given
+        byte[] prefix = "{\"items\":".getBytes(StandardCharsets.UTF_8);
+
+        // When
+        String json;
+        try (InputStream stream = new JsonArrayInputStream(objectMapper, prefix,
+                List.<JsonNode>of().iterator(), () -> "}".getBytes(StandardCharsets.UTF_8))) {
+            json = new String(stream.readAllBytes(), StandardCharsets.UTF_8);
+        }
+
+        // Then
+        assertEquals("{\"items\":[]}", json);
+    }
+}
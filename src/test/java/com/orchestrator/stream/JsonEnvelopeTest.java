@@ -0,0 +1,76 @@
+package com.orchestrator.stream;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonEnvelopeTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void shouldSpliceUpstreamBytesVerbatim() throws Exception {
+        // Given
+        String upstream = "{\"results\":[{\"id\":12345,\"size\":1.10}],\"paging\":{\"page\":1}}";
+        ObjectNode fields = objectMapper.createObjectNode();
+
+        // When
+        byte[] buffered = JsonEnvelope.wrap(objectMapper, fields, upstream.getBytes(StandardCharsets.UTF_8));
+        byte[] streamed;
+        try (InputStream stream = JsonEnvelope.open(objectMapper, fields,
+                new ByteArrayInputStream(upstream.getBytes(StandardCharsets.UTF_8)))) {
+            streamed = stream.readAllBytes();
+        }
+
+        // Then
+        for (byte[] envelope : new byte[][]{buffered, streamed}) {
+            String json = new String(envelope, StandardCharsets.UTF_8);
+            assertTrue(json.startsWith("{\"data\":" + upstream + ",\"timestamp\":\""), json);
+            JsonNode parsed = objectMapper.readTree(envelope);
+            assertEquals(12345, parsed.at("/data/results/0/id").asInt());
+            assertTrue(parsed.has("timestamp"));
+        }
+    }
+
+    @Test
+    void shouldWriteNullDataForEmptyBody() throws Exception {
+        // Given
+        ObjectNode fields = objectMapper.createObjectNode();
+        fields.put("status", "success");
+
+        // When
+        JsonNode buffered = objectMapper.readTree(JsonEnvelope.wrap(objectMapper, fields, new byte[0]));
+        JsonNode streamed;
+        try (InputStream stream = JsonEnvelope.open(objectMapper, fields, new ByteArrayInputStream(new byte[0]))) {
+            streamed = objectMapper.readTree(stream);
+        }
+
+        // Then
+        assertEquals("success", buffered.get("status").asText());
+        assertTrue(buffered.get("data").isNull());
+        assertTrue(streamed.get("data").isNull());
+    }
+
+    @Test
+    void shouldRejectMalformedOrTruncatedJson() throws Exception {
+        // Given
+        ObjectNode fields = objectMapper.createObjectNode();
+        byte[] truncated = "{\"results\":[{\"id\":1}".getBytes(StandardCharsets.UTF_8);
+        byte[] trailing = "{\"id\":1}{\"id\":2}".getBytes(StandardCharsets.UTF_8);
+
+        // When / Then
+        assertThrows(JsonParseException.class, () -> JsonEnvelope.wrap(objectMapper, fields, truncated));
+        assertThrows(JsonParseException.class, () -> JsonEnvelope.wrap(objectMapper, fields, trailing));
+        try (InputStream stream = JsonEnvelope.open(objectMapper, fields, new ByteArrayInputStream(truncated))) {
+            assertThrows(JsonParseException.class, stream::readAllBytes);
+        }
+    }
+}
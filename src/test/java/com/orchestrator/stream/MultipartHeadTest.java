@@ -0,0 +1,92 @@
+package com.orchestrator.stream;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MultipartHeadTest {
+
+    private static final String BOUNDARY = "----form7MA4YWxkTrZu0gW";
+
+    private static String body(String file) {
+        return "--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"parent_id\"\r\n\r\n"
+                + "2000\r\n"
+                + "--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"name\"\r\n\r\n"
+                + "Q3 report; final\r\n"
+                + "--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"upload\"; filename=\"report;v2.pdf\"\r\n"
+                + "Content-Type: application/pdf\r\n\r\n"
+                + file + "\r\n"
+                + "--" + BOUNDARY + "--\r\n";
+    }
+
+    @Test
+    void shouldReadFieldsAndStopAtTheFileContent() throws Exception {
+        // Given
+        String file = "%PDF-1.7 binary\r\n--not-the-boundary";
+        byte[] body = body(file).getBytes(StandardCharsets.UTF_8);
+
+        // When
+        MultipartHead head = MultipartHead.read(new ByteArrayInputStream(body),
+                MultipartHead.boundary("multipart/form-data; boundary=" + BOUNDARY), 1024);
+
+        // Then
+        assertEquals(Map.of("parent_id", "2000", "name", "Q3 report; final"), head.getFields());
+        assertEquals("report;v2.pdf", head.getFileName());
+        assertEquals("application/pdf", head.getFileContentType());
+        String remainder = new String(head.getRemainder().readAllBytes(), StandardCharsets.UTF_8);
+        assertEquals(file + "\r\n--" + BOUNDARY + "--\r\n", remainder);
+        assertEquals(body.length - remainder.length(), head.getConsumed());
+    }
+
+    @Test
+    void shouldForwardTheFileBehindNewFields() throws Exception {
+        // Given
+        MultipartHead head = MultipartHead.read(new ByteArrayInputStream(body("content").getBytes(StandardCharsets.UTF_8)),
+                BOUNDARY, 1024);
+        Map<String, String> fields = new LinkedHashMap<>();
+        fields.put("type", "144");
+        fields.put("parent_id", "2000");
+
+        // When
+        String forwarded;
+        try (InputStream upstream = new SequenceInputStream(
+                new ByteArrayInputStream(head.prefix(fields, "file")), head.getRemainder())) {
+            forwarded = new String(upstream.readAllBytes(), StandardCharsets.UTF_8);
+        }
+
+        // Then
+        MultipartHead reread = MultipartHead.read(
+                new ByteArrayInputStream(forwarded.getBytes(StandardCharsets.UTF_8)), BOUNDARY, 1024);
+        assertEquals(fields, reread.getFields());
+        assertEquals("report;v2.pdf", reread.getFileName());
+        assertTrue(forwarded.contains("name=\"file\"; filename=\"report;v2.pdf\""), forwarded);
+        assertEquals("content\r\n--" + BOUNDARY + "--\r\n",
+                new String(reread.getRemainder().readAllBytes(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void shouldRejectBodiesWithoutAFilePart() {
+        // Given
+        String body = "--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"parent_id\"\r\n\r\n"
+                + "2000\r\n"
+                + "--" + BOUNDARY + "--\r\n";
+
+        // When / Then
+        assertThrows(IllegalArgumentException.class, () -> MultipartHead.read(
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), BOUNDARY, 1024));
+        assertThrows(IllegalArgumentException.class, () -> MultipartHead.read(
+                new ByteArrayInputStream(body("x").getBytes(StandardCharsets.UTF_8)), BOUNDARY, 64));
+        assertThrows(IllegalArgumentException.class, () -> MultipartHead.boundary("application/json"));
+    }
+}
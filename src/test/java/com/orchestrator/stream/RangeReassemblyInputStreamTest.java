@@ -0,0 +1,104 @@
+package com.orchestrator.stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RangeReassemblyInputStreamTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void shouldReassembleRangesInOrderWithinTheWindow() throws Exception {
+        // Given
+        byte[] document = new byte[10_000];
+        new Random(42).nextBytes(document);
+        int rangeSize = 1024;
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        RangeReassemblyInputStream.RangeFetcher fetcher = (from, to) -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(ThreadLocalRandom.current().nextInt(5)); // ranges complete out of order
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            inFlight.decrementAndGet();
+            return Arrays.copyOfRange(document, (int) from, (int) to + 1);
+        };
+        InputStream first = new ByteArrayInputStream(Arrays.copyOf(document, rangeSize));
+
+        // When
+        byte[] result;
+        try (InputStream stream = new RangeReassemblyInputStream(first, document.length, rangeSize, 3,
+                fetcher, executor)) {
+            result = stream.readAllBytes();
+        }
+
+        // Then
+        assertArrayEquals(document, result);
+        assertTrue(maxInFlight.get() <= 3, "in flight: " + maxInFlight.get());
+    }
+
+    @Test
+    void shouldFailTheReadWhenARangeFails() {
+        // Given
+        byte[] document = new byte[3000];
+        RangeReassemblyInputStream.RangeFetcher fetcher = (from, to) -> {
+            if (from >= 2000) {
+                throw new IllegalStateException("Range was not honoured");
+            }
+            return Arrays.copyOfRange(document, (int) from, (int) to + 1);
+        };
+
+        // When / Then
+        IOException failure = assertThrows(IOException.class, () -> {
+            try (InputStream stream = new RangeReassemblyInputStream(
+                    new ByteArrayInputStream(new byte[1000]), document.length, 1000, 2, fetcher, executor)) {
+                stream.readAllBytes();
+            }
+        });
+        assertTrue(failure.getMessage().contains("Range was not honoured"), failure.getMessage());
+    }
+
+    @Test
+    void shouldCloseTheFirstRangeOnceItIsConsumed() throws Exception {
+        // Given - closing the first range gives its upstream slot back
+        byte[] document = new byte[3000];
+        AtomicInteger closed = new AtomicInteger();
+        InputStream first = new ByteArrayInputStream(new byte[1000]) {
+            @Override
+            public void close() {
+                closed.incrementAndGet();
+            }
+        };
+        RangeReassemblyInputStream.RangeFetcher fetcher = (from, to) -> Arrays.copyOfRange(document, (int) from,
+                (int) to + 1);
+
+        try (InputStream stream = new RangeReassemblyInputStream(first, document.length, 1000, 2, fetcher, executor)) {
+            // When
+            stream.readNBytes(1000);
+            assertEquals(0, closed.get());
+            stream.readNBytes(1);
+
+            // Then - long before the download ends
+            assertEquals(1, closed.get());
+        }
+    }
+}
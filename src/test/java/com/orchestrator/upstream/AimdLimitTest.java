@@ -0,0 +1,97 @@
+package com.orchestrator.upstream;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AimdLimitTest {
+
+    @Test
+    void shouldGrowWhileBusyCallsSucceed() {
+        // Given
+        AimdLimit limit = new AimdLimit(4, 1, 10, 0.5);
+
+        // When
+        for (int round = 0; round < 8; round++) {
+            while (limit.tryAcquire(0)) {
+                // fill every slot
+            }
+            int inFlight = limit.getInFlight();
+            for (int i = 0; i < inFlight; i++) {
+                limit.release(AimdLimit.Outcome.SUCCESS, 0, 0);
+            }
+        }
+
+        // Then
+        assertTrue(limit.getLimit() > 4, "limit: " + limit.getLimit());
+        assertTrue(limit.getLimit() <= 10);
+    }
+
+    @Test
+    void shouldNotGrowWhileIdle() {
+        // Given
+        AimdLimit limit = new AimdLimit(10, 1, 100, 0.5);
+
+        // When
+        for (int i = 0; i < 100; i++) {
+            assertTrue(limit.tryAcquire(0));
+            limit.release(AimdLimit.Outcome.SUCCESS, 0, 0);
+        }
+
+        // Then
+        assertEquals(10, limit.getLimit());
+    }
+
+    @Test
+    void shouldBackOffOncePerRoundOfOverloadedCalls() {
+        // Given
+        AimdLimit limit = new AimdLimit(16, 1, 100, 0.5);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(limit.tryAcquire(100));
+        }
+
+        // When - four calls sent together all come back 503
+        for (int i = 0; i < 4; i++) {
+            limit.release(AimdLimit.Outcome.DROPPED, 100, 200 + i);
+        }
+        assertEquals(8, limit.getLimit());
+        assertTrue(limit.tryAcquire(300));
+        limit.release(AimdLimit.Outcome.DROPPED, 300, 400);
+
+        // Then
+        assertEquals(4, limit.getLimit());
+    }
+
+    @Test
+    void shouldAdmitNothingWhilePaused() {
+        // Given
+        AimdLimit limit = new AimdLimit(4, 1, 10, 0.5);
+
+        // When
+        limit.pause(1_000);
+
+        // Then
+        assertFalse(limit.tryAcquire(500));
+        assertEquals(500, limit.remainingPause(500));
+        assertTrue(limit.tryAcquire(1_000));
+        assertEquals(0, limit.remainingPause(1_000));
+    }
+
+    @Test
+    void shouldReserveSlotsAllOrNothing() {
+        // Given
+        AimdLimit limit = new AimdLimit(4, 1, 10, 0.5);
+        assertTrue(limit.tryAcquire(0));
+
+        // When
+        assertFalse(limit.tryAcquire(0, 4));
+        assertTrue(limit.tryAcquire(0, 3));
+        limit.record(AimdLimit.Outcome.DROPPED, 0, 10); // a reserved call came back 503
+
+        // Then
+        assertEquals(4, limit.getInFlight());
+        assertEquals(2, limit.getLimit());
+        limit.release(3);
+        assertEquals(1, limit.getInFlight());
+    }
+}
@@ -0,0 +1,142 @@
+package com.orchestrator.upstream;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircuitBreakerTest {
+
+    private static final long OPEN_NANOS = 30_000_000_000L;
+
+    private final AtomicLong clock = new AtomicLong();
+    private final List<String> transitions = new ArrayList<>();
+    private final CircuitBreaker breaker = new CircuitBreaker(0.5, 10, 4, OPEN_NANOS, 2, clock::get,
+            (from, to) -> transitions.add(from + "->" + to));
+
+    private void calls(boolean failure, int count) {
+        for (int i = 0; i < count; i++) {
+            long permit = breaker.tryAcquire();
+            assertNotEquals(CircuitBreaker.REJECTED, permit);
+            breaker.onResult(permit, failure);
+        }
+    }
+
+    @Test
+    void shouldOpenOnceTheFailureRateIsReached() {
+        // Given
+        calls(false, 3);
+        calls(true, 2);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+        // When
+        calls(true, 1);
+
+        // Then
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertEquals(CircuitBreaker.REJECTED, breaker.tryAcquire());
+        assertEquals(30_000, breaker.retryAfterMillis());
+        assertEquals(List.of("CLOSED->OPEN"), transitions);
+    }
+
+    @Test
+    void shouldNotOpenBeforeMinimumCalls() {
+        // When
+        calls(true, 3);
+
+        // Then
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void shouldCloseAfterSuccessfulTrialCalls() {
+        // Given
+        calls(true, 4);
+        clock.addAndGet(OPEN_NANOS);
+
+        // When
+        long first = breaker.tryAcquire();
+        long second = breaker.tryAcquire();
+        long thirdTrial = breaker.tryAcquire();
+        breaker.onResult(first, false);
+        breaker.onResult(second, false);
+
+        // Then
+        assertEquals(CircuitBreaker.REJECTED, thirdTrial);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(List.of("CLOSED->OPEN", "OPEN->HALF_OPEN", "HALF_OPEN->CLOSED"), transitions);
+    }
+
+    @Test
+    void shouldReopenWhenATrialCallFails() {
+        // Given
+        calls(true, 4);
+        clock.addAndGet(OPEN_NANOS);
+
+        // When
+        breaker.onResult(breaker.tryAcquire(), true);
+
+        // Then
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertEquals(CircuitBreaker.REJECTED, breaker.tryAcquire());
+    }
+
+    @Test
+    void shouldIgnoreLateResultsOfCallsAdmittedInAnEarlierState() {
+        // Given
+        long slowClosedCall = breaker.tryAcquire();
+        calls(true, 4);
+        clock.addAndGet(OPEN_NANOS);
+        long trial = breaker.tryAcquire();
+
+        // When
+        breaker.onResult(slowClosedCall, false);
+        breaker.onResult(slowClosedCall, false);
+
+        // Then
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        breaker.onResult(trial, true);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    void shouldIgnoreLateFailuresOnceClosedAgain() {
+        // Given
+        calls(true, 4);
+        clock.addAndGet(OPEN_NANOS);
+        long first = breaker.tryAcquire();
+        long second = breaker.tryAcquire();
+        breaker.onResult(first, false);
+        breaker.onResult(second, false);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+        // When
+        breaker.onResult(first, true);
+
+        // Then
+        calls(true, 3);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void shouldGiveBackTrialPermitsOfCallsRefusedLocally() {
+        // Given
+        calls(true, 4);
+        clock.addAndGet(OPEN_NANOS);
+        long refused = breaker.tryAcquire();
+        long trial = breaker.tryAcquire();
+
+        // When
+        breaker.release(refused);
+
+        // Then
+        long retried = breaker.tryAcquire();
+        assertNotEquals(CircuitBreaker.REJECTED, retried);
+        breaker.onResult(trial, false);
+        breaker.onResult(retried, false);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+}
@@ -0,0 +1,259 @@
+package com.orchestrator.upstream;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.camel.AsyncCallback;
+import org.apache.camel.CamelContext;
+import org.apache.camel.Exchange;
+import org.apache.camel.http.base.HttpOperationFailedException;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.apache.camel.support.DefaultExchange;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrencyLimiterTest {
+
+    private static final String HOST = "cs.example.com";
+
+    private final CamelContext camelContext = new DefaultCamelContext();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final BlockingQueue<Started> started = new LinkedBlockingQueue<>();
+    private ConcurrencyLimiter limiter;
+
+    /**
+     * An upstream call that has been sent and waits for the test to answer it
+     */
+    private record Started(Exchange exchange, AsyncCallback callback) {
+        void answer(Exception failure) {
+            exchange.setException(failure);
+            callback.done(false);
+        }
+    }
+
+    private final RequestCoalescer.UpstreamCall pending = (exchange, callback) -> {
+        started.add(new Started(exchange, callback));
+        return false;
+    };
+
+    @BeforeEach
+    void setUp() {
+        limiter = new ConcurrencyLimiter(camelContext, meterRegistry);
+        ReflectionTestUtils.setField(limiter, "enabled", true);
+        ReflectionTestUtils.setField(limiter, "initialLimit", 2);
+        ReflectionTestUtils.setField(limiter, "minLimit", 1);
+        ReflectionTestUtils.setField(limiter, "maxLimit", 10);
+        ReflectionTestUtils.setField(limiter, "backoffRatio", 0.5);
+        ReflectionTestUtils.setField(limiter, "maxQueue", 1);
+        ReflectionTestUtils.setField(limiter, "maxWaitMillis", 5000L);
+        ReflectionTestUtils.setField(limiter, "maxRetryAfterSeconds", 60L);
+        limiter.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        limiter.shutdown();
+    }
+
+    private boolean execute(Exchange exchange, CountDownLatch done) {
+        return limiter.execute(HOST, exchange, doneSync -> done.countDown(), pending);
+    }
+
+    private static HttpOperationFailedException overloaded(int status, String retryAfter) {
+        return new HttpOperationFailedException("https://" + HOST + "/api/v2/nodes/2000", status, "Overloaded",
+                null, retryAfter != null ? Map.of("Retry-After", retryAfter) : Map.of(), "");
+    }
+
+    private double shed(String reason) {
+        return meterRegistry.get("orchestrator.upstream.limit.shed").tag("reason", reason).counter().count();
+    }
+
+    @Test
+    void shouldQueueCallsOverTheLimitUntilASlotFrees() throws Exception {
+        // Given
+        CountDownLatch done = new CountDownLatch(3);
+        execute(new DefaultExchange(camelContext), done);
+        execute(new DefaultExchange(camelContext), done);
+        Exchange queued = new DefaultExchange(camelContext);
+
+        // When
+        boolean sync = execute(queued, done);
+        Started first = started.poll(5, TimeUnit.SECONDS);
+        started.poll(5, TimeUnit.SECONDS);
+        assertNull(started.poll(100, TimeUnit.MILLISECONDS));
+        first.answer(null);
+
+        // Then
+        assertFalse(sync);
+        Started third = started.poll(5, TimeUnit.SECONDS);
+        assertNotNull(third);
+        assertSame(queued, third.exchange());
+    }
+
+    @Test
+    void shouldShedCallsFindingTheQueueFull() {
+        // Given
+        CountDownLatch done = new CountDownLatch(4);
+        execute(new DefaultExchange(camelContext), done);
+        execute(new DefaultExchange(camelContext), done);
+        execute(new DefaultExchange(camelContext), done);
+        Exchange shed = new DefaultExchange(camelContext);
+
+        // When
+        boolean sync = execute(shed, done);
+
+        // Then
+        assertTrue(sync);
+        UpstreamUnavailableException failure = assertInstanceOf(UpstreamUnavailableException.class,
+                shed.getException());
+        assertEquals("UPSTREAM_OVERLOADED", failure.getErrorType());
+        assertEquals(1, shed("queue_full"));
+        assertEquals(2, started.size());
+    }
+
+    @Test
+    void shouldShedCallsWaitingTooLong() throws Exception {
+        // Given
+        ReflectionTestUtils.setField(limiter, "maxWaitMillis", 100L);
+        execute(new DefaultExchange(camelContext), new CountDownLatch(1));
+        execute(new DefaultExchange(camelContext), new CountDownLatch(1));
+        Exchange expired = new DefaultExchange(camelContext);
+        CountDownLatch done = new CountDownLatch(1);
+
+        // When
+        execute(expired, done);
+
+        // Then
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertInstanceOf(UpstreamUnavailableException.class, expired.getException());
+        assertEquals(1, shed("timeout"));
+        assertEquals(2, started.size());
+    }
+
+    @Test
+    void shouldStartQueuedCallsOnceRetryAfterHasPassedWithNothingInFlight() throws Exception {
+        // Given
+        execute(new DefaultExchange(camelContext), new CountDownLatch(1));
+        started.poll(5, TimeUnit.SECONDS).answer(overloaded(503, "1"));
+        assertEquals(1, limiter.getLimit(HOST));
+        Exchange waiting = new DefaultExchange(camelContext);
+        long queuedAt = System.nanoTime();
+
+        // When
+        boolean sync = execute(waiting, new CountDownLatch(1));
+
+        // Then
+        assertFalse(sync);
+        Started resumed = started.poll(5, TimeUnit.SECONDS);
+        assertNotNull(resumed);
+        assertSame(waiting, resumed.exchange());
+        assertTrue(System.nanoTime() - queuedAt >= TimeUnit.MILLISECONDS.toNanos(900));
+        assertNull(waiting.getException());
+    }
+
+    @Test
+    void shouldFreeTheSlotOfAStreamedDownloadOnceItsBodyIsRead() throws Exception {
+        // Given
+        ReflectionTestUtils.setField(limiter, "initialLimit", 1);
+        Exchange download = new DefaultExchange(camelContext);
+        download.setProperty("streamResponse", true);
+        execute(download, new CountDownLatch(1));
+        Started streamed = started.poll(5, TimeUnit.SECONDS);
+        streamed.exchange().getIn().setBody(new ByteArrayInputStream(new byte[4096]));
+        streamed.answer(null);
+        Exchange metadata = new DefaultExchange(camelContext);
+        execute(metadata, new CountDownLatch(1));
+        assertNull(started.poll(100, TimeUnit.MILLISECONDS));
+
+        // When - the caller has the whole body; the download exchange itself is still in progress
+        assertEquals(4096, download.getIn().getBody(InputStream.class).readAllBytes().length);
+
+        // Then
+        Started next = started.poll(5, TimeUnit.SECONDS);
+        assertNotNull(next);
+        assertSame(metadata, next.exchange());
+    }
+
+    @Test
+    void shouldFreeTheSlotOfAStreamedDownloadWhoseBodyIsClosedEarly() throws Exception {
+        // Given
+        ReflectionTestUtils.setField(limiter, "initialLimit", 1);
+        Exchange download = new DefaultExchange(camelContext);
+        download.setProperty("streamResponse", true);
+        execute(download, new CountDownLatch(1));
+        Started streamed = started.poll(5, TimeUnit.SECONDS);
+        streamed.exchange().getIn().setBody(new ByteArrayInputStream(new byte[4096]));
+        streamed.answer(null);
+
+        // When
+        download.getIn().getBody(InputStream.class).close();
+        download.getExchangeExtension().handoverCompletions().forEach(sync -> sync.onComplete(download));
+
+        // Then - freed once, not again on completion
+        assertEquals(0, meterRegistry.get("orchestrator.upstream.limit.inflight").gauge().value());
+    }
+
+    @Test
+    void shouldRunReservedCallsOnSlotsTakenTogether() throws Exception {
+        // Given
+        assertFalse(limiter.tryReserve(HOST, 3));
+        assertTrue(limiter.tryReserve(HOST, 2));
+        Exchange waiting = new DefaultExchange(camelContext);
+        execute(waiting, new CountDownLatch(1));
+        Exchange range = new DefaultExchange(camelContext);
+        range.setProperty(ConcurrencyLimiter.RESERVED, true);
+
+        // When
+        execute(range, new CountDownLatch(1));
+        Started reserved = started.poll(5, TimeUnit.SECONDS);
+        reserved.answer(null);
+
+        // Then - answering a reserved call does not free a slot, giving the reservation back does
+        assertSame(range, reserved.exchange());
+        assertNull(started.poll(100, TimeUnit.MILLISECONDS));
+        limiter.unreserve(HOST, 2);
+        Started next = started.poll(5, TimeUnit.SECONDS);
+        assertNotNull(next);
+        assertSame(waiting, next.exchange());
+    }
+
+    @Test
+    void shouldClassifyOverloadSignals() {
+        assertEquals(AimdLimit.Outcome.SUCCESS, ConcurrencyLimiter.classify(null));
+        assertEquals(AimdLimit.Outcome.DROPPED, ConcurrencyLimiter.classify(overloaded(429, null)));
+        assertEquals(AimdLimit.Outcome.DROPPED, ConcurrencyLimiter.classify(overloaded(503, null)));
+        assertEquals(AimdLimit.Outcome.IGNORED, ConcurrencyLimiter.classify(overloaded(404, null)));
+        assertEquals(AimdLimit.Outcome.DROPPED,
+                ConcurrencyLimiter.classify(new TimeoutException("read timed out")));
+    }
+
+    @Test
+    void shouldParseRetryAfterAsSecondsOrHttpDate() {
+        // Given
+        ZonedDateTime now = ZonedDateTime.of(2026, 10, 21, 7, 28, 0, 0, ZoneOffset.UTC);
+        String inThreeSeconds = DateTimeFormatter.RFC_1123_DATE_TIME.format(now.plusSeconds(3));
+        long nowMillis = now.toInstant().toEpochMilli();
+
+        // Then
+        assertEquals(2000, ConcurrencyLimiter.retryAfterMillis(overloaded(503, "2"), nowMillis));
+        assertEquals(3000, ConcurrencyLimiter.retryAfterMillis(overloaded(503, inThreeSeconds), nowMillis));
+        assertEquals(0, ConcurrencyLimiter.retryAfterMillis(overloaded(503, "-5"), nowMillis));
+        assertEquals(-1, ConcurrencyLimiter.retryAfterMillis(overloaded(503, "soon"), nowMillis));
+        assertEquals(-1, ConcurrencyLimiter.retryAfterMillis(overloaded(503, null), nowMillis));
+        assertEquals(-1, ConcurrencyLimiter.retryAfterMillis(new IllegalStateException("reset"), nowMillis));
+    }
+}
@@ -0,0 +1,51 @@
+package com.orchestrator.upstream;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyWindowTest {
+
+    @Test
+    void shouldReportThePercentileOfRecentSamples() {
+        // Given
+        LatencyWindow window = new LatencyWindow(100, 95);
+
+        // When
+        for (int latency = 1; latency <= 100; latency++) {
+            window.record(latency);
+        }
+
+        // Then
+        assertEquals(95, window.percentile(20));
+    }
+
+    @Test
+    void shouldForgetSamplesOutsideTheWindow() {
+        // Given
+        LatencyWindow window = new LatencyWindow(20, 50);
+        for (int i = 0; i < 20; i++) {
+            window.record(1_000);
+        }
+
+        // When
+        for (int i = 0; i < 20; i++) {
+            window.record(10);
+        }
+
+        // Then
+        assertEquals(10, window.percentile(20));
+    }
+
+    @Test
+    void shouldReportNothingBeforeTheMinimumSamples() {
+        // Given
+        LatencyWindow window = new LatencyWindow(100, 95);
+
+        // When
+        window.record(5);
+
+        // Then
+        assertEquals(-1, window.percentile(20));
+    }
+}
@@ -0,0 +1,187 @@
+package com.orchestrator.upstream;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.camel.AsyncCallback;
+import org.apache.camel.CamelContext;
+import org.apache.camel.Exchange;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.apache.camel.support.DefaultExchange;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestCoalescerTest {
+
+    private RequestCoalescer coalescer;
+    private CamelContext camelContext;
+
+    @BeforeEach
+    void setUp() {
+        camelContext = new DefaultCamelContext();
+        coalescer = new RequestCoalescer(camelContext, new SimpleMeterRegistry());
+        coalescer.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        coalescer.shutdown();
+    }
+
+    @Test
+    void shouldShareOneUpstreamCallBetweenConcurrentExchanges() throws Exception {
+        // Given
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        RequestCoalescer.UpstreamCall call = (exchange, callback) -> {
+            calls.incrementAndGet();
+            leaderStarted.countDown();
+            await(release);
+            exchange.getIn().setHeader(Exchange.HTTP_RESPONSE_CODE, 200);
+            exchange.getIn().setBody("{\"id\":1}".getBytes());
+            callback.done(true);
+            return true;
+        };
+
+        Exchange leader = new DefaultExchange(camelContext);
+        leader.getIn().setHeader("Authorization", "caller-a");
+        Exchange follower = new DefaultExchange(camelContext);
+        follower.getIn().setHeader("Authorization", "caller-b");
+
+        // When
+        CompletableFuture<Void> leading = CompletableFuture.runAsync(() -> execute(leader, call));
+        leaderStarted.await(5, TimeUnit.SECONDS);
+        CompletableFuture<Void> following = CompletableFuture.runAsync(() -> execute(follower, call));
+        Thread.sleep(100);
+        release.countDown();
+        leading.get(5, TimeUnit.SECONDS);
+        following.get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertEquals(1, calls.get());
+        assertEquals("{\"id\":1}", follower.getIn().getBody(String.class));
+        assertEquals(200, follower.getIn().getHeader(Exchange.HTTP_RESPONSE_CODE));
+        assertEquals("caller-b", follower.getIn().getHeader("Authorization"));
+        assertNotSame(leader.getIn().getBody(), follower.getIn().getBody());
+    }
+
+    @Test
+    void shouldPropagateLeaderFailureToFollowers() throws Exception {
+        // Given
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        RequestCoalescer.UpstreamCall call = (exchange, callback) -> {
+            leaderStarted.countDown();
+            await(release);
+            exchange.setException(new IllegalStateException("upstream down"));
+            callback.done(true);
+            return true;
+        };
+        Exchange leader = new DefaultExchange(camelContext);
+        Exchange follower = new DefaultExchange(camelContext);
+
+        // When
+        CompletableFuture<Void> leading = CompletableFuture.runAsync(() -> execute(leader, call));
+        leaderStarted.await(5, TimeUnit.SECONDS);
+        CompletableFuture<Void> following = CompletableFuture.runAsync(() -> execute(follower, call));
+        Thread.sleep(100);
+        release.countDown();
+        leading.get(5, TimeUnit.SECONDS);
+        following.get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertInstanceOf(IllegalStateException.class, follower.getException());
+    }
+
+    @Test
+    void shouldCompleteFollowersAsynchronously() throws Exception {
+        // Given
+        List<AsyncCallback> pending = new ArrayList<>();
+        RequestCoalescer.UpstreamCall call = (exchange, callback) -> {
+            pending.add(doneSync -> {
+                exchange.getIn().setBody("{\"id\":1}".getBytes());
+                callback.done(doneSync);
+            });
+            return false;
+        };
+        Exchange leader = new DefaultExchange(camelContext);
+        Exchange follower = new DefaultExchange(camelContext);
+        AtomicInteger completed = new AtomicInteger();
+        CountDownLatch bothDone = new CountDownLatch(2);
+        AsyncCallback onDone = doneSync -> {
+            completed.incrementAndGet();
+            bothDone.countDown();
+        };
+
+        // When
+        boolean leaderSync = coalescer.execute("GET http://cs/v2/nodes/1 ticket", leader, onDone, call);
+        boolean followerSync = coalescer.execute("GET http://cs/v2/nodes/1 ticket", follower, onDone, call);
+        int completedBeforeResponse = completed.get();
+        pending.get(0).done(false);
+
+        // Then
+        assertFalse(leaderSync);
+        assertFalse(followerSync);
+        assertEquals(0, completedBeforeResponse);
+        assertTrue(bothDone.await(5, TimeUnit.SECONDS));
+        assertEquals("{\"id\":1}", follower.getIn().getBody(String.class));
+    }
+
+    @Test
+    void shouldNotRunFollowersOnTheLeadersThread() throws Exception {
+        // Given
+        List<AsyncCallback> pending = new ArrayList<>();
+        RequestCoalescer.UpstreamCall call = (exchange, callback) -> {
+            pending.add(doneSync -> {
+                exchange.getIn().setBody("{\"id\":1}".getBytes());
+                callback.done(doneSync);
+            });
+            return false;
+        };
+        CountDownLatch releaseFollower = new CountDownLatch(1);
+        CountDownLatch followerDone = new CountDownLatch(1);
+        List<Thread> followerThreads = new CopyOnWriteArrayList<>();
+        AtomicInteger leaderDone = new AtomicInteger();
+        coalescer.execute("GET http://cs/v2/nodes/1 ticket", new DefaultExchange(camelContext),
+                doneSync -> leaderDone.incrementAndGet(), call);
+        coalescer.execute("GET http://cs/v2/nodes/1 ticket", new DefaultExchange(camelContext), doneSync -> {
+            followerThreads.add(Thread.currentThread());
+            await(releaseFollower); // a slow follower continuation, e.g. a servlet write
+            followerDone.countDown();
+        }, call);
+
+        // When
+        pending.get(0).done(false);
+
+        // Then
+        assertEquals(1, leaderDone.get());
+        releaseFollower.countDown();
+        assertTrue(followerDone.await(5, TimeUnit.SECONDS));
+        assertEquals(1, followerThreads.size());
+        assertNotSame(Thread.currentThread(), followerThreads.get(0));
+    }
+
+    private void execute(Exchange exchange, RequestCoalescer.UpstreamCall call) {
+        CountDownLatch done = new CountDownLatch(1);
+        coalescer.execute("GET http://cs/v2/nodes/1 ticket", exchange, doneSync -> done.countDown(), call);
+        await(done);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
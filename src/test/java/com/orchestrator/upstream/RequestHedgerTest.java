@@ -0,0 +1,183 @@
+package com.orchestrator.upstream;
+
+import com.orchestrator.config.model.HedgeConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.camel.AsyncCallback;
+import org.apache.camel.CamelContext;
+import org.apache.camel.Exchange;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.apache.camel.support.DefaultExchange;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestHedgerTest {
+
+    private static final String ENDPOINT = "get-node";
+
+    private final CamelContext camelContext = new DefaultCamelContext();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final BlockingQueue<Started> started = new LinkedBlockingQueue<>();
+    private final AtomicInteger completions = new AtomicInteger();
+    private final CountDownLatch completed = new CountDownLatch(1);
+    private RequestHedger hedger;
+
+    /**
+     * An upstream attempt that has been sent and waits for the test to answer it
+     */
+    private record Started(Exchange exchange, AsyncCallback callback, long at) {
+        void answer(String body) {
+            exchange.getIn().setBody(body);
+            callback.done(false);
+        }
+
+        void fail(Exception failure) {
+            exchange.setException(failure);
+            callback.done(false);
+        }
+    }
+
+    private final RequestCoalescer.UpstreamCall pending = (exchange, callback) -> {
+        started.add(new Started(exchange, callback, System.nanoTime()));
+        return false;
+    };
+
+    @BeforeEach
+    void setUp() {
+        hedger = new RequestHedger(camelContext, meterRegistry);
+        ReflectionTestUtils.setField(hedger, "enabled", true);
+        ReflectionTestUtils.setField(hedger, "budgetPercent", 5.0);
+        ReflectionTestUtils.setField(hedger, "budgetBurst", 10.0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        hedger.shutdown();
+    }
+
+    private static HedgeConfig hedgeAfter(long delayMs) {
+        HedgeConfig config = new HedgeConfig();
+        config.setMinDelayMs(delayMs);
+        config.setMaxDelayMs(delayMs);
+        return config;
+    }
+
+    private boolean execute(Exchange exchange, long delayMs) {
+        return hedger.execute(ENDPOINT, hedgeAfter(delayMs), exchange, doneSync -> {
+            completions.incrementAndGet();
+            completed.countDown();
+        }, pending);
+    }
+
+    private double count(String result) {
+        return meterRegistry.get("orchestrator.upstream.hedge").tag("result", result).counter().count();
+    }
+
+    @Test
+    void shouldSendAHedgeOnceThePrimaryIsSlowerThanTheDelay() throws Exception {
+        // Given
+        hedger.init();
+        Exchange exchange = new DefaultExchange(camelContext);
+
+        // When
+        boolean sync = execute(exchange, 50);
+        Started primary = started.poll(5, TimeUnit.SECONDS);
+        Started hedge = started.poll(5, TimeUnit.SECONDS);
+
+        // Then
+        assertFalse(sync);
+        assertNotNull(hedge);
+        assertTrue(hedge.at() - primary.at() >= TimeUnit.MILLISECONDS.toNanos(40));
+        assertNotSame(exchange, primary.exchange());
+        assertNotSame(exchange, hedge.exchange());
+        assertEquals(1, count("hedged"));
+    }
+
+    @Test
+    void shouldUseTheFirstSuccessAndDiscardTheLoser() throws Exception {
+        // Given
+        hedger.init();
+        Exchange exchange = new DefaultExchange(camelContext);
+        execute(exchange, 20);
+        Started primary = started.poll(5, TimeUnit.SECONDS);
+        Started hedge = started.poll(5, TimeUnit.SECONDS);
+
+        // When
+        hedge.answer("{\"from\":\"hedge\"}");
+        primary.answer("{\"from\":\"primary\"}");
+
+        // Then
+        assertTrue(completed.await(5, TimeUnit.SECONDS));
+        assertEquals(1, completions.get());
+        assertEquals("{\"from\":\"hedge\"}", exchange.getIn().getBody(String.class));
+        assertNull(exchange.getException());
+        assertEquals(1, count("won"));
+    }
+
+    @Test
+    void shouldWaitForThePendingHedgeWhenThePrimaryFails() throws Exception {
+        // Given
+        hedger.init();
+        Exchange exchange = new DefaultExchange(camelContext);
+        execute(exchange, 20);
+        Started primary = started.poll(5, TimeUnit.SECONDS);
+        Started hedge = started.poll(5, TimeUnit.SECONDS);
+
+        // When
+        primary.fail(new IllegalStateException("connection reset"));
+        assertEquals(0, completions.get());
+        hedge.answer("{\"from\":\"hedge\"}");
+
+        // Then
+        assertTrue(completed.await(5, TimeUnit.SECONDS));
+        assertEquals(1, completions.get());
+        assertNull(exchange.getException());
+        assertEquals("{\"from\":\"hedge\"}", exchange.getIn().getBody(String.class));
+    }
+
+    @Test
+    void shouldNotHedgeWithoutBudget() throws Exception {
+        // Given
+        ReflectionTestUtils.setField(hedger, "budgetPercent", 0.0);
+        ReflectionTestUtils.setField(hedger, "budgetBurst", 0.0);
+        hedger.init();
+
+        // When
+        execute(new DefaultExchange(camelContext), 20);
+        Started primary = started.poll(5, TimeUnit.SECONDS);
+
+        // Then
+        assertNull(started.poll(300, TimeUnit.MILLISECONDS));
+        assertEquals(1, count("over_budget"));
+        assertEquals(0, count("hedged"));
+        primary.answer("{}");
+        assertTrue(completed.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void shouldNotHedgeWhenThePrimaryAnswersWithinTheDelay() throws Exception {
+        // Given
+        hedger.init();
+        Exchange exchange = new DefaultExchange(camelContext);
+        execute(exchange, 200);
+
+        // When
+        started.poll(5, TimeUnit.SECONDS).answer("{\"from\":\"primary\"}");
+
+        // Then
+        assertTrue(completed.await(5, TimeUnit.SECONDS));
+        assertNull(started.poll(400, TimeUnit.MILLISECONDS));
+        assertEquals(0, count("hedged"));
+        assertEquals(0, count("over_budget"));
+        assertEquals("{\"from\":\"primary\"}", exchange.getIn().getBody(String.class));
+    }
+}
@@ -0,0 +1,137 @@
+package com.orchestrator.upstream;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.camel.CamelContext;
+import org.apache.camel.Exchange;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.apache.camel.support.DefaultExchange;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UpstreamGuardTest {
+
+    private final CamelContext camelContext = new DefaultCamelContext();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private UpstreamGuard guard;
+
+    /**
+     * A Content Server download answering at once with a streamed body
+     */
+    private final RequestCoalescer.UpstreamCall download = (exchange, callback) -> {
+        exchange.getIn().setBody(new ByteArrayInputStream(new byte[4096]));
+        callback.done(true);
+        return true;
+    };
+
+    @BeforeEach
+    void setUp() {
+        guard = new UpstreamGuard(meterRegistry);
+        ReflectionTestUtils.setField(guard, "enabled", true);
+        ReflectionTestUtils.setField(guard, "failureRateThreshold", 50);
+        ReflectionTestUtils.setField(guard, "window", 50);
+        ReflectionTestUtils.setField(guard, "minimumCalls", 20);
+        ReflectionTestUtils.setField(guard, "slowCallMillis", 10000L);
+        ReflectionTestUtils.setField(guard, "openSeconds", 30L);
+        ReflectionTestUtils.setField(guard, "halfOpenCalls", 5);
+        ReflectionTestUtils.setField(guard, "maxConcurrentAuth", 1);
+        ReflectionTestUtils.setField(guard, "maxConcurrentMetadata", 1);
+        ReflectionTestUtils.setField(guard, "maxConcurrentWrite", 1);
+        ReflectionTestUtils.setField(guard, "maxConcurrentBinary", 1);
+        guard.init();
+    }
+
+    private Exchange stream() {
+        Exchange exchange = new DefaultExchange(camelContext);
+        exchange.setProperty("streamResponse", true);
+        guard.execute(UpstreamGroup.BINARY, exchange, doneSync -> { }, download);
+        return exchange;
+    }
+
+    private double active() {
+        return meterRegistry.get("orchestrator.upstream.bulkhead.active").tag("group", "binary").gauge().value();
+    }
+
+    @Test
+    void shouldHoldThePermitWhileTheBodyIsUnread() {
+        // Given
+        stream();
+
+        // When
+        Exchange second = stream();
+
+        // Then
+        UpstreamUnavailableException failure = assertInstanceOf(UpstreamUnavailableException.class,
+                second.getException());
+        assertEquals("BULKHEAD_FULL", failure.getErrorType());
+        assertEquals(1, active());
+    }
+
+    @Test
+    void shouldReleaseThePermitOnceTheBodyIsReadToTheEnd() throws Exception {
+        // Given
+        Exchange first = stream();
+
+        // When
+        InputStream body = first.getIn().getBody(InputStream.class);
+        assertEquals(4096, body.readAllBytes().length);
+
+        // Then - the exchange has not completed yet
+        assertEquals(0, active());
+        assertNull(stream().getException());
+        body.close();
+        first.getExchangeExtension().handoverCompletions().forEach(sync -> sync.onComplete(first));
+        assertEquals(1, active()); // released once, not again on close and completion
+    }
+
+    @Test
+    void shouldReleaseThePermitWhenTheBodyIsClosedEarly() throws Exception {
+        // Given
+        Exchange first = stream();
+
+        // When
+        first.getIn().getBody(InputStream.class).close();
+
+        // Then
+        assertEquals(0, active());
+        assertNull(stream().getException());
+    }
+
+    @Test
+    void shouldReleaseThePermitOfAnUnreadBodyWhenTheExchangeCompletes() {
+        // Given
+        Exchange first = stream();
+
+        // When
+        first.setException(new IllegalStateException("route failed before the body was sent"));
+        first.getExchangeExtension().handoverCompletions().forEach(sync -> sync.onFailure(first));
+
+        // Then
+        assertEquals(0, active());
+    }
+
+    @Test
+    void shouldRunReservedCallsOnPermitsTakenTogether() {
+        // Given
+        assertFalse(guard.tryReserve(UpstreamGroup.BINARY, 2));
+        assertTrue(guard.tryReserve(UpstreamGroup.BINARY, 1));
+        Exchange range = new DefaultExchange(camelContext);
+        range.setProperty(UpstreamGuard.RESERVED, true);
+
+        // When
+        guard.execute(UpstreamGroup.BINARY, range, doneSync -> { }, download);
+
+        // Then
+        assertNull(range.getException());
+        assertEquals(1, active()); // still reserved
+        assertEquals("BULKHEAD_FULL", assertInstanceOf(UpstreamUnavailableException.class,
+                stream().getException()).getErrorType());
+        guard.unreserve(UpstreamGroup.BINARY, 1);
+        assertEquals(0, active());
+    }
+}